@@ -0,0 +1,87 @@
+package org.groupm.ewallet.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hit/miss counters of one second-level cache region (entity, natural id or
+ * query results), serialized by the admin endpoint.
+ */
+public class CacheRegionStats {
+
+    private final String region;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long elementsInMemory;
+
+    public CacheRegionStats(String region, long hits, long misses, long puts, long elementsInMemory) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.elementsInMemory = elementsInMemory;
+    }
+
+    /**
+     * One entry per entity, natural-id and query region. Empty if the cache
+     * is disabled; all counters stay at 0 unless hibernate.generate_statistics
+     * is on.
+     */
+    public static List<CacheRegionStats> of(SessionFactory sessionFactory) {
+        CacheImplementor cache = sessionFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStats> regions = new ArrayList<>();
+        for (String name : cache.getCacheRegionNames()) {
+            Region region = cache.getRegion(name);
+            CacheRegionStatistics counters;
+            if (region instanceof DomainDataRegion) {
+                counters = statistics.getDomainDataRegionStatistics(name);
+            } else if (region instanceof QueryResultsRegion) {
+                counters = statistics.getQueryRegionStatistics(name);
+            } else {
+                // Update timestamps region: bookkeeping for the query cache, no hits
+                continue;
+            }
+            regions.add(new CacheRegionStats(name, counters.getHitCount(), counters.getMissCount(),
+                    counters.getPutCount(), counters.getElementCountInMemory()));
+        }
+        return regions;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    /** Hits over lookups, 0 when the region was never read. */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /** -1 when the provider does not report it. */
+    public long getElementsInMemory() {
+        return elementsInMemory;
+    }
+}
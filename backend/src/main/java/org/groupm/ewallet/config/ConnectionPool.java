@@ -0,0 +1,109 @@
+package org.groupm.ewallet.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.Map;
+
+/**
+ * Builds the HikariCP pool used by the EntityManagerFactory.
+ *
+ * Every setting can be overridden through an environment variable (same
+ * mechanism as FINNHUB_API_KEY in docker-compose.yml); the defaults match the
+ * docker-compose MySQL service.
+ *
+ * <pre>
+ * EWALLET_DB_URL / EWALLET_DB_USER / EWALLET_DB_PASSWORD
+ * EWALLET_DB_POOL_MIN_IDLE              minimum idle connections       (5)
+ * EWALLET_DB_POOL_MAX_SIZE              maximum pool size              (20)
+ * EWALLET_DB_POOL_ACQUIRE_TIMEOUT_MS    wait for a free connection     (5000)
+ * EWALLET_DB_POOL_LEAK_DETECTION_MS     log connections held longer    (30000, 0 = off)
+ * EWALLET_DB_POOL_VALIDATION_TIMEOUT_MS liveness check timeout         (3000)
+ * EWALLET_DB_POOL_MAX_LIFETIME_MS       retire connections after       (1800000)
+ * EWALLET_DB_STMT_CACHE_SIZE            prepared statements per conn.  (250, 0 = off)
+ * </pre>
+ */
+public final class ConnectionPool {
+
+    static final String DEFAULT_URL = "jdbc:mysql://mysql:3306/ewallet_db"
+            + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+
+    private static final String NON_JTA_DATA_SOURCE = "jakarta.persistence.nonJtaDataSource";
+    private static final String HIBERNATE_POOL_SIZE = "hibernate.connection.pool_size";
+    private static final int HIBERNATE_DEFAULT_POOL_SIZE = 20;
+
+    private ConnectionPool() {
+    }
+
+    /**
+     * Creates the pool from the given environment, typically
+     * {@code System.getenv()}. Fails fast if the database is unreachable.
+     */
+    public static HikariDataSource create(Map<String, String> env, PoolMetrics metrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("ewallet");
+        config.setJdbcUrl(env.getOrDefault("EWALLET_DB_URL", DEFAULT_URL));
+        config.setUsername(env.getOrDefault("EWALLET_DB_USER", "root"));
+        config.setPassword(env.getOrDefault("EWALLET_DB_PASSWORD", "root"));
+
+        config.setMinimumIdle(intSetting(env, "EWALLET_DB_POOL_MIN_IDLE", 5));
+        config.setMaximumPoolSize(intSetting(env, "EWALLET_DB_POOL_MAX_SIZE", 20));
+        config.setConnectionTimeout(longSetting(env, "EWALLET_DB_POOL_ACQUIRE_TIMEOUT_MS", 5_000));
+        config.setLeakDetectionThreshold(longSetting(env, "EWALLET_DB_POOL_LEAK_DETECTION_MS", 30_000));
+        config.setValidationTimeout(longSetting(env, "EWALLET_DB_POOL_VALIDATION_TIMEOUT_MS", 3_000));
+        config.setMaxLifetime(longSetting(env, "EWALLET_DB_POOL_MAX_LIFETIME_MS", 1_800_000));
+        // Idle connections are pinged (JDBC4 isValid) before MySQL's wait_timeout closes them
+        config.setKeepaliveTime(60_000);
+
+        boolean mysql = config.getJdbcUrl().startsWith("jdbc:mysql:");
+        if (mysql) {
+            // Hibernate JDBC batches are sent as multi-row INSERTs instead of one round trip per row
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            // Queries with a positive fetch size (exports) read through a server-side cursor
+            config.addDataSourceProperty("useCursorFetch", "true");
+        }
+
+        int statementCache = intSetting(env, "EWALLET_DB_STMT_CACHE_SIZE", 250);
+        if (statementCache > 0 && mysql) {
+            // Connector/J per-connection cache of server-side prepared statements
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCache));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        }
+
+        config.setMetricsTrackerFactory((poolName, poolStats) -> metrics);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Maximum number of connections the factory can hold at once: the size
+     * of the HikariCP pool it was built on, or Hibernate's built-in pool size
+     * when it manages its own connections (tests).
+     */
+    public static int maxSize(EntityManagerFactory emf) {
+        Map<String, Object> properties = emf.getProperties();
+        if (properties.get(NON_JTA_DATA_SOURCE) instanceof HikariDataSource pool) {
+            return pool.getMaximumPoolSize();
+        }
+        Object poolSize = properties.get(HIBERNATE_POOL_SIZE);
+        return poolSize != null ? Integer.parseInt(poolSize.toString().trim()) : HIBERNATE_DEFAULT_POOL_SIZE;
+    }
+
+    private static int intSetting(Map<String, String> env, String name, int defaultValue) {
+        return (int) longSetting(env, name, defaultValue);
+    }
+
+    private static long longSetting(Map<String, String> env, String name, long defaultValue) {
+        String value = env.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got '" + value + "'", e);
+        }
+    }
+}
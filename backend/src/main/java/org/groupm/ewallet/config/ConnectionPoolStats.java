@@ -0,0 +1,84 @@
+package org.groupm.ewallet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Point-in-time view of the connection pool, serialized by the admin
+ * endpoint.
+ */
+public class ConnectionPoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int waitingThreads;
+    private final long acquisitions;
+    private final long timeouts;
+    private final double meanAcquisitionMicros;
+    private final double maxAcquisitionMicros;
+
+    public ConnectionPoolStats(int active, int idle, int total, int maxSize, int waitingThreads, long acquisitions,
+            long timeouts, double meanAcquisitionMicros, double maxAcquisitionMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.waitingThreads = waitingThreads;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.meanAcquisitionMicros = meanAcquisitionMicros;
+        this.maxAcquisitionMicros = maxAcquisitionMicros;
+    }
+
+    public static ConnectionPoolStats of(HikariDataSource pool, PoolMetrics metrics) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return new ConnectionPoolStats(
+                bean.getActiveConnections(),
+                bean.getIdleConnections(),
+                bean.getTotalConnections(),
+                pool.getMaximumPoolSize(),
+                bean.getThreadsAwaitingConnection(),
+                metrics.getAcquisitions(),
+                metrics.getTimeouts(),
+                metrics.getMeanAcquisitionMicros(),
+                metrics.getMaxAcquisitionMicros());
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getMeanAcquisitionMicros() {
+        return meanAcquisitionMicros;
+    }
+
+    public double getMaxAcquisitionMicros() {
+        return maxAcquisitionMicros;
+    }
+}
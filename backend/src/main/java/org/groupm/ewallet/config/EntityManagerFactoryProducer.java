@@ -1,23 +1,35 @@
 package org.groupm.ewallet.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * CDI Producer for a shared EntityManagerFactory singleton.
  * Replaces the multiple EMF instances that were being created per repository.
  * This ensures all repositories share the same connection pool and transaction
  * context.
+ *
+ * Connections come from a HikariCP pool (see {@link ConnectionPool}) handed to
+ * Hibernate as the non-JTA DataSource, instead of Hibernate's built-in pool.
  */
 @ApplicationScoped
 public class EntityManagerFactoryProducer {
 
     private EntityManagerFactory emf;
 
+    private HikariDataSource pool;
+
+    private final PoolMetrics poolMetrics = new PoolMetrics();
+
     @PostConstruct
     public void init() {
         // Retry logic to handle MySQL startup timing issues in Docker
@@ -26,10 +38,17 @@ public class EntityManagerFactoryProducer {
 
         while (retryCount < maxRetries) {
             try {
-                this.emf = Persistence.createEntityManagerFactory("ewalletPU");
-                System.out.println("[EMF] EntityManagerFactory created successfully.");
+                this.pool = ConnectionPool.create(System.getenv(), poolMetrics);
+                this.emf = Persistence.createEntityManagerFactory("ewalletPU",
+                        Map.of("jakarta.persistence.nonJtaDataSource", pool));
+                System.out.println("[EMF] EntityManagerFactory created successfully (pool max size "
+                        + pool.getMaximumPoolSize() + ").");
                 return;
             } catch (Exception e) {
+                if (pool != null) {
+                    pool.close();
+                    pool = null;
+                }
                 retryCount++;
                 System.out.println("[EMF] Retry " + retryCount + "/" + maxRetries + " - waiting for database...");
                 if (retryCount >= maxRetries) {
@@ -52,11 +71,28 @@ public class EntityManagerFactoryProducer {
         return emf;
     }
 
+    /**
+     * Current pool usage and acquisition latency, for the admin endpoint.
+     */
+    public ConnectionPoolStats poolStats() {
+        return ConnectionPoolStats.of(pool, poolMetrics);
+    }
+
+    /**
+     * Second-level cache hit ratio per region, for the admin endpoint.
+     */
+    public List<CacheRegionStats> cacheStats() {
+        return CacheRegionStats.of(emf.unwrap(SessionFactory.class));
+    }
+
     @PreDestroy
     public void cleanup() {
         if (emf != null && emf.isOpen()) {
             emf.close();
             System.out.println("[EMF] EntityManagerFactory closed.");
         }
+        if (pool != null) {
+            pool.close();
+        }
     }
 }
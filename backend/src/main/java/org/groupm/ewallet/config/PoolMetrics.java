@@ -0,0 +1,60 @@
+package org.groupm.ewallet.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection acquisition counters fed by HikariCP.
+ * Lock-free: Hikari calls these methods on every getConnection().
+ */
+public class PoolMetrics implements IMetricsTracker {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionNanos = new LongAdder();
+    private final AtomicLong maxAcquisitionNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        acquisitionNanos.add(elapsedAcquiredNanos);
+        maxAcquisitionNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /** getConnection() calls, including the ones that timed out. */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /** Mean time spent waiting in getConnection(), in microseconds. */
+    public double getMeanAcquisitionMicros() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0 : acquisitionNanos.sum() / 1_000.0 / count;
+    }
+
+    public double getMaxAcquisitionMicros() {
+        return maxAcquisitionNanos.get() / 1_000.0;
+    }
+
+    /** Total time connections were held by callers, in milliseconds. */
+    public long getUsageMillis() {
+        return usageMillis.sum();
+    }
+}
@@ -0,0 +1,22 @@
+package org.groupm.ewallet.config;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Interceptor binding for read-only methods: the request-scoped Hibernate
+ * session is switched to read-only mode for the duration of the call.
+ *
+ * @see ReadOnlyInterceptor
+ */
+@InterceptorBinding
+@Inherited
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
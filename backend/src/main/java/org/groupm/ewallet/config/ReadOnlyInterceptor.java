@@ -0,0 +1,45 @@
+package org.groupm.ewallet.config;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+/**
+ * Interceptor for @ReadOnly methods.
+ * Switches the request-scoped session to read-only (no snapshot kept for
+ * dirty checking; queries load read-only entities) and to FlushMode.MANUAL
+ * (no auto-flush before queries), then restores the previous mode.
+ *
+ * A @Transactional method called from a read-only method gets a writable
+ * session again for the duration of its transaction (see
+ * TransactionInterceptor).
+ */
+@Interceptor
+@ReadOnly
+@Priority(Interceptor.Priority.APPLICATION + 90)
+public class ReadOnlyInterceptor {
+
+    @Inject
+    private EntityManager em;
+
+    @AroundInvoke
+    public Object readOnly(InvocationContext ctx) throws Exception {
+        Session session = em.unwrap(Session.class);
+        boolean previousReadOnly = session.isDefaultReadOnly();
+        FlushMode previousFlushMode = session.getHibernateFlushMode();
+
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        try {
+            return ctx.proceed();
+        } finally {
+            session.setDefaultReadOnly(previousReadOnly);
+            session.setHibernateFlushMode(previousFlushMode);
+        }
+    }
+}
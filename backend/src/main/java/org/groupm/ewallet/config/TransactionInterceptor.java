@@ -7,6 +7,8 @@ import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 
 /**
  * Custom transaction interceptor for RESOURCE_LOCAL transactions.
@@ -32,6 +34,16 @@ public class TransactionInterceptor {
             System.out.println("[TX] Started transaction for: " + ctx.getMethod().getName());
         }
 
+        // Called from a @ReadOnly method: writes need a writable session that
+        // flushes at commit
+        Session session = em.unwrap(Session.class);
+        boolean readOnlyCaller = txStartedHere && session.isDefaultReadOnly();
+        FlushMode callerFlushMode = session.getHibernateFlushMode();
+        if (readOnlyCaller) {
+            session.setDefaultReadOnly(false);
+            session.setHibernateFlushMode(FlushMode.AUTO);
+        }
+
         try {
             Object result = ctx.proceed();
 
@@ -48,6 +60,11 @@ public class TransactionInterceptor {
                         + e.getMessage());
             }
             throw e;
+        } finally {
+            if (readOnlyCaller) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(callerFlushMode);
+            }
         }
     }
 }
@@ -1,9 +1,13 @@
 package org.groupm.ewallet.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import jakarta.json.bind.annotation.JsonbTransient;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,10 +18,20 @@ import java.util.List;
  */
 @Entity
 @Table(name = "accounts")
+@NamedEntityGraph(name = Account.GRAPH_TRANSACTIONS, attributeNodes = @NamedAttributeNode("transactions"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Account.CACHE_REGION)
+@SQLRestriction(SoftDeletes.ACTIVE)
 public class Account implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Région du cache de second niveau (taille et durée : application.conf). */
+    public static final String CACHE_REGION = "ewallet-account";
+
+    /** Plan de chargement : compte et ses transactions. */
+    public static final String GRAPH_TRANSACTIONS = "Account.transactions";
+
     /** Identifiant unique du compte. */
     @Id
     @Column(name = "account_id")
@@ -47,6 +61,10 @@ public class Account implements Serializable {
     @Version
     private Long version;
 
+    /** Date de suppression logique, null tant que le compte est actif. */
+    @Column(name = SoftDeletes.COLUMN, insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     /** Liste des transactions associées à ce compte. */
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<Transaction> transactions;
@@ -176,6 +194,13 @@ public class Account implements Serializable {
         this.transactions = transactions;
     }
 
+    /**
+     * Ajoute une transaction à la collection en mémoire et maintient la relation
+     * bidirectionnelle.
+     * À réserver aux comptes non encore persistés (création en cascade) : sur un
+     * compte managé, l'accès à la collection lazy charge tout l'historique. Pour
+     * un compte existant, utiliser simplement transaction.setAccount(account).
+     */
     public void addTransaction(Transaction transaction) {
         if (this.transactions == null) {
             this.transactions = new ArrayList<>();
@@ -0,0 +1,47 @@
+package org.groupm.ewallet.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Marque un compte dont l'historique des soldes journaliers a été reconstitué.
+ *
+ * La présence de lignes dans account_daily_balance ne suffit pas : le premier
+ * mouvement d'un compte existant après la mise en place des soldes journaliers
+ * enregistre le solde du jour, sans l'historique antérieur.
+ */
+@Entity
+@Table(name = "account_balance_backfill", indexes = @Index(name = "idx_account_balance_backfill_user", columnList = "user_id"))
+public class AccountBalanceBackfill implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "account_id")
+    private String accountID;
+
+    /** Propriétaire du compte (dénormalisé pour la suppression par utilisateur). */
+    @Column(name = "user_id")
+    private String userID;
+
+    @Column(name = "backfilled_at", nullable = false)
+    private LocalDateTime backfilledAt;
+
+    public AccountBalanceBackfill() {
+    }
+
+    // ===================== Getters =====================
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public LocalDateTime getBackfilledAt() {
+        return backfilledAt;
+    }
+}
@@ -0,0 +1,63 @@
+package org.groupm.ewallet.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Solde de clôture journalier d'un compte.
+ *
+ * Une ligne par compte et par jour ayant connu un mouvement, mise à jour à
+ * chaque transaction. Un jour sans ligne a le solde du dernier jour connu.
+ */
+@Entity
+@Table(name = "account_daily_balance", uniqueConstraints = @UniqueConstraint(name = "uk_account_daily_balance_day", columnNames = {
+        "account_id", "balance_date" }), indexes = @Index(name = "idx_account_daily_balance_user_date", columnList = "user_id, balance_date"))
+public class AccountDailyBalance implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountID;
+
+    /** Propriétaire du compte (dénormalisé pour les séries par utilisateur). */
+    @Column(name = "user_id")
+    private String userID;
+
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    /** Solde en fin de journée (CHF). */
+    @Column(name = "closing_balance", precision = 19, scale = 4, nullable = false)
+    private BigDecimal closingBalance = BigDecimal.ZERO;
+
+    public AccountDailyBalance() {
+    }
+
+    // ===================== Getters =====================
+
+    public long getId() {
+        return id;
+    }
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public LocalDate getBalanceDate() {
+        return balanceDate;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+}
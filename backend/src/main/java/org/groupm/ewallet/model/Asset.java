@@ -1,6 +1,8 @@
 package org.groupm.ewallet.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.json.bind.annotation.JsonbTransient;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -12,13 +14,23 @@ import java.time.LocalDateTime;
  * précision.
  */
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = {
+        @Index(name = "idx_assets_portfolio_symbol", columnList = "portfolio_id, symbol"),
+        @Index(name = "idx_assets_symbol", columnList = "symbol") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Asset.CACHE_REGION)
 public class Asset implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Région du cache de second niveau (taille et durée : application.conf). */
+    public static final String CACHE_REGION = "ewallet-asset";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "asset_ids")
+    @TableGenerator(name = "asset_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "assets",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "asset_id")
     private int id;
 
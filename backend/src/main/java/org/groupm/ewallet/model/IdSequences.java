@@ -0,0 +1,25 @@
+package org.groupm.ewallet.model;
+
+/**
+ * Table d'allocation des identifiants numériques (assets, portfolios,
+ * portfolio_transactions, wealth_trackers).
+ *
+ * Contrairement à IDENTITY, Hibernate connaît l'identifiant dès le persist()
+ * et peut regrouper les INSERT en lots JDBC. Chaque ligne de la table donne
+ * la borne haute du dernier bloc réservé ; un bloc de {@link #ALLOCATION_SIZE}
+ * identifiants coûte une lecture et une mise à jour (optimiseur "pooled").
+ * Les identifiants restent croissants mais peuvent avoir des trous après un
+ * redémarrage.
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    /** Aligné sur hibernate.jdbc.batch_size. */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdSequences() {
+    }
+}
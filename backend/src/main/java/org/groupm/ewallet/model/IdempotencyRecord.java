@@ -0,0 +1,86 @@
+package org.groupm.ewallet.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Réponse enregistrée d'une requête POST portant un en-tête Idempotency-Key.
+ *
+ * La ligne est insérée au début de l'exécution, dans la transaction de
+ * l'opération : tant que celle-ci n'est pas validée, une requête concurrente
+ * portant la même clé attend sur la clé primaire. Seules les réponses 2xx
+ * sont conservées, jusqu'à {@link #getExpiresAt()}.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /** Empreinte SHA-256 de la requête : une clé réutilisée pour une autre requête est refusée. */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /** Code HTTP de la réponse (0 tant que l'exécution est en cours). */
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // ===================== Getters =====================
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    // ===================== Setters =====================
+
+    /** Enregistre la réponse de l'exécution. */
+    public void setResponse(int statusCode, String responseBody) {
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+}
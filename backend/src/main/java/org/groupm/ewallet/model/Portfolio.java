@@ -1,6 +1,9 @@
 package org.groupm.ewallet.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import jakarta.json.bind.annotation.JsonbTransient;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -14,12 +17,25 @@ import java.util.List;
  */
 @Entity
 @Table(name = "portfolios")
+@NamedEntityGraph(name = Portfolio.GRAPH_ASSETS, attributeNodes = @NamedAttributeNode("assets"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Portfolio.CACHE_REGION)
+@SQLRestriction(SoftDeletes.ACTIVE)
 public class Portfolio implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Région du cache de second niveau (taille et durée : application.conf). */
+    public static final String CACHE_REGION = "ewallet-portfolio";
+
+    /** Plan de chargement : portefeuille et ses actifs. */
+    public static final String GRAPH_ASSETS = "Portfolio.assets";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "portfolio_ids")
+    @TableGenerator(name = "portfolio_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "portfolios",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "portfolio_id")
     private int id;
 
@@ -53,6 +69,10 @@ public class Portfolio implements Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Date de suppression logique, null tant que le portefeuille est actif. */
+    @Column(name = SoftDeletes.COLUMN, insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     // ===================== Lifecycle Callbacks =====================
 
     @PrePersist
@@ -11,13 +11,18 @@ import java.time.format.DateTimeFormatter;
  * This is separate from bank Account transactions.
  */
 @Entity
-@Table(name = "portfolio_transactions")
+@Table(name = "portfolio_transactions", indexes = {
+        @Index(name = "idx_portfolio_transactions_portfolio_ts", columnList = "portfolio_id, timestamp"),
+        @Index(name = "idx_portfolio_transactions_symbol", columnList = "symbol") })
 public class PortfolioTransaction implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "portfolio_transaction_ids")
+    @TableGenerator(name = "portfolio_transaction_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "portfolio_transactions",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "id")
     private long id;
 
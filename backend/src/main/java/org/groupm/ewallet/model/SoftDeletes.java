@@ -0,0 +1,26 @@
+package org.groupm.ewallet.model;
+
+/**
+ * Suppression logique des utilisateurs, comptes et portefeuilles.
+ *
+ * Supprimer une ligne renseigne seulement sa colonne {@link #COLUMN} : une
+ * mise à jour par table, quel que soit le volume de transactions rattaché.
+ * Les entités portent la restriction {@link #ACTIVE}, que Hibernate ajoute à
+ * chaque chargement (find, requêtes JPQL, collections) : les lignes
+ * supprimées disparaissent pour tous les repositories. La suppression
+ * physique est faite plus tard, par lots, par SoftDeletePurger.
+ *
+ * La colonne n'est écrite que par ces mises à jour SQL (jamais par un
+ * flush), qui incrémentent aussi la version : une modification concurrente
+ * d'une entité chargée avant la suppression échoue en verrou optimiste.
+ */
+public final class SoftDeletes {
+
+    public static final String COLUMN = "deleted_at";
+
+    /** Restriction SQL des lignes actives. */
+    public static final String ACTIVE = COLUMN + " IS NULL";
+
+    private SoftDeletes() {
+    }
+}
@@ -0,0 +1,115 @@
+package org.groupm.ewallet.model;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Générateur d'identifiants ordonnés dans le temps (UUID version 7).
+ *
+ * Les 48 premiers bits portent l'horodatage en millisecondes, les 12 suivants
+ * un compteur qui garantit l'ordre strict des identifiants générés dans la
+ * même milliseconde ; le reste est aléatoire. Les insertions se font donc en
+ * fin d'index B-tree au lieu d'être dispersées comme avec des UUID v4.
+ *
+ * La forme texte est la forme canonique en minuscules, dont l'ordre
+ * lexicographique est identique à l'ordre des 16 octets.
+ */
+public final class TimeOrderedId {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int COUNTER_MAX = 0xFFF;
+
+    /** Préfixe des anciens identifiants de transaction ("TXN-" + UUID). */
+    private static final String LEGACY_PREFIX = "TXN-";
+
+    private static long lastMillis;
+    private static int counter;
+
+    private TimeOrderedId() {
+    }
+
+    /**
+     * @return un nouvel identifiant, strictement supérieur aux précédents
+     */
+    public static String next() {
+        long millis;
+        int seq;
+        synchronized (TimeOrderedId.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = RANDOM.nextInt(COUNTER_MAX / 2);
+            } else if (++counter > COUNTER_MAX) {
+                // Compteur épuisé (ou horloge reculée) : on avance d'une milliseconde
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            seq = counter;
+        }
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * Indique si la chaîne est un UUID canonique (8-4-4-4-12 hexadécimal).
+     */
+    public static boolean isValid(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Identifiant stocké désigné par un identifiant reçu de l'extérieur : un
+     * UUID canonique, ou un ancien identifiant "TXN-" + UUID (la migration v2
+     * a conservé l'UUID sans le préfixe).
+     *
+     * @return la forme canonique en minuscules, ou null si la chaîne ne peut
+     *         désigner aucun identifiant stocké
+     */
+    public static String normalize(String id) {
+        if (id != null && id.regionMatches(true, 0, LEGACY_PREFIX, 0, LEGACY_PREFIX.length())) {
+            id = id.substring(LEGACY_PREFIX.length());
+        }
+        return isValid(id) ? UUID.fromString(id).toString() : null;
+    }
+
+    /**
+     * Forme binaire (16 octets) d'un identifiant texte.
+     *
+     * @throws IllegalArgumentException si la chaîne n'est pas un UUID canonique
+     */
+    public static byte[] toBytes(String id) {
+        if (!isValid(id)) {
+            throw new IllegalArgumentException("Invalid identifier: " + id);
+        }
+        UUID uuid = UUID.fromString(id);
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Forme texte canonique d'un identifiant binaire.
+     */
+    public static String fromBytes(byte[] bytes) {
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Binary identifier must be 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
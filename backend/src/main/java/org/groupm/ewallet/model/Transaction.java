@@ -2,6 +2,7 @@ package org.groupm.ewallet.model;
 
 import jakarta.persistence.*;
 import jakarta.json.bind.annotation.JsonbTransient;
+import org.hibernate.annotations.Type;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,14 +14,20 @@ import java.time.format.DateTimeFormatter;
  * financière.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_ts", columnList = "account_id, timestamp"),
+        @Index(name = "idx_transactions_ts", columnList = "timestamp, transaction_id") })
 public class Transaction implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
-    /** Identifiant unique de la transaction (ex : "TXN001"). */
+    /**
+     * Identifiant unique de la transaction : UUID ordonné dans le temps
+     * (voir {@link TimeOrderedId}), stocké en BINARY(16).
+     */
     @Id
-    @Column(name = "transaction_id")
+    @Type(BinaryIdType.class)
+    @Column(name = "transaction_id", columnDefinition = "BINARY(16)")
     private String transactionID;
 
     /** Type de transaction ("deposit", "withdraw", "transfer"). */
@@ -56,7 +63,8 @@ public class Transaction implements Serializable {
      * When a transfer is made, two transactions are created (debit and credit).
      * This field links them together so they can be deleted together.
      */
-    @Column(name = "linked_transaction_id")
+    @Type(BinaryIdType.class)
+    @Column(name = "linked_transaction_id", columnDefinition = "BINARY(16)")
     private String linkedTransactionId;
 
     /** Version pour optimistic locking - détection des conflits concurrents. */
@@ -1,8 +1,14 @@
 package org.groupm.ewallet.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,15 +18,37 @@ import java.util.List;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.EMAIL_CACHE_REGION)
+@SQLRestriction(SoftDeletes.ACTIVE)
+@NamedEntityGraph(name = User.GRAPH_ACCOUNTS, attributeNodes = @NamedAttributeNode("accounts"))
+@NamedEntityGraph(name = User.GRAPH_PORTFOLIOS, attributeNodes = @NamedAttributeNode("portfolios"))
 public class User implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Région du cache de second niveau (taille et durée : application.conf). */
+    public static final String CACHE_REGION = "ewallet-user";
+
+    /** Région du cache email → identifiant (connexion). */
+    public static final String EMAIL_CACHE_REGION = "ewallet-user-email";
+
+    /** Plan de chargement : utilisateur et ses comptes. */
+    public static final String GRAPH_ACCOUNTS = "User.accounts";
+
+    /**
+     * Plan de chargement : utilisateur et ses portefeuilles (les actifs suivent
+     * avec {@link Portfolio#GRAPH_ASSETS}).
+     */
+    public static final String GRAPH_PORTFOLIOS = "User.portfolios";
+
     /** Identifiant unique de l'utilisateur. */
     @Id
     @Column(name = "user_id")
     private String userID;
 
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String email;
 
@@ -36,6 +64,10 @@ public class User implements Serializable {
     @Version
     private Long version;
 
+    /** Date de suppression logique, null tant que l'utilisateur est actif. */
+    @Column(name = SoftDeletes.COLUMN, insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     /** Solde total cumulé de tous les comptes de l'utilisateur. */
     @Transient // Calculé, pas stocké
     private BigDecimal totalBalance = BigDecimal.ZERO;
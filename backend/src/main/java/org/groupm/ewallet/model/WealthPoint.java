@@ -0,0 +1,115 @@
+package org.groupm.ewallet.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Point de la série temporelle de richesse d'un utilisateur.
+ *
+ * Chaque mise à jour du snapshot alimente un point RAW et les buckets
+ * HOURLY, DAILY et MONTHLY correspondants (première et dernière valeur, min,
+ * max, nombre d'échantillons). Les résolutions fines sont purgées au-delà de leur
+ * fenêtre de rétention ; les buckets mensuels sont conservés.
+ */
+@Entity
+@Table(name = "wealth_points", uniqueConstraints = @UniqueConstraint(name = "uk_wealth_points_bucket", columnNames = {
+        "user_id", "resolution", "bucket_start" }),
+        // Purge de rétention : WHERE resolution = ? AND bucket_start < ?
+        indexes = @Index(name = "idx_wealth_points_resolution_bucket", columnList = "resolution, bucket_start"))
+public class WealthPoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Résolution d'un point de la série. */
+    public enum Resolution {
+        RAW, HOURLY, DAILY, MONTHLY;
+
+        /**
+         * Début du bucket contenant l'instant donné.
+         */
+        public LocalDateTime bucketStart(LocalDateTime at) {
+            return switch (this) {
+                case RAW -> at.truncatedTo(ChronoUnit.SECONDS);
+                case HOURLY -> at.truncatedTo(ChronoUnit.HOURS);
+                case DAILY -> at.truncatedTo(ChronoUnit.DAYS);
+                case MONTHLY -> at.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userID;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 8)
+    private Resolution resolution;
+
+    /** Début du bucket (instant exact pour RAW). */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /** Première valeur enregistrée dans le bucket (USD). */
+    @Column(name = "open_usd", precision = 19, scale = 4)
+    private BigDecimal openUsd = BigDecimal.ZERO;
+
+    /** Dernière valeur connue dans le bucket (USD). */
+    @Column(name = "value_usd", precision = 19, scale = 4)
+    private BigDecimal valueUsd = BigDecimal.ZERO;
+
+    @Column(name = "min_usd", precision = 19, scale = 4)
+    private BigDecimal minUsd = BigDecimal.ZERO;
+
+    @Column(name = "max_usd", precision = 19, scale = 4)
+    private BigDecimal maxUsd = BigDecimal.ZERO;
+
+    @Column(name = "sample_count")
+    private int sampleCount;
+
+    public WealthPoint() {
+    }
+
+    // ===================== Getters =====================
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public BigDecimal getOpenUsd() {
+        return openUsd;
+    }
+
+    public BigDecimal getValueUsd() {
+        return valueUsd;
+    }
+
+    public BigDecimal getMinUsd() {
+        return minUsd;
+    }
+
+    public BigDecimal getMaxUsd() {
+        return maxUsd;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+}
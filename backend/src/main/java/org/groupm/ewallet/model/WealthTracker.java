@@ -1,11 +1,10 @@
 package org.groupm.ewallet.model;
 
 import org.groupm.ewallet.service.CurrencyConverter;
+import jakarta.json.bind.annotation.JsonbTransient;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Suit la richesse totale d'un utilisateur (comptes + portefeuilles).
@@ -13,16 +12,20 @@ import java.util.List;
  * Utilise BigDecimal pour précision financière.
  */
 @Entity
-@Table(name = "wealth_trackers")
+@Table(name = "wealth_trackers", uniqueConstraints = @UniqueConstraint(name = "uk_wealth_trackers_user_id", columnNames = "user_id"))
 public class WealthTracker implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "wealth_tracker_ids")
+    @TableGenerator(name = "wealth_tracker_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "wealth_trackers",
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private int id;
 
-    /** Utilisateur suivi. */
+    /** Utilisateur suivi (exposé en JSON via userID uniquement). */
+    @JsonbTransient
     @OneToOne
     @JoinColumn(name = "user_id", referencedColumnName = "user_id")
     private User user;
@@ -43,16 +46,13 @@ public class WealthTracker implements Serializable {
     @Column(name = "total_stocks", precision = 19, scale = 4)
     private BigDecimal totalStocks = BigDecimal.ZERO;
 
-    /** Taux de croissance depuis la première mesure. */
-    @Column(name = "growth_rate", precision = 10, scale = 4)
+    /**
+     * Taux de croissance depuis la première mesure, calculé à la lecture à
+     * partir de la série temporelle (voir WealthPoint), non stocké.
+     */
+    @Transient
     private BigDecimal growthRate = BigDecimal.ZERO;
 
-    /** Historique des valeurs enregistrées (en USD). */
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "wealth_history", joinColumns = @JoinColumn(name = "tracker_id"))
-    @Column(name = "value")
-    private List<Double> historicalValues;
-
     /** Version pour optimistic locking - détection des conflits concurrents. */
     @Version
     private Long version;
@@ -62,7 +62,6 @@ public class WealthTracker implements Serializable {
     // ============================================================
 
     public WealthTracker() {
-        this.historicalValues = new ArrayList<>();
         this.totalWealthUsd = BigDecimal.ZERO;
         this.totalCash = BigDecimal.ZERO;
         this.totalCrypto = BigDecimal.ZERO;
@@ -86,7 +85,7 @@ public class WealthTracker implements Serializable {
      * Met à jour la richesse totale :
      * - Total des comptes (CHF converti en USD) -> Cash
      * - Total de tous les portefeuilles (CHF converti en USD) -> Crypto/Stocks
-     * - Met à jour : croissance, historique
+     * - Met à jour : total
      */
     public void updateWealth() {
 
@@ -127,26 +126,26 @@ public class WealthTracker implements Serializable {
         this.totalCrypto = cryptoTotal;
         this.totalStocks = stocksTotal;
 
-        // ====================
-        // 3. Total Wealth
-        // ====================
-        this.totalWealthUsd = this.totalCash.add(this.totalCrypto).add(this.totalStocks);
+        computeTotal();
+    }
 
-        // ================================
-        // 4. Mise à jour de l'historique
-        // ================================
-        historicalValues.add(totalWealthUsd.doubleValue());
-
-        // ================================
-        // 5. Calcul du taux de croissance
-        // ================================
-        if (historicalValues.size() > 1) {
-            double initial = historicalValues.get(0);
-            if (initial != 0) {
-                double growth = ((totalWealthUsd.doubleValue() - initial) / initial) * 100.0;
-                this.growthRate = BigDecimal.valueOf(growth);
-            }
-        }
+    /**
+     * Met à jour la richesse à partir de totaux déjà agrégés en base (CHF),
+     * sans parcourir les comptes ni les portefeuilles de l'utilisateur.
+     */
+    public void updateWealth(BigDecimal cashChf, BigDecimal cryptoChf, BigDecimal stocksChf) {
+        this.totalCash = CurrencyConverter.chfToUsd(cashChf);
+        this.totalCrypto = CurrencyConverter.chfToUsd(cryptoChf);
+        this.totalStocks = CurrencyConverter.chfToUsd(stocksChf);
+
+        computeTotal();
+    }
+
+    /**
+     * Richesse totale = cash + crypto + actions.
+     */
+    private void computeTotal() {
+        this.totalWealthUsd = this.totalCash.add(this.totalCrypto).add(this.totalStocks);
     }
 
     // ============================================================
@@ -202,14 +201,18 @@ public class WealthTracker implements Serializable {
         return growthRate != null ? growthRate.doubleValue() : 0.0;
     }
 
-    public List<Double> getHistoricalValues() {
-        return historicalValues;
+    public void setGrowthRate(BigDecimal growthRate) {
+        this.growthRate = growthRate;
     }
 
     public User getUser() {
         return user;
     }
 
+    public String getUserID() {
+        return user != null ? user.getUserID() : null;
+    }
+
     public int getId() {
         return id;
     }
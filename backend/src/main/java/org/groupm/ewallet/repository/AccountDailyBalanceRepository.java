@@ -0,0 +1,55 @@
+package org.groupm.ewallet.repository;
+
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.AccountDailyBalance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interface de persistance des soldes journaliers des comptes.
+ */
+public interface AccountDailyBalanceRepository {
+
+    /**
+     * Enregistre (ou remplace) le solde de clôture d'un compte pour un jour.
+     */
+    void recordClosingBalance(String accountID, String userID, LocalDate day, BigDecimal balance);
+
+    /**
+     * Enregistre (ou remplace) le solde de clôture du jour de plusieurs
+     * comptes, en une requête par tranche de 500 comptes.
+     */
+    void recordClosingBalances(List<Account> accounts, LocalDate day);
+
+    /**
+     * Soldes d'un compte sur [from, to], précédés du dernier solde connu avant
+     * from (point de départ de la série), triés par date.
+     */
+    List<AccountDailyBalance> findRange(String accountID, LocalDate from, LocalDate to);
+
+    /**
+     * Même chose pour tous les comptes d'un utilisateur.
+     */
+    List<AccountDailyBalance> findRangeByUserId(String userID, LocalDate from, LocalDate to);
+
+    /**
+     * Comptes de l'utilisateur dont l'historique n'a pas encore été
+     * reconstitué (voir {@link #markBackfilled}).
+     */
+    List<String> findAccountIdsNotBackfilled(String userID);
+
+    boolean isBackfilled(String accountID);
+
+    /**
+     * Enregistre que l'historique du compte a été reconstitué (sans effet
+     * s'il l'est déjà).
+     */
+    void markBackfilled(String accountID, String userID, LocalDateTime at);
+
+    void deleteByAccountId(String accountID);
+
+    void deleteByUserId(String userID);
+}
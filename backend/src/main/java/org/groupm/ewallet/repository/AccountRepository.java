@@ -1,6 +1,7 @@
 package org.groupm.ewallet.repository;
 
 import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.repository.projection.AccountSummary;
 import java.util.List;
 
 /**
@@ -9,10 +10,17 @@ import java.util.List;
  */
 public interface AccountRepository {
     /**
-     * Sauvegarde ou met à jour un compte.
-     * @param account compte à sauvegarder
+     * Insère un nouveau compte (persist direct, sans lecture préalable).
+     * @param account compte à insérer
      */
-    void save(Account account);
+    void insert(Account account);
+
+    /**
+     * Met à jour un compte existant.
+     * @param account compte à mettre à jour
+     * @return l'instance gérée
+     */
+    Account update(Account account);
 
     /**
      * Recherche un compte par son identifiant unique.
@@ -33,10 +41,33 @@ public interface AccountRepository {
      */
     List<Account> findAll();
 
+    /**
+     * Page de comptes triée par identifiant (pagination par clé).
+     * @param afterAccountId dernier identifiant de la page précédente, ou null
+     * @param limit nombre maximal de lignes
+     * @return comptes d'identifiant strictement supérieur
+     */
+    List<Account> findPage(String afterAccountId, int limit);
+
+    /**
+     * Même pagination que {@link #findPage}, en projection (hors contexte de persistance).
+     */
+    List<AccountSummary> findSummaryPage(String afterAccountId, int limit);
+
     /**
      * Retourne les comptes associés à un utilisateur donné.
      * @param userId identifiant de l'utilisateur
      * @return liste des comptes liés
      */
     List<Account> findByUserId(String userId);
+
+    /**
+     * Charge et verrouille (PESSIMISTIC_WRITE) plusieurs comptes en une
+     * requête, dans l'ordre de la clé primaire : deux appels concurrents
+     * prennent leurs verrous dans le même ordre et ne peuvent pas
+     * s'interbloquer.
+     * @param accountIds identifiants triés
+     * @return les comptes trouvés, triés par identifiant
+     */
+    List<Account> findAllForUpdate(List<String> accountIds);
 }
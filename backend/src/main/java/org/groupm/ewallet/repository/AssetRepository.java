@@ -1,6 +1,7 @@
 package org.groupm.ewallet.repository;
 
 import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.repository.projection.AssetPosition;
 import java.util.List;
 
 /**
@@ -45,6 +46,23 @@ public interface AssetRepository {
      */
     List<Asset> findAll();
 
+    /**
+     * Page d'actifs triée par identifiant (pagination par clé).
+     * 
+     * @param afterId dernier identifiant de la page précédente, ou null
+     * @param limit   nombre maximal de lignes
+     * @return actifs d'identifiant strictement supérieur
+     */
+    List<Asset> findPage(Integer afterId, int limit);
+
+    /**
+     * Positions d'un portefeuille, en projection (hors contexte de persistance).
+     * 
+     * @param portfolioId identifiant du portefeuille
+     * @return une position par actif
+     */
+    List<AssetPosition> findPositionsByPortfolioId(int portfolioId);
+
     /**
      * Recherche tous les actifs d’un type donné.
      * 
@@ -0,0 +1,57 @@
+package org.groupm.ewallet.repository;
+
+/**
+ * Suppressions ensemblistes (DELETE SQL), sans charger les entités ni passer
+ * par les cascades JPA.
+ *
+ * Les méthodes {@code ...Chunk} suppriment au plus {@code limit} lignes et
+ * retournent le nombre de lignes supprimées : l'appelant les répète, une
+ * transaction courte par lot, jusqu'à obtenir moins de {@code limit}. Les
+ * lignes enfants doivent être supprimées avant leurs parents (clés
+ * étrangères).
+ *
+ * Utilisé par la purge des lignes supprimées logiquement et par la remise à
+ * zéro complète.
+ */
+public interface BulkDeleteRepository {
+
+    /** Transactions bancaires d'un compte. */
+    int deleteTransactionsOfAccountChunk(String accountID, int limit);
+
+    /** Achats/ventes d'un portefeuille. */
+    int deletePortfolioTransactionsOfPortfolioChunk(int portfolioID, int limit);
+
+    /** Actifs d'un portefeuille. */
+    int deleteAssetsOfPortfolioChunk(int portfolioID, int limit);
+
+    /**
+     * Compte et ses soldes journaliers ; ses transactions doivent déjà être
+     * supprimées.
+     * @return 1 si le compte existait, 0 sinon
+     */
+    int deleteAccount(String accountID);
+
+    /**
+     * Portefeuille ; ses achats/ventes et ses actifs doivent déjà être
+     * supprimés.
+     * @return 1 si le portefeuille existait, 0 sinon
+     */
+    int deletePortfolio(int portfolioID);
+
+    /**
+     * Utilisateur, ses comptes, portefeuilles, snapshot et historiques ; les
+     * transactions, achats/ventes et actifs doivent déjà être supprimés.
+     * @return 1 si l'utilisateur existait, 0 sinon
+     */
+    int deleteUser(String userID);
+
+    /**
+     * Vide une table par lots, pour la remise à zéro complète.
+     * @param table une des tables de {@link #CLEAR_ORDER}
+     */
+    int deleteAllChunk(String table, int limit);
+
+    /** Tables de l'application, enfants avant parents. */
+    String[] CLEAR_ORDER = { "wealth_points", "account_daily_balance", "account_balance_backfill",
+            "wealth_trackers", "transactions", "portfolio_transactions", "assets", "portfolios", "accounts", "users" };
+}
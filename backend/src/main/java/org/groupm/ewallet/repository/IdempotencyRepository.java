@@ -0,0 +1,33 @@
+package org.groupm.ewallet.repository;
+
+import org.groupm.ewallet.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface de persistance des clés d'idempotence (table idempotency_keys).
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Recherche la réponse enregistrée pour une clé, expirée ou non.
+     */
+    IdempotencyRecord findByKey(String key);
+
+    /**
+     * Insère la clé. Échoue (violation de clé primaire) si une autre
+     * exécution l'a déjà enregistrée ; attend si elle est en cours.
+     */
+    void insert(IdempotencyRecord record);
+
+    /**
+     * Supprime une clé expirée avant de la réutiliser.
+     */
+    void delete(IdempotencyRecord record);
+
+    /**
+     * Supprime au plus {@code limit} clés expirées avant la date donnée.
+     * @return nombre de clés supprimées
+     */
+    int deleteExpiredChunk(LocalDateTime now, int limit);
+}
@@ -16,6 +16,13 @@ public interface PortfolioRepository {
 
     List<Portfolio> findAll();
 
+    /**
+     * Page de portefeuilles triée par identifiant (pagination par clé).
+     * @param afterId dernier identifiant de la page précédente, ou null
+     * @param limit nombre maximal de lignes
+     */
+    List<Portfolio> findPage(Integer afterId, int limit);
+
     /**
      * Retourne tous les portefeuilles appartenant à un utilisateur.
      * @param userID identifiant de l'utilisateur
@@ -2,6 +2,7 @@ package org.groupm.ewallet.repository;
 
 import org.groupm.ewallet.model.PortfolioTransaction;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for PortfolioTransaction persistence operations.
@@ -33,6 +34,12 @@ public interface PortfolioTransactionRepository {
      */
     List<PortfolioTransaction> findAll();
 
+    /**
+     * Streams all transactions (forward-only MySQL cursor, read-only) for
+     * exports. The caller must close the stream.
+     */
+    Stream<PortfolioTransaction> streamAll();
+
     /**
      * Deletes a transaction by its ID.
      */
@@ -0,0 +1,51 @@
+package org.groupm.ewallet.repository;
+
+import org.groupm.ewallet.repository.projection.PurgeBacklog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Suppression logique des utilisateurs, comptes et portefeuilles (colonne
+ * deleted_at, voir {@link org.groupm.ewallet.model.SoftDeletes}) et lecture
+ * des lignes en attente de purge.
+ *
+ * Les méthodes {@code mark...} sont des UPDATE SQL en nombre constant, sans
+ * charger les entités ; elles ne touchent que les lignes encore actives.
+ */
+public interface SoftDeleteRepository {
+
+    /**
+     * Marque un compte supprimé.
+     * @return 1 si le compte était actif, 0 sinon
+     */
+    int markAccountDeleted(String accountID, LocalDateTime deletedAt);
+
+    /**
+     * Marque un portefeuille supprimé.
+     * @return 1 si le portefeuille était actif, 0 sinon
+     */
+    int markPortfolioDeleted(int portfolioID, LocalDateTime deletedAt);
+
+    /**
+     * Marque un utilisateur, ses comptes et ses portefeuilles supprimés, et
+     * retire son snapshot de richesse.
+     * @return 1 si l'utilisateur était actif, 0 sinon
+     */
+    int markUserDeleted(String userID, LocalDateTime deletedAt);
+
+    /** Comptes supprimés, les plus anciens d'abord. */
+    List<String> findDeletedAccountIds(int limit);
+
+    /** Portefeuilles supprimés, les plus anciens d'abord. */
+    List<Integer> findDeletedPortfolioIds(int limit);
+
+    /**
+     * Utilisateurs supprimés dont les comptes et portefeuilles sont déjà
+     * purgés, les plus anciens d'abord.
+     */
+    List<String> findPurgeableUserIds(int limit);
+
+    /** Lignes supprimées restant à purger, par table. */
+    PurgeBacklog countBacklog();
+}
@@ -1,17 +1,57 @@
 package org.groupm.ewallet.repository;
 
 import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.repository.projection.TransactionRow;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface de gestion de la persistance des transactions financières.
  */
 public interface TransactionRepository {
-    void save(Transaction transaction);
+    /**
+     * Insère une nouvelle transaction (persist direct, sans lecture préalable).
+     */
+    void insert(Transaction transaction);
+
+    /**
+     * Met à jour une transaction existante.
+     * @return l'instance gérée
+     */
+    Transaction update(Transaction transaction);
     Transaction findById(String transactionID);
     void delete(String transactionID);
     List<Transaction> findAll();
 
+    /**
+     * Parcours en flux (curseur MySQL, lecture seule) de toutes les
+     * transactions, pour les exports. Le flux doit être fermé par l'appelant.
+     */
+    Stream<Transaction> streamAll();
+
+    /**
+     * Page de transactions, de la plus récente à la plus ancienne, triée par
+     * (timestamp, id) : pagination par clé, sans OFFSET.
+     * @param afterTimestamp horodatage de la dernière ligne de la page précédente, ou null
+     * @param afterID identifiant de la dernière ligne de la page précédente, ou null
+     * @param limit nombre maximal de lignes
+     */
+    List<Transaction> findPage(LocalDateTime afterTimestamp, String afterID, int limit);
+
+    /**
+     * Même pagination que {@link #findPage}, restreinte à un compte.
+     */
+    List<Transaction> findPageByAccountId(String accountID, LocalDateTime afterTimestamp, String afterID,
+            int limit);
+
+    /**
+     * Même pagination que {@link #findPageByAccountId}, en projection (hors
+     * contexte de persistance).
+     */
+    List<TransactionRow> findRowPageByAccountId(String accountID, LocalDateTime afterTimestamp, String afterID,
+            int limit);
+
     /**
      * Recherche toutes les transactions associées à un compte spécifique.
      * @param accountID identifiant du compte
@@ -19,6 +59,14 @@ public interface TransactionRepository {
      */
     List<Transaction> findByAccountId(String accountID);
 
+    /**
+     * Recherche toutes les transactions de tous les comptes d'un utilisateur,
+     * en une seule requête (jointure sur accounts.user_id).
+     * @param userID identifiant de l'utilisateur
+     * @return liste des transactions, de la plus récente à la plus ancienne
+     */
+    List<Transaction> findByUserId(String userID);
+
     /**
      * Recherche toutes les transactions d’un type donné.
      * @param type type de transaction (ex : "deposit")
@@ -7,9 +7,37 @@ import java.util.List;
  * Interface de gestion de la persistance des utilisateurs.
  */
 public interface UserRepository {
-    void save(User user);
+    /**
+     * Insère un nouvel utilisateur (persist direct, sans lecture préalable).
+     */
+    void insert(User user);
+
+    /**
+     * Met à jour un utilisateur existant.
+     * @return l'instance gérée
+     */
+    User update(User user);
     User findById(String userID);
+
+    /**
+     * Charge un utilisateur avec ses comptes (et leurs transactions) et ses
+     * portefeuilles (et leurs actifs) en un nombre fixe de requêtes, pour la
+     * sérialisation complète.
+     */
+    User findByIdWithDetails(String userID);
+
+    /**
+     * Référence paresseuse vers un utilisateur existant, sans requête SQL.
+     */
+    User getReference(String userID);
     User findByEmail(String email);
     void delete(String userID);
     List<User> findAll();
+
+    /**
+     * Page d'utilisateurs triée par identifiant (pagination par clé).
+     * @param afterUserID dernier identifiant de la page précédente, ou null
+     * @param limit nombre maximal de lignes
+     */
+    List<User> findPage(String afterUserID, int limit);
 }
@@ -0,0 +1,44 @@
+package org.groupm.ewallet.repository;
+
+import org.groupm.ewallet.model.WealthPoint;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interface de persistance de la série temporelle de richesse.
+ */
+public interface WealthHistoryRepository {
+
+    /**
+     * Enregistre une valeur : insère le point RAW et met à jour les buckets
+     * HOURLY, DAILY et MONTHLY en une seule instruction.
+     */
+    void record(String userID, BigDecimal valueUsd, LocalDateTime at);
+
+    /**
+     * Points d'une résolution donnée dans l'intervalle [from, to], triés par date.
+     */
+    List<WealthPoint> findRange(String userID, WealthPoint.Resolution resolution, LocalDateTime from,
+            LocalDateTime to);
+
+    /**
+     * Premier point connu d'une résolution (référence du taux de croissance).
+     */
+    WealthPoint findFirst(String userID, WealthPoint.Resolution resolution);
+
+    /**
+     * Dernier point d'une résolution commençant au plus tard à la date donnée.
+     */
+    WealthPoint findLatestAtOrBefore(String userID, WealthPoint.Resolution resolution, LocalDateTime at);
+
+    /**
+     * Supprime au plus {@code limit} points d'une résolution antérieurs à la
+     * date limite.
+     * @return nombre de points supprimés
+     */
+    int deleteOlderThan(WealthPoint.Resolution resolution, LocalDateTime cutoff, int limit);
+
+    void deleteByUserId(String userID);
+}
@@ -1,12 +1,56 @@
 package org.groupm.ewallet.repository;
 
 import org.groupm.ewallet.model.WealthTracker;
+import org.groupm.ewallet.repository.projection.WealthTotals;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Interface de persistance pour le suivi de la richesse/utilisateur.
  */
 public interface WealthTrackerRepository {
-    void save(WealthTracker tracker);
+    /**
+     * Insère le snapshot d'un utilisateur qui n'en a pas encore.
+     */
+    void insert(WealthTracker tracker);
+
+    /**
+     * Met à jour un snapshot existant.
+     * @return l'instance gérée
+     */
+    WealthTracker update(WealthTracker tracker);
     WealthTracker findByUserId(String userID);
     void delete(String userID);
+
+    /**
+     * Calcule en une seule requête le total des comptes et la valeur des actifs
+     * par type (CRYPTO / autres) d'un utilisateur.
+     * @param userID identifiant de l'utilisateur
+     * @return les totaux en CHF, ou null si l'utilisateur n'existe pas
+     */
+    WealthTotals aggregateByUserId(String userID);
+
+    /**
+     * Valeur en base (avant les modifications non encore flushées) des actifs
+     * d'un portefeuille, par type.
+     * @param portfolioID identifiant du portefeuille
+     * @return les totaux en CHF (cash toujours à zéro)
+     */
+    WealthTotals aggregateStoredPortfolio(int portfolioID);
+
+    /**
+     * Applique un delta (en USD) au snapshot d'un utilisateur par un UPDATE
+     * atomique, sans charger la ligne.
+     * @return nombre de lignes modifiées (0 si aucun snapshot n'existe encore)
+     */
+    int applyDelta(String userID, BigDecimal cashUsd, BigDecimal cryptoUsd, BigDecimal stocksUsd);
+
+    /**
+     * Richesse totale (USD) stockée dans le snapshot, sans charger l'entité.
+     * @return le total, ou null si aucun snapshot n'existe
+     */
+    BigDecimal findTotalByUserId(String userID);
+
+    List<WealthTracker> findAll();
 }
@@ -0,0 +1,146 @@
+package org.groupm.ewallet.repository.impl;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.AccountBalanceBackfill;
+import org.groupm.ewallet.model.AccountDailyBalance;
+import org.groupm.ewallet.repository.AccountDailyBalanceRepository;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA implementation of AccountDailyBalanceRepository.
+ * Uses injected request-scoped EntityManager for proper transaction
+ * coordination.
+ */
+@ApplicationScoped
+public class JpaAccountDailyBalanceRepository implements AccountDailyBalanceRepository {
+
+    /** Comptes par INSERT multi-lignes (4 paramètres chacun). */
+    private static final int ROWS_PER_UPSERT = 500;
+
+    @Inject
+    private EntityManager em;
+
+    @Override
+    public void recordClosingBalance(String accountId, String userId, LocalDate day, BigDecimal balance) {
+        em.createNativeQuery("INSERT INTO account_daily_balance (account_id, user_id, balance_date, closing_balance) "
+                + "VALUES (?1, ?2, ?3, ?4) "
+                + "ON DUPLICATE KEY UPDATE closing_balance = VALUES(closing_balance), user_id = VALUES(user_id)")
+                .setParameter(1, accountId)
+                .setParameter(2, userId)
+                .setParameter(3, day)
+                .setParameter(4, balance)
+                // Ne purge que les requêtes en cache sur cette table, pas tout le cache
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(AccountDailyBalance.class)
+                .executeUpdate();
+    }
+
+    @Override
+    public void recordClosingBalances(List<Account> accounts, LocalDate day) {
+        for (int from = 0; from < accounts.size(); from += ROWS_PER_UPSERT) {
+            List<Account> rows = accounts.subList(from, Math.min(from + ROWS_PER_UPSERT, accounts.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO account_daily_balance (account_id, user_id, balance_date, closing_balance) VALUES ");
+            for (int i = 0; i < rows.size(); i++) {
+                int p = i * 4;
+                sql.append(i == 0 ? "" : ", ")
+                        .append("(?").append(p + 1).append(", ?").append(p + 2)
+                        .append(", ?").append(p + 3).append(", ?").append(p + 4).append(')');
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE closing_balance = VALUES(closing_balance), user_id = VALUES(user_id)");
+
+            NativeQuery<?> query = em.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+            for (int i = 0; i < rows.size(); i++) {
+                Account account = rows.get(i);
+                int p = i * 4;
+                query.setParameter(p + 1, account.getAccountID());
+                query.setParameter(p + 2, account.getUserID());
+                query.setParameter(p + 3, day);
+                query.setParameter(p + 4, account.getBalanceAsBigDecimal());
+            }
+            query.addSynchronizedEntityClass(AccountDailyBalance.class).executeUpdate();
+        }
+    }
+
+    @Override
+    public List<AccountDailyBalance> findRange(String accountId, LocalDate from, LocalDate to) {
+        return em.createQuery("SELECT b FROM AccountDailyBalance b WHERE b.accountID = :accountId "
+                + "AND b.balanceDate <= :to AND b.balanceDate >= COALESCE("
+                + "  (SELECT MAX(b2.balanceDate) FROM AccountDailyBalance b2 "
+                + "   WHERE b2.accountID = b.accountID AND b2.balanceDate < :from), :from) "
+                + "ORDER BY b.balanceDate", AccountDailyBalance.class)
+                .setParameter("accountId", accountId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    public List<AccountDailyBalance> findRangeByUserId(String userId, LocalDate from, LocalDate to) {
+        return em.createQuery("SELECT b FROM AccountDailyBalance b WHERE b.userID = :userId "
+                + "AND b.balanceDate <= :to AND b.balanceDate >= COALESCE("
+                + "  (SELECT MAX(b2.balanceDate) FROM AccountDailyBalance b2 "
+                + "   WHERE b2.accountID = b.accountID AND b2.balanceDate < :from), :from) "
+                + "ORDER BY b.balanceDate", AccountDailyBalance.class)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    public List<String> findAccountIdsNotBackfilled(String userId) {
+        return em.createQuery("SELECT a.accountID FROM Account a WHERE a.userID = :userId "
+                + "AND NOT EXISTS (SELECT m.accountID FROM AccountBalanceBackfill m WHERE m.accountID = a.accountID)",
+                String.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    @Override
+    public boolean isBackfilled(String accountId) {
+        return em.find(AccountBalanceBackfill.class, accountId) != null;
+    }
+
+    @Override
+    public void markBackfilled(String accountId, String userId, LocalDateTime at) {
+        // Deux reconstitutions concurrentes écrivent les mêmes soldes : la
+        // seconde laisse la marque existante
+        em.createNativeQuery("INSERT INTO account_balance_backfill (account_id, user_id, backfilled_at) "
+                + "VALUES (?1, ?2, ?3) ON DUPLICATE KEY UPDATE backfilled_at = backfilled_at")
+                .setParameter(1, accountId)
+                .setParameter(2, userId)
+                .setParameter(3, at)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(AccountBalanceBackfill.class)
+                .executeUpdate();
+    }
+
+    @Override
+    public void deleteByAccountId(String accountId) {
+        em.createQuery("DELETE FROM AccountDailyBalance b WHERE b.accountID = :accountId")
+                .setParameter("accountId", accountId)
+                .executeUpdate();
+        em.createQuery("DELETE FROM AccountBalanceBackfill m WHERE m.accountID = :accountId")
+                .setParameter("accountId", accountId)
+                .executeUpdate();
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        em.createQuery("DELETE FROM AccountDailyBalance b WHERE b.userID = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+        em.createQuery("DELETE FROM AccountBalanceBackfill m WHERE m.userID = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+}
@@ -3,8 +3,10 @@ package org.groupm.ewallet.repository.impl;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.groupm.ewallet.model.Account;
 import org.groupm.ewallet.repository.AccountRepository;
+import org.groupm.ewallet.repository.projection.AccountSummary;
 
 import java.util.List;
 
@@ -20,17 +22,13 @@ public class JpaAccountRepository implements AccountRepository {
     private EntityManager em;
 
     @Override
-    public void save(Account account) {
-        if (account.getAccountID() == null || account.getAccountID().isEmpty()) {
-            em.persist(account);
-        } else {
-            Account existing = em.find(Account.class, account.getAccountID());
-            if (existing == null) {
-                em.persist(account);
-            } else {
-                em.merge(account);
-            }
-        }
+    public void insert(Account account) {
+        em.persist(account);
+    }
+
+    @Override
+    public Account update(Account account) {
+        return em.merge(account);
     }
 
     @Override
@@ -43,6 +41,25 @@ public class JpaAccountRepository implements AccountRepository {
         return em.createQuery("SELECT a FROM Account a", Account.class).getResultList();
     }
 
+    @Override
+    public List<Account> findPage(String afterAccountId, int limit) {
+        return em.createQuery("SELECT a FROM Account a WHERE a.accountID > :after "
+                + "ORDER BY a.accountID", Account.class)
+                .setParameter("after", afterAccountId != null ? afterAccountId : "")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<AccountSummary> findSummaryPage(String afterAccountId, int limit) {
+        return em.createQuery("SELECT new org.groupm.ewallet.repository.projection.AccountSummary("
+                + "a.accountID, a.userID, a.type, a.name, a.balance) "
+                + "FROM Account a WHERE a.accountID > :after ORDER BY a.accountID", AccountSummary.class)
+                .setParameter("after", afterAccountId != null ? afterAccountId : "")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     @Override
     public void delete(String id) {
         Account account = em.find(Account.class, id);
@@ -57,4 +74,12 @@ public class JpaAccountRepository implements AccountRepository {
                 .setParameter("userId", userId)
                 .getResultList();
     }
+
+    @Override
+    public List<Account> findAllForUpdate(List<String> accountIds) {
+        return em.createQuery("SELECT a FROM Account a WHERE a.accountID IN :ids ORDER BY a.accountID", Account.class)
+                .setParameter("ids", accountIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
 }
@@ -5,6 +5,8 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import org.groupm.ewallet.model.Asset;
 import org.groupm.ewallet.repository.AssetRepository;
+import org.groupm.ewallet.repository.projection.AssetPosition;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
@@ -16,6 +18,9 @@ import java.util.List;
 @ApplicationScoped
 public class JpaAssetRepository implements AssetRepository {
 
+    /** Région du cache de requêtes pour la recherche par symbole. */
+    public static final String SYMBOL_QUERY_CACHE_REGION = "ewallet-asset-by-symbol";
+
     @Inject
     private EntityManager em;
 
@@ -38,6 +43,8 @@ public class JpaAssetRepository implements AssetRepository {
         List<Asset> results = em.createQuery("SELECT a FROM Asset a WHERE a.symbol = :symbol", Asset.class)
                 .setParameter("symbol", symbol)
                 .setMaxResults(1)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, SYMBOL_QUERY_CACHE_REGION)
                 .getResultList();
         return results.isEmpty() ? null : results.get(0);
     }
@@ -54,6 +61,23 @@ public class JpaAssetRepository implements AssetRepository {
         return em.createQuery("SELECT a FROM Asset a", Asset.class).getResultList();
     }
 
+    @Override
+    public List<Asset> findPage(Integer afterId, int limit) {
+        return em.createQuery("SELECT a FROM Asset a WHERE a.id > :after ORDER BY a.id", Asset.class)
+                .setParameter("after", afterId != null ? afterId : 0)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<AssetPosition> findPositionsByPortfolioId(int portfolioId) {
+        return em.createQuery("SELECT new org.groupm.ewallet.repository.projection.AssetPosition("
+                + "a.id, a.symbol, a.type, a.assetName, a.quantity, a.unitValue) "
+                + "FROM Asset a WHERE a.portfolioID = :portfolioId ORDER BY a.id", AssetPosition.class)
+                .setParameter("portfolioId", portfolioId)
+                .getResultList();
+    }
+
     @Override
     public void delete(int id) {
         Asset asset = em.find(Asset.class, id);
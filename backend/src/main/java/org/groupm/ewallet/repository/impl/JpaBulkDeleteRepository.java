@@ -0,0 +1,106 @@
+package org.groupm.ewallet.repository.impl;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.AccountBalanceBackfill;
+import org.groupm.ewallet.model.AccountDailyBalance;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.model.WealthPoint;
+import org.groupm.ewallet.model.WealthTracker;
+import org.groupm.ewallet.repository.BulkDeleteRepository;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * JPA implementation of BulkDeleteRepository.
+ * Native DELETE ... LIMIT statements: each chunk walks the FK index of the
+ * parent column and locks at most {@code limit} rows.
+ */
+@ApplicationScoped
+public class JpaBulkDeleteRepository implements BulkDeleteRepository {
+
+    /** Entité de chaque table, pour n'invalider que son cache de second niveau. */
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+            "wealth_points", WealthPoint.class,
+            "account_daily_balance", AccountDailyBalance.class,
+            "account_balance_backfill", AccountBalanceBackfill.class,
+            "wealth_trackers", WealthTracker.class,
+            "transactions", Transaction.class,
+            "portfolio_transactions", PortfolioTransaction.class,
+            "assets", Asset.class,
+            "portfolios", Portfolio.class,
+            "accounts", Account.class,
+            "users", User.class);
+
+    @Inject
+    private EntityManager em;
+
+    @Override
+    public int deleteTransactionsOfAccountChunk(String accountId, int limit) {
+        return execute("DELETE FROM transactions WHERE account_id = ?1 LIMIT ?2", Transaction.class,
+                accountId, limit);
+    }
+
+    @Override
+    public int deletePortfolioTransactionsOfPortfolioChunk(int portfolioId, int limit) {
+        return execute("DELETE FROM portfolio_transactions WHERE portfolio_id = ?1 LIMIT ?2",
+                PortfolioTransaction.class, portfolioId, limit);
+    }
+
+    @Override
+    public int deleteAssetsOfPortfolioChunk(int portfolioId, int limit) {
+        return execute("DELETE FROM assets WHERE portfolio_id = ?1 LIMIT ?2", Asset.class, portfolioId, limit);
+    }
+
+    @Override
+    public int deleteAccount(String accountId) {
+        execute("DELETE FROM account_daily_balance WHERE account_id = ?1", AccountDailyBalance.class, accountId);
+        execute("DELETE FROM account_balance_backfill WHERE account_id = ?1", AccountBalanceBackfill.class,
+                accountId);
+        return execute("DELETE FROM accounts WHERE account_id = ?1", Account.class, accountId);
+    }
+
+    @Override
+    public int deletePortfolio(int portfolioId) {
+        return execute("DELETE FROM portfolios WHERE portfolio_id = ?1", Portfolio.class, portfolioId);
+    }
+
+    @Override
+    public int deleteUser(String userId) {
+        execute("DELETE FROM wealth_points WHERE user_id = ?1", WealthPoint.class, userId);
+        execute("DELETE FROM account_daily_balance WHERE user_id = ?1", AccountDailyBalance.class, userId);
+        execute("DELETE FROM account_balance_backfill WHERE user_id = ?1", AccountBalanceBackfill.class, userId);
+        execute("DELETE FROM wealth_trackers WHERE user_id = ?1", WealthTracker.class, userId);
+        execute("DELETE FROM accounts WHERE user_id = ?1", Account.class, userId);
+        execute("DELETE FROM portfolios WHERE user_id = ?1", Portfolio.class, userId);
+        return execute("DELETE FROM users WHERE user_id = ?1", User.class, userId);
+    }
+
+    @Override
+    public int deleteAllChunk(String table, int limit) {
+        // Nom de table concaténé dans le SQL : uniquement les tables connues
+        Class<?> entity = ENTITIES.get(table);
+        if (entity == null) {
+            throw new IllegalArgumentException("Unknown table " + table + ", expected one of "
+                    + Arrays.toString(CLEAR_ORDER));
+        }
+        return execute("DELETE FROM " + table + " LIMIT ?1", entity, limit);
+    }
+
+    private int execute(String sql, Class<?> entity, Object... parameters) {
+        NativeQuery<?> query = em.createNativeQuery(sql).unwrap(NativeQuery.class);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        // Invalide le cache de cette seule entité (et les requêtes en cache sur sa table)
+        return query.addSynchronizedEntityClass(entity).executeUpdate();
+    }
+}
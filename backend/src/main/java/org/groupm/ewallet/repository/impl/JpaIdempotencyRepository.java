@@ -0,0 +1,50 @@
+package org.groupm.ewallet.repository.impl;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.IdempotencyRecord;
+import org.groupm.ewallet.repository.IdempotencyRepository;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA implementation of IdempotencyRepository.
+ * Keys are read by primary key; expired keys are deleted in chunks along the
+ * expires_at index.
+ */
+@ApplicationScoped
+public class JpaIdempotencyRepository implements IdempotencyRepository {
+
+    @Inject
+    private EntityManager em;
+
+    @Override
+    public IdempotencyRecord findByKey(String key) {
+        return em.find(IdempotencyRecord.class, key);
+    }
+
+    @Override
+    public void insert(IdempotencyRecord record) {
+        em.persist(record);
+        // Réserve la clé tout de suite, pas au commit
+        em.flush();
+    }
+
+    @Override
+    public void delete(IdempotencyRecord record) {
+        em.remove(record);
+        em.flush();
+    }
+
+    @Override
+    public int deleteExpiredChunk(LocalDateTime now, int limit) {
+        return em.createNativeQuery("DELETE FROM idempotency_keys WHERE expires_at < ?1 LIMIT ?2")
+                .setParameter(1, now)
+                .setParameter(2, limit)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(IdempotencyRecord.class)
+                .executeUpdate();
+    }
+}
@@ -38,6 +38,14 @@ public class JpaPortfolioRepository implements PortfolioRepository {
         return em.createQuery("SELECT p FROM Portfolio p", Portfolio.class).getResultList();
     }
 
+    @Override
+    public List<Portfolio> findPage(Integer afterId, int limit) {
+        return em.createQuery("SELECT p FROM Portfolio p WHERE p.id > :after ORDER BY p.id", Portfolio.class)
+                .setParameter("after", afterId != null ? afterId : 0)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     @Override
     public void delete(int id) {
         Portfolio portfolio = em.find(Portfolio.class, id);
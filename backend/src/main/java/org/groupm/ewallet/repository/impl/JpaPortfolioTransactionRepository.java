@@ -5,8 +5,10 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import org.groupm.ewallet.model.PortfolioTransaction;
 import org.groupm.ewallet.repository.PortfolioTransactionRepository;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of PortfolioTransactionRepository.
@@ -57,6 +59,14 @@ public class JpaPortfolioTransactionRepository implements PortfolioTransactionRe
                 .getResultList();
     }
 
+    @Override
+    public Stream<PortfolioTransaction> streamAll() {
+        return em.createQuery("SELECT pt FROM PortfolioTransaction pt ORDER BY pt.id", PortfolioTransaction.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, JpaTransactionRepository.STREAMING_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
     @Override
     public void delete(long id) {
         PortfolioTransaction transaction = em.find(PortfolioTransaction.class, id);
@@ -0,0 +1,122 @@
+package org.groupm.ewallet.repository.impl;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.model.WealthTracker;
+import org.groupm.ewallet.repository.SoftDeleteRepository;
+import org.groupm.ewallet.repository.projection.PurgeBacklog;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA implementation of SoftDeleteRepository.
+ * Native SQL: the entities' deleted_at restriction would hide the rows the
+ * purger is looking for, and the column is not writable through JPA.
+ */
+@ApplicationScoped
+public class JpaSoftDeleteRepository implements SoftDeleteRepository {
+
+    private static final String BACKLOG_QUERY = "SELECT "
+            + "(SELECT COUNT(*) FROM users WHERE deleted_at IS NOT NULL) AS users, "
+            + "(SELECT COUNT(*) FROM accounts WHERE deleted_at IS NOT NULL) AS accounts, "
+            + "(SELECT COUNT(*) FROM portfolios WHERE deleted_at IS NOT NULL) AS portfolios, "
+            + "(SELECT MIN(deleted_at) FROM users) AS oldest_user, "
+            + "(SELECT MIN(deleted_at) FROM accounts) AS oldest_account, "
+            + "(SELECT MIN(deleted_at) FROM portfolios) AS oldest_portfolio";
+
+    @Inject
+    private EntityManager em;
+
+    @Override
+    public int markAccountDeleted(String accountId, LocalDateTime deletedAt) {
+        return execute("UPDATE accounts SET deleted_at = ?1, version = COALESCE(version, 0) + 1 "
+                + "WHERE account_id = ?2 AND deleted_at IS NULL", Account.class, deletedAt, accountId);
+    }
+
+    @Override
+    public int markPortfolioDeleted(int portfolioId, LocalDateTime deletedAt) {
+        return execute("UPDATE portfolios SET deleted_at = ?1, version = COALESCE(version, 0) + 1 "
+                + "WHERE portfolio_id = ?2 AND deleted_at IS NULL", Portfolio.class, deletedAt, portfolioId);
+    }
+
+    @Override
+    public int markUserDeleted(String userId, LocalDateTime deletedAt) {
+        int marked = execute("UPDATE users SET deleted_at = ?1, version = COALESCE(version, 0) + 1 "
+                + "WHERE user_id = ?2 AND deleted_at IS NULL", User.class, deletedAt, userId);
+        if (marked == 0) {
+            return 0;
+        }
+        execute("UPDATE accounts SET deleted_at = ?1, version = COALESCE(version, 0) + 1 "
+                + "WHERE user_id = ?2 AND deleted_at IS NULL", Account.class, deletedAt, userId);
+        execute("UPDATE portfolios SET deleted_at = ?1, version = COALESCE(version, 0) + 1 "
+                + "WHERE user_id = ?2 AND deleted_at IS NULL", Portfolio.class, deletedAt, userId);
+        // Le snapshot référence l'utilisateur (OneToOne) : il ne doit pas survivre à sa disparition
+        execute("DELETE FROM wealth_trackers WHERE user_id = ?1", WealthTracker.class, userId);
+        return marked;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> findDeletedAccountIds(int limit) {
+        return em.createNativeQuery("SELECT account_id FROM accounts WHERE deleted_at IS NOT NULL "
+                + "ORDER BY deleted_at LIMIT ?1", String.class)
+                .setParameter(1, limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Integer> findDeletedPortfolioIds(int limit) {
+        return em.createNativeQuery("SELECT portfolio_id FROM portfolios WHERE deleted_at IS NOT NULL "
+                + "ORDER BY deleted_at LIMIT ?1", Integer.class)
+                .setParameter(1, limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> findPurgeableUserIds(int limit) {
+        return em.createNativeQuery("SELECT u.user_id FROM users u WHERE u.deleted_at IS NOT NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM accounts a WHERE a.user_id = u.user_id) "
+                + "AND NOT EXISTS (SELECT 1 FROM portfolios p WHERE p.user_id = u.user_id) "
+                + "ORDER BY u.deleted_at LIMIT ?1", String.class)
+                .setParameter(1, limit)
+                .getResultList();
+    }
+
+    @Override
+    public PurgeBacklog countBacklog() {
+        Object[] row = (Object[]) em.createNativeQuery(BACKLOG_QUERY)
+                .unwrap(NativeQuery.class)
+                .addScalar("users", Long.class)
+                .addScalar("accounts", Long.class)
+                .addScalar("portfolios", Long.class)
+                .addScalar("oldest_user", LocalDateTime.class)
+                .addScalar("oldest_account", LocalDateTime.class)
+                .addScalar("oldest_portfolio", LocalDateTime.class)
+                .getSingleResult();
+        LocalDateTime oldest = null;
+        for (int i = 3; i < row.length; i++) {
+            LocalDateTime deletedAt = (LocalDateTime) row[i];
+            if (deletedAt != null && (oldest == null || deletedAt.isBefore(oldest))) {
+                oldest = deletedAt;
+            }
+        }
+        return new PurgeBacklog((Long) row[0], (Long) row[1], (Long) row[2], oldest);
+    }
+
+    private int execute(String sql, Class<?> entity, Object... parameters) {
+        NativeQuery<?> query = em.createNativeQuery(sql).unwrap(NativeQuery.class);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        // Invalide le cache de cette entité : un find() ne doit plus retrouver la ligne supprimée
+        return query.addSynchronizedEntityClass(entity).executeUpdate();
+    }
+}
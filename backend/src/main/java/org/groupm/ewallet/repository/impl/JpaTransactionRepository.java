@@ -5,8 +5,12 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import org.groupm.ewallet.model.Transaction;
 import org.groupm.ewallet.repository.TransactionRepository;
+import org.groupm.ewallet.repository.projection.TransactionRow;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of TransactionRepository.
@@ -16,21 +20,25 @@ import java.util.List;
 @ApplicationScoped
 public class JpaTransactionRepository implements TransactionRepository {
 
+    /**
+     * Lignes lues par aller-retour lors d'un export. Avec useCursorFetch
+     * (voir ConnectionPool), Connector/J lit le résultat par un curseur
+     * serveur au lieu de le charger entièrement en mémoire ; contrairement à
+     * Integer.MIN_VALUE, la valeur est aussi acceptée par H2.
+     */
+    static final int STREAMING_FETCH_SIZE = 1000;
+
     @Inject
     private EntityManager em;
 
     @Override
-    public void save(Transaction transaction) {
-        if (transaction.getTransactionID() == null || transaction.getTransactionID().isEmpty()) {
-            em.persist(transaction);
-        } else {
-            Transaction existing = em.find(Transaction.class, transaction.getTransactionID());
-            if (existing == null) {
-                em.persist(transaction);
-            } else {
-                em.merge(transaction);
-            }
-        }
+    public void insert(Transaction transaction) {
+        em.persist(transaction);
+    }
+
+    @Override
+    public Transaction update(Transaction transaction) {
+        return em.merge(transaction);
     }
 
     @Override
@@ -47,6 +55,15 @@ public class JpaTransactionRepository implements TransactionRepository {
                 .getResultList();
     }
 
+    @Override
+    public List<Transaction> findByUserId(String userId) {
+        return em.createQuery(
+                "SELECT t FROM Transaction t JOIN t.account a WHERE a.userID = :userId ORDER BY t.timestamp DESC",
+                Transaction.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
     @Override
     public List<Transaction> findByType(String type) {
         return em.createQuery(
@@ -62,6 +79,77 @@ public class JpaTransactionRepository implements TransactionRepository {
                 .getResultList();
     }
 
+    @Override
+    public Stream<Transaction> streamAll() {
+        return em.createQuery("SELECT t FROM Transaction t ORDER BY t.transactionID", Transaction.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAMING_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Transaction> findPage(LocalDateTime afterTimestamp, String afterId, int limit) {
+        if (afterTimestamp == null) {
+            return em.createQuery("SELECT t FROM Transaction t ORDER BY t.timestamp DESC, t.transactionID DESC",
+                    Transaction.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        // Condition de clé développée (et non comparaison de tuples) pour que
+        // MySQL utilise idx_transactions_ts (timestamp, transaction_id).
+        return em.createQuery("SELECT t FROM Transaction t WHERE t.timestamp < :ts "
+                + "OR (t.timestamp = :ts AND t.transactionID < :id) "
+                + "ORDER BY t.timestamp DESC, t.transactionID DESC", Transaction.class)
+                .setParameter("ts", afterTimestamp)
+                .setParameter("id", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Transaction> findPageByAccountId(String accountId, LocalDateTime afterTimestamp, String afterId,
+            int limit) {
+        if (afterTimestamp == null) {
+            return em.createQuery("SELECT t FROM Transaction t WHERE t.account.accountID = :accountId "
+                    + "ORDER BY t.timestamp DESC, t.transactionID DESC", Transaction.class)
+                    .setParameter("accountId", accountId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("SELECT t FROM Transaction t WHERE t.account.accountID = :accountId "
+                + "AND (t.timestamp < :ts OR (t.timestamp = :ts AND t.transactionID < :id)) "
+                + "ORDER BY t.timestamp DESC, t.transactionID DESC", Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("ts", afterTimestamp)
+                .setParameter("id", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TransactionRow> findRowPageByAccountId(String accountId, LocalDateTime afterTimestamp,
+            String afterId, int limit) {
+        // t.account.accountID se lit sur la clé étrangère : pas de jointure
+        String select = "SELECT new org.groupm.ewallet.repository.projection.TransactionRow("
+                + "t.transactionID, t.account.accountID, t.type, t.amount, t.timestamp, t.description) "
+                + "FROM Transaction t WHERE t.account.accountID = :accountId ";
+        String order = "ORDER BY t.timestamp DESC, t.transactionID DESC";
+        if (afterTimestamp == null) {
+            return em.createQuery(select + order, TransactionRow.class)
+                    .setParameter("accountId", accountId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery(select
+                + "AND (t.timestamp < :ts OR (t.timestamp = :ts AND t.transactionID < :id)) " + order,
+                TransactionRow.class)
+                .setParameter("accountId", accountId)
+                .setParameter("ts", afterTimestamp)
+                .setParameter("id", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     @Override
     public void delete(String id) {
         Transaction transaction = em.find(Transaction.class, id);
@@ -3,8 +3,12 @@ package org.groupm.ewallet.repository.impl;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Portfolio;
 import org.groupm.ewallet.model.User;
 import org.groupm.ewallet.repository.UserRepository;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
 
 import java.util.List;
 
@@ -21,10 +25,11 @@ public class JpaUserRepository implements UserRepository {
 
     @Override
     public User findByEmail(String email) {
-        List<User> users = em.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
-                .setParameter("email", email)
-                .getResultList();
-        return users.isEmpty() ? null : users.get(0);
+        if (email == null) {
+            return null;
+        }
+        // Identifiant naturel : résolution email → id puis entité, toutes deux en cache
+        return em.unwrap(Session.class).bySimpleNaturalId(User.class).load(email);
     }
 
     @Override
@@ -33,12 +38,44 @@ public class JpaUserRepository implements UserRepository {
     }
 
     @Override
-    public void save(User user) {
-        if (em.find(User.class, user.getUserID()) == null) {
-            em.persist(user);
-        } else {
-            em.merge(user);
+    public User findByIdWithDetails(String id) {
+        // Une requête par collection racine : deux collections List (bags)
+        // ne peuvent pas être chargées dans la même jointure.
+        List<User> users = em.createQuery("SELECT u FROM User u WHERE u.userID = :id", User.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(User.GRAPH_ACCOUNTS))
+                .getResultList();
+        if (users.isEmpty()) {
+            return null;
         }
+        em.createQuery("SELECT a FROM Account a WHERE a.userID = :id", Account.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(Account.GRAPH_TRANSACTIONS))
+                .getResultList();
+        em.createQuery("SELECT u FROM User u WHERE u.userID = :id", User.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(User.GRAPH_PORTFOLIOS))
+                .getResultList();
+        em.createQuery("SELECT p FROM Portfolio p WHERE p.userID = :id", Portfolio.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(Portfolio.GRAPH_ASSETS))
+                .getResultList();
+        return users.get(0);
+    }
+
+    @Override
+    public User getReference(String id) {
+        return em.getReference(User.class, id);
+    }
+
+    @Override
+    public void insert(User user) {
+        em.persist(user);
+    }
+
+    @Override
+    public User update(User user) {
+        return em.merge(user);
     }
 
     @Override
@@ -53,4 +90,13 @@ public class JpaUserRepository implements UserRepository {
     public List<User> findAll() {
         return em.createQuery("SELECT u FROM User u", User.class).getResultList();
     }
+
+    @Override
+    public List<User> findPage(String afterUserId, int limit) {
+        return em.createQuery("SELECT u FROM User u WHERE u.userID > :after "
+                + "ORDER BY u.userID", User.class)
+                .setParameter("after", afterUserId != null ? afterUserId : "")
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
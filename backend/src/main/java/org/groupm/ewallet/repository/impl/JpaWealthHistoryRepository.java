@@ -0,0 +1,110 @@
+package org.groupm.ewallet.repository.impl;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.groupm.ewallet.model.WealthPoint;
+import org.groupm.ewallet.repository.WealthHistoryRepository;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA implementation of WealthHistoryRepository.
+ * Uses injected request-scoped EntityManager for proper transaction
+ * coordination.
+ */
+@ApplicationScoped
+public class JpaWealthHistoryRepository implements WealthHistoryRepository {
+
+    @Inject
+    private EntityManager em;
+
+    @Override
+    public void record(String userId, BigDecimal valueUsd, LocalDateTime at) {
+        // Upsert MySQL : une ligne par résolution, le bucket existant garde sa
+        // valeur d'ouverture, met à jour min/max et compte les échantillons.
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO wealth_points (user_id, resolution, bucket_start, open_usd, value_usd, min_usd, max_usd, sample_count) VALUES ");
+        WealthPoint.Resolution[] resolutions = WealthPoint.Resolution.values();
+        for (int i = 0; i < resolutions.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?1, ?").append(3 + 2 * i).append(", ?").append(4 + 2 * i).append(", ?2, ?2, ?2, ?2, 1)");
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE value_usd = VALUES(value_usd), "
+                + "min_usd = LEAST(min_usd, VALUES(min_usd)), "
+                + "max_usd = GREATEST(max_usd, VALUES(max_usd)), "
+                + "sample_count = sample_count + 1");
+
+        Query query = em.createNativeQuery(sql.toString())
+                .setParameter(1, userId)
+                .setParameter(2, valueUsd);
+        for (int i = 0; i < resolutions.length; i++) {
+            query.setParameter(3 + 2 * i, resolutions[i].name());
+            query.setParameter(4 + 2 * i, resolutions[i].bucketStart(at));
+        }
+        // Ne purge que les requêtes en cache sur cette table, pas tout le cache
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(WealthPoint.class);
+        query.executeUpdate();
+    }
+
+    @Override
+    public List<WealthPoint> findRange(String userId, WealthPoint.Resolution resolution, LocalDateTime from,
+            LocalDateTime to) {
+        return em.createQuery("SELECT p FROM WealthPoint p WHERE p.userID = :userId AND p.resolution = :resolution "
+                + "AND p.bucketStart BETWEEN :from AND :to ORDER BY p.bucketStart", WealthPoint.class)
+                .setParameter("userId", userId)
+                .setParameter("resolution", resolution)
+                .setParameter("from", resolution.bucketStart(from))
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    public WealthPoint findFirst(String userId, WealthPoint.Resolution resolution) {
+        List<WealthPoint> results = em.createQuery("SELECT p FROM WealthPoint p WHERE p.userID = :userId "
+                + "AND p.resolution = :resolution ORDER BY p.bucketStart ASC", WealthPoint.class)
+                .setParameter("userId", userId)
+                .setParameter("resolution", resolution)
+                .setMaxResults(1)
+                .getResultList();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public WealthPoint findLatestAtOrBefore(String userId, WealthPoint.Resolution resolution, LocalDateTime at) {
+        List<WealthPoint> results = em.createQuery("SELECT p FROM WealthPoint p WHERE p.userID = :userId "
+                + "AND p.resolution = :resolution AND p.bucketStart <= :at ORDER BY p.bucketStart DESC",
+                WealthPoint.class)
+                .setParameter("userId", userId)
+                .setParameter("resolution", resolution)
+                .setParameter("at", at)
+                .setMaxResults(1)
+                .getResultList();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public int deleteOlderThan(WealthPoint.Resolution resolution, LocalDateTime cutoff, int limit) {
+        // DELETE ... LIMIT (MySQL) : pas d'équivalent JPQL
+        return em.createNativeQuery("DELETE FROM wealth_points WHERE resolution = ?1 AND bucket_start < ?2 LIMIT ?3")
+                .setParameter(1, resolution.name())
+                .setParameter(2, cutoff)
+                .setParameter(3, limit)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(WealthPoint.class)
+                .executeUpdate();
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        em.createQuery("DELETE FROM WealthPoint p WHERE p.userID = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+}
@@ -3,9 +3,12 @@ package org.groupm.ewallet.repository.impl;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import org.groupm.ewallet.model.WealthTracker;
 import org.groupm.ewallet.repository.WealthTrackerRepository;
+import org.groupm.ewallet.repository.projection.WealthTotals;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -16,22 +19,46 @@ import java.util.List;
 @ApplicationScoped
 public class JpaWealthTrackerRepository implements WealthTrackerRepository {
 
+    /**
+     * One row per user: account balances and asset values split by type,
+     * computed with correlated subqueries so the cost does not depend on the
+     * number of accounts, portfolios or assets.
+     */
+    private static final String AGGREGATE_QUERY = "SELECT u.userID, "
+            + "(SELECT COALESCE(SUM(a.balance), 0) FROM Account a WHERE a.userID = u.userID), "
+            + "(SELECT COALESCE(SUM(s.unitValue * s.quantity), 0) FROM Asset s JOIN s.portfolio p "
+            + "  WHERE p.userID = u.userID AND UPPER(s.type) = 'CRYPTO'), "
+            + "(SELECT COALESCE(SUM(s.unitValue * s.quantity), 0) FROM Asset s JOIN s.portfolio p "
+            + "  WHERE p.userID = u.userID AND (s.type IS NULL OR UPPER(s.type) <> 'CRYPTO')) "
+            + "FROM User u WHERE u.userID = :userId";
+
+    private static final String PORTFOLIO_AGGREGATE_QUERY = "SELECT "
+            + "COALESCE(SUM(CASE WHEN UPPER(s.type) = 'CRYPTO' THEN s.unitValue * s.quantity ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN UPPER(s.type) = 'CRYPTO' THEN 0 ELSE s.unitValue * s.quantity END), 0) "
+            + "FROM Asset s WHERE s.portfolioID = :portfolioId";
+
     @Inject
     private EntityManager em;
 
+    public JpaWealthTrackerRepository() {
+    }
+
+    /**
+     * Repository bound to an EntityManager of its own, for work committed
+     * outside the request transaction.
+     */
+    public JpaWealthTrackerRepository(EntityManager em) {
+        this.em = em;
+    }
+
     @Override
-    public void save(WealthTracker tracker) {
-        if (tracker.getId() == 0) {
-            WealthTracker existing = findByUserIdInternal(tracker.getUser().getUserID());
-            if (existing != null) {
-                tracker.setId(existing.getId());
-                em.merge(tracker);
-            } else {
-                em.persist(tracker);
-            }
-        } else {
-            em.merge(tracker);
-        }
+    public void insert(WealthTracker tracker) {
+        em.persist(tracker);
+    }
+
+    @Override
+    public WealthTracker update(WealthTracker tracker) {
+        return em.merge(tracker);
     }
 
     private WealthTracker findByUserIdInternal(String userId) {
@@ -58,4 +85,69 @@ public class JpaWealthTrackerRepository implements WealthTrackerRepository {
             }
         }
     }
+
+    @Override
+    public WealthTotals aggregateByUserId(String userId) {
+        List<Object[]> rows = em.createQuery(AGGREGATE_QUERY, Object[].class)
+                .setParameter("userId", userId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        return new WealthTotals((String) row[0], toBigDecimal(row[1]), toBigDecimal(row[2]), toBigDecimal(row[3]));
+    }
+
+    @Override
+    public WealthTotals aggregateStoredPortfolio(int portfolioId) {
+        // FlushMode COMMIT : lit l'état en base sans flusher les changements en
+        // cours, ce qui permet de calculer un delta avant/après.
+        Object[] row = em.createQuery(PORTFOLIO_AGGREGATE_QUERY, Object[].class)
+                .setParameter("portfolioId", portfolioId)
+                .setFlushMode(FlushModeType.COMMIT)
+                .getSingleResult();
+        return new WealthTotals(null, BigDecimal.ZERO, toBigDecimal(row[0]), toBigDecimal(row[1]));
+    }
+
+    @Override
+    public int applyDelta(String userId, BigDecimal cashUsd, BigDecimal cryptoUsd, BigDecimal stocksUsd) {
+        return em.createQuery("UPDATE WealthTracker w SET "
+                + "w.totalCash = w.totalCash + :cash, "
+                + "w.totalCrypto = w.totalCrypto + :crypto, "
+                + "w.totalStocks = w.totalStocks + :stocks, "
+                + "w.totalWealthUsd = w.totalWealthUsd + :total, "
+                + "w.version = w.version + 1 "
+                + "WHERE w.user.userID = :userId")
+                .setParameter("cash", cashUsd)
+                .setParameter("crypto", cryptoUsd)
+                .setParameter("stocks", stocksUsd)
+                .setParameter("total", cashUsd.add(cryptoUsd).add(stocksUsd))
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    @Override
+    public BigDecimal findTotalByUserId(String userId) {
+        List<BigDecimal> results = em.createQuery(
+                "SELECT w.totalWealthUsd FROM WealthTracker w WHERE w.user.userID = :userId", BigDecimal.class)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public List<WealthTracker> findAll() {
+        return em.createQuery("SELECT w FROM WealthTracker w", WealthTracker.class).getResultList();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
 }
@@ -0,0 +1,44 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Vue résumée d'un compte pour les listes : colonnes utiles uniquement, sans
+ * relation ni état géré par le contexte de persistance.
+ */
+public class AccountSummary {
+
+    private final String accountID;
+    private final String userID;
+    private final String type;
+    private final String name;
+    private final BigDecimal balance;
+
+    public AccountSummary(String accountID, String userID, String type, String name, BigDecimal balance) {
+        this.accountID = accountID;
+        this.userID = userID;
+        this.type = type;
+        this.name = name;
+        this.balance = balance != null ? balance : BigDecimal.ZERO;
+    }
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,57 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Position d'un portefeuille sur un actif : quantité, valeur unitaire et
+ * valeur totale, sans relation ni état géré par le contexte de persistance.
+ */
+public class AssetPosition {
+
+    private final int id;
+    private final String symbol;
+    private final String type;
+    private final String assetName;
+    private final BigDecimal quantity;
+    private final BigDecimal unitValue;
+    private final BigDecimal totalValue;
+
+    public AssetPosition(int id, String symbol, String type, String assetName, BigDecimal quantity,
+            BigDecimal unitValue) {
+        this.id = id;
+        this.symbol = symbol;
+        this.type = type;
+        this.assetName = assetName;
+        this.quantity = quantity != null ? quantity : BigDecimal.ZERO;
+        this.unitValue = unitValue != null ? unitValue : BigDecimal.ZERO;
+        this.totalValue = this.quantity.multiply(this.unitValue);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getUnitValue() {
+        return unitValue;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+}
@@ -0,0 +1,26 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Point d'une série de soldes journaliers (CHF).
+ */
+public class BalancePoint {
+
+    private final LocalDate date;
+    private final BigDecimal balance;
+
+    public BalancePoint(LocalDate date, BigDecimal balance) {
+        this.date = date;
+        this.balance = balance;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
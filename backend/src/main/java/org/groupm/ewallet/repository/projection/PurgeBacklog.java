@@ -0,0 +1,42 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lignes supprimées logiquement et pas encore purgées.
+ */
+public class PurgeBacklog {
+
+    private final long users;
+    private final long accounts;
+    private final long portfolios;
+    private final LocalDateTime oldestDeletedAt;
+
+    public PurgeBacklog(long users, long accounts, long portfolios, LocalDateTime oldestDeletedAt) {
+        this.users = users;
+        this.accounts = accounts;
+        this.portfolios = portfolios;
+        this.oldestDeletedAt = oldestDeletedAt;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public long getPortfolios() {
+        return portfolios;
+    }
+
+    public long getTotal() {
+        return users + accounts + portfolios;
+    }
+
+    /** Date de suppression de la plus ancienne ligne en attente, ou null. */
+    public LocalDateTime getOldestDeletedAt() {
+        return oldestDeletedAt;
+    }
+}
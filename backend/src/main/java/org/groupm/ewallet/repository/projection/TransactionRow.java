@@ -0,0 +1,52 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'historique de transactions : colonnes utiles uniquement, sans
+ * relation ni état géré par le contexte de persistance.
+ */
+public class TransactionRow {
+
+    private final String transactionID;
+    private final String accountID;
+    private final String type;
+    private final BigDecimal amount;
+    private final LocalDateTime timestamp;
+    private final String description;
+
+    public TransactionRow(String transactionID, String accountID, String type, BigDecimal amount,
+            LocalDateTime timestamp, String description) {
+        this.transactionID = transactionID;
+        this.accountID = accountID;
+        this.type = type;
+        this.amount = amount != null ? amount : BigDecimal.ZERO;
+        this.timestamp = timestamp;
+        this.description = description;
+    }
+
+    public String getTransactionID() {
+        return transactionID;
+    }
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,41 @@
+package org.groupm.ewallet.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Totaux agrégés de la richesse d'un utilisateur, en CHF (devise de stockage),
+ * calculés en base en une seule requête.
+ */
+public class WealthTotals {
+
+    private final String userID;
+    private final BigDecimal cash;
+    private final BigDecimal crypto;
+    private final BigDecimal stocks;
+
+    public WealthTotals(String userID, BigDecimal cash, BigDecimal crypto, BigDecimal stocks) {
+        this.userID = userID;
+        this.cash = cash != null ? cash : BigDecimal.ZERO;
+        this.crypto = crypto != null ? crypto : BigDecimal.ZERO;
+        this.stocks = stocks != null ? stocks : BigDecimal.ZERO;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    /** Somme des soldes des comptes. */
+    public BigDecimal getCash() {
+        return cash;
+    }
+
+    /** Valeur des actifs de type CRYPTO. */
+    public BigDecimal getCrypto() {
+        return crypto;
+    }
+
+    /** Valeur de tous les autres actifs (STOCK, ETF, ...). */
+    public BigDecimal getStocks() {
+        return stocks;
+    }
+}
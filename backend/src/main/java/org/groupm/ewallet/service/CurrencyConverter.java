@@ -1,5 +1,7 @@
 package org.groupm.ewallet.service;
 
+import java.math.BigDecimal;
+
 /**
  * Simple utility for currency conversion.
  * Uses fixed exchange rate for demonstration purposes.
@@ -17,6 +19,13 @@ public class CurrencyConverter {
         return chf * CHF_TO_USD_RATE;
     }
 
+    /**
+     * Converts CHF to USD without going through double.
+     */
+    public static BigDecimal chfToUsd(BigDecimal chf) {
+        return chf.multiply(BigDecimal.valueOf(CHF_TO_USD_RATE));
+    }
+
     /**
      * Converts USD to CHF.
      */
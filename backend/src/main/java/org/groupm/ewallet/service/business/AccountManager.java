@@ -6,14 +6,24 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.TimeOrderedId;
 import org.groupm.ewallet.model.User;
 import org.groupm.ewallet.model.Transaction;
 import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaSoftDeleteRepository;
 import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.projection.AccountSummary;
+import org.groupm.ewallet.repository.projection.TransactionRow;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service métier pour la gestion des comptes et des transactions.
@@ -26,12 +36,27 @@ import java.util.UUID;
 @ApplicationScoped
 public class AccountManager {
 
+    /** Virements au plus par lot. */
+    public static final int MAX_BATCH_TRANSFERS = 10_000;
+
+    /** Comptes verrouillés par requête (taille de la liste IN). */
+    private static final int LOCK_CHUNK = 1000;
+
     @Inject
     private JpaAccountRepository accountRepository;
 
     @Inject
     private JpaTransactionRepository transactionRepository;
 
+    @Inject
+    private WealthSnapshotManager wealthSnapshots;
+
+    @Inject
+    private BalanceHistoryManager balanceHistory;
+
+    @Inject
+    private JpaSoftDeleteRepository softDeletes;
+
     @Inject
     private EntityManager em;
 
@@ -44,6 +69,33 @@ public class AccountManager {
         return accountRepository.findAll();
     }
 
+    /**
+     * Page de comptes triée par identifiant.
+     *
+     * @param afterAccountId dernier identifiant de la page précédente, ou null
+     */
+    public List<Account> getAccountsPage(String afterAccountId, int limit) {
+        return accountRepository.findPage(afterAccountId, limit);
+    }
+
+    /**
+     * Page de comptes en projection résumée (aucune entité chargée).
+     */
+    public List<AccountSummary> getAccountSummariesPage(String afterAccountId, int limit) {
+        return accountRepository.findSummaryPage(afterAccountId, limit);
+    }
+
+    /**
+     * Indique si un compte existe, sans le charger.
+     */
+    public boolean accountExists(String accountId) {
+        return !em.createQuery("SELECT 1 FROM Account a WHERE a.accountID = :id", Integer.class)
+                .setParameter("id", accountId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
     /**
      * Ajoute un nouveau compte.
      * 
@@ -52,7 +104,10 @@ public class AccountManager {
      */
     @Transactional
     public Account addAccount(Account account) {
-        accountRepository.save(account);
+        accountRepository.insert(account);
+        // Solde d'ouverture : même delta que tout autre mouvement
+        wealthSnapshots.applyCashDelta(account.getUserID(), account.getBalanceAsBigDecimal());
+        balanceHistory.recordBalance(account);
         return account;
     }
 
@@ -67,19 +122,25 @@ public class AccountManager {
     }
 
     /**
-     * Supprime un compte existant selon son identifiant.
+     * Supprime logiquement un compte : une mise à jour, quel que soit son
+     * nombre de transactions. Le compte disparaît aussitôt des lectures et son
+     * solde du snapshot de richesse ; ses transactions sont purgées plus tard
+     * par {@link SoftDeletePurger}.
      * 
      * @param id identifiant du compte à supprimer
      * @return true si suppression réussie, false sinon
      */
     @Transactional
     public boolean deleteAccount(String id) {
-        Account account = accountRepository.findById(id);
-        if (account != null) {
-            accountRepository.delete(id);
-            return true;
+        // Verrou du compte : le solde retiré du snapshot est celui laissé par les virements concurrents
+        Account account = em.find(Account.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (account == null) {
+            return false;
         }
-        return false;
+        softDeletes.markAccountDeleted(id, LocalDateTime.now());
+        wealthSnapshots.applyCashDelta(account.getUserID(), account.getBalanceAsBigDecimal().negate());
+        em.detach(account);
+        return true;
     }
 
     /**
@@ -98,12 +159,15 @@ public class AccountManager {
                 account.setType(newAccount.getType());
             }
             if (newAccount.getBalance() != 0) {
+                BigDecimal delta = newAccount.getBalanceAsBigDecimal().subtract(account.getBalanceAsBigDecimal());
                 account.setBalance(newAccount.getBalanceAsBigDecimal());
+                wealthSnapshots.applyCashDelta(account.getUserID(), delta);
+                balanceHistory.recordBalance(account);
             }
             if (newAccount.getName() != null) {
                 account.setName(newAccount.getName());
             }
-            accountRepository.save(account);
+            accountRepository.update(account);
             return true;
         }
         return false;
@@ -119,14 +183,24 @@ public class AccountManager {
         return accountRepository.findByUserId(user.getUserID());
     }
 
+    /**
+     * Liste tous les comptes d'un utilisateur à partir de son identifiant.
+     *
+     * @param userId identifiant de l'utilisateur
+     * @return liste de comptes
+     */
+    public List<Account> getAccountsByUserId(String userId) {
+        return accountRepository.findByUserId(userId);
+    }
+
     // ===================== Gestion des transactions =====================
 
     /**
      * Génère un identifiant unique de transaction si absent.
-     * Utilise UUID pour garantir l'unicité même sous forte charge.
+     * Identifiant ordonné dans le temps : insertions en fin d'index.
      */
     private String generateTransactionId() {
-        return "TXN-" + UUID.randomUUID().toString();
+        return TimeOrderedId.next();
     }
 
     /**
@@ -162,16 +236,20 @@ public class AccountManager {
         // Génération automatique de l'ID si absent
         if (transaction.getTransactionID() == null || transaction.getTransactionID().isEmpty()) {
             transaction.setTransactionID(generateTransactionId());
+        } else if (!TimeOrderedId.isValid(transaction.getTransactionID())) {
+            throw new IllegalArgumentException("transactionID must be a UUID: " + transaction.getTransactionID());
         }
 
         String type = transaction.getType();
         BigDecimal amount = transaction.getAmountAsBigDecimal();
         BigDecimal currentBalance = account.getBalanceAsBigDecimal();
+        BigDecimal cashDelta;
 
         switch (type.toLowerCase()) {
 
             case "deposit":
                 account.setBalance(currentBalance.add(amount));
+                cashDelta = amount;
                 break;
 
             case "withdraw":
@@ -179,29 +257,40 @@ public class AccountManager {
                     throw new IllegalArgumentException("Insufficient balance for withdrawal.");
                 }
                 account.setBalance(currentBalance.subtract(amount));
+                cashDelta = amount.negate();
                 break;
 
             default:
                 throw new IllegalArgumentException("Unsupported transaction type: " + type);
         }
 
-        // Ajout de la transaction au modèle du compte
-        account.addTransaction(transaction);
+        // Rattachement côté propriétaire (ManyToOne) uniquement : ne pas passer par
+        // account.addTransaction(), qui initialiserait la collection lazy et
+        // chargerait tout l'historique du compte à chaque écriture.
+        transaction.setAccount(account);
 
         // Mise à jour du compte
-        accountRepository.save(account);
+        accountRepository.update(account);
+
+        // Persistance de la transaction (nouvelle : insertion directe)
+        transactionRepository.insert(transaction);
 
-        // Persistance de la transaction
-        transactionRepository.save(transaction);
+        // Mise à jour incrémentale du snapshot de richesse et du solde du jour
+        // (même transaction)
+        wealthSnapshots.applyCashDelta(account.getUserID(), cashDelta);
+        balanceHistory.recordBalance(account);
 
         return transaction;
     }
 
     /**
-     * Recherche une transaction par ID.
+     * Recherche une transaction par ID (ancienne forme "TXN-..." acceptée).
+     *
+     * @return la transaction, ou null si l'identifiant ne désigne aucune ligne
      */
     public Transaction getTransactionById(String transactionID) {
-        return transactionRepository.findById(transactionID);
+        String id = TimeOrderedId.normalize(transactionID);
+        return id != null ? transactionRepository.findById(id) : null;
     }
 
     /**
@@ -211,6 +300,32 @@ public class AccountManager {
         return transactionRepository.findAll();
     }
 
+    /**
+     * Page de transactions, de la plus récente à la plus ancienne.
+     *
+     * @param afterTimestamp horodatage de la dernière transaction vue, ou null
+     * @param afterId        identifiant de la dernière transaction vue, ou null
+     */
+    public List<Transaction> getTransactionsPage(LocalDateTime afterTimestamp, String afterId, int limit) {
+        return transactionRepository.findPage(afterTimestamp, afterId, limit);
+    }
+
+    /**
+     * Page de transactions d'un compte, de la plus récente à la plus ancienne.
+     */
+    public List<Transaction> getTransactionsPageByAccountId(String accountId, LocalDateTime afterTimestamp,
+            String afterId, int limit) {
+        return transactionRepository.findPageByAccountId(accountId, afterTimestamp, afterId, limit);
+    }
+
+    /**
+     * Page de transactions d'un compte en projection (aucune entité chargée).
+     */
+    public List<TransactionRow> getTransactionRowsPageByAccountId(String accountId, LocalDateTime afterTimestamp,
+            String afterId, int limit) {
+        return transactionRepository.findRowPageByAccountId(accountId, afterTimestamp, afterId, limit);
+    }
+
     /**
      * Récupère les transactions d'un compte.
      */
@@ -219,18 +334,29 @@ public class AccountManager {
     }
 
     /**
-     * Supprime une transaction.
+     * Récupère les transactions de tous les comptes d'un utilisateur (une seule
+     * requête).
+     */
+    public List<Transaction> getTransactionsByUserId(String userId) {
+        return transactionRepository.findByUserId(userId);
+    }
+
+    /**
+     * Supprime une transaction (ancienne forme "TXN-..." acceptée).
      * For transfers, this will also delete the linked transaction.
+     *
+     * @return false si l'identifiant ne désigne aucune transaction
      */
     @Transactional
     public boolean deleteTransaction(String transactionID) {
-        Transaction tx = transactionRepository.findById(transactionID);
+        String id = TimeOrderedId.normalize(transactionID);
+        Transaction tx = id != null ? transactionRepository.findById(id) : null;
         if (tx != null) {
             // Check if this transaction has a linked transaction (transfer)
             String linkedId = tx.getLinkedTransactionId();
 
             // Delete the main transaction
-            transactionRepository.delete(transactionID);
+            transactionRepository.delete(id);
 
             // If there's a linked transaction, delete it too
             if (linkedId != null && !linkedId.isEmpty()) {
@@ -282,15 +408,10 @@ public class AccountManager {
         }
 
         // Load accounts with pessimistic locking
-        // Lock acquisition order based on ID to prevent deadlocks
-        Account from, to;
-        if (fromId.compareTo(toId) < 0) {
-            from = em.find(Account.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-            to = em.find(Account.class, toId, LockModeType.PESSIMISTIC_WRITE);
-        } else {
-            to = em.find(Account.class, toId, LockModeType.PESSIMISTIC_WRITE);
-            from = em.find(Account.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-        }
+        // Lock acquisition order based on ID to prevent deadlocks (same order as transferBatch)
+        Map<String, Account> locked = lockAccounts(List.of(fromId, toId));
+        Account from = locked.get(fromId);
+        Account to = locked.get(toId);
 
         if (from == null) {
             throw new IllegalArgumentException("Source account not found: " + fromId);
@@ -313,40 +434,209 @@ public class AccountManager {
         from.setBalance(fromBalance.subtract(amount));
         to.setBalance(to.getBalanceAsBigDecimal().add(amount));
 
+        // 2. Créer les transactions (historique), liées entre elles
+        Transaction[] legs = newTransferLegs(from, to, amount, description);
+
+        // 3. Persister TOUT dans UNE SEULE transaction JPA
+        accountRepository.update(from);
+        accountRepository.update(to);
+        transactionRepository.insert(legs[0]);
+        transactionRepository.insert(legs[1]);
+
+        // 4. Snapshots de richesse (delta net nul si les deux comptes
+        // appartiennent au même utilisateur)
+        Map<String, BigDecimal> cashDeltas = new HashMap<>();
+        if (from.getUserID() != null) {
+            cashDeltas.merge(from.getUserID(), amount.negate(), BigDecimal::add);
+        }
+        if (to.getUserID() != null) {
+            cashDeltas.merge(to.getUserID(), amount, BigDecimal::add);
+        }
+        wealthSnapshots.applyCashDeltas(cashDeltas);
+
+        // 5. Soldes de clôture du jour des deux comptes
+        balanceHistory.recordBalance(from);
+        balanceHistory.recordBalance(to);
+
+        return true;
+    }
+
+    /**
+     * Exécute un lot de virements dans UNE transaction.
+     *
+     * Tous les comptes concernés sont verrouillés une seule fois, par ordre
+     * d'identifiant (le même que transfer() : pas d'interblocage entre lots et
+     * virements unitaires). Chaque virement est ensuite validé sur les soldes
+     * courants du lot avant toute écriture : un virement refusé ne laisse
+     * aucune trace et n'a pas besoin d'être annulé. Les écritures partent au
+     * commit en lots JDBC : un UPDATE par compte, quel que soit son nombre de
+     * virements, et deux INSERT par virement.
+     *
+     * @param orders virements, exécutés dans l'ordre de la liste
+     * @param atomic true : tout-ou-rien, un seul refus annule le lot ; false :
+     *               les virements valides sont exécutés, les autres refusés
+     * @return un résultat par virement, dans l'ordre de la liste
+     */
+    @Transactional
+    public TransferBatchResult transferBatch(List<TransferOrder> orders, boolean atomic) {
+        if (orders == null || orders.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required.");
+        }
+        if (orders.size() > MAX_BATCH_TRANSFERS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_TRANSFERS + " transfers per batch.");
+        }
+
+        Set<String> accountIds = new HashSet<>();
+        for (TransferOrder order : orders) {
+            if (order != null) {
+                accountIds.add(order.getFromAccountID());
+                accountIds.add(order.getToAccountID());
+            }
+        }
+        accountIds.remove(null);
+        Map<String, Account> accounts = lockAccounts(accountIds);
+
+        // 1. Validation sur les soldes courants du lot, sans rien modifier
+        Map<String, BigDecimal> balances = new HashMap<>();
+        String[] errors = new String[orders.size()];
+        boolean anyRejected = false;
+        for (int i = 0; i < orders.size(); i++) {
+            errors[i] = checkTransfer(orders.get(i), accounts, balances);
+            anyRejected |= errors[i] != null;
+        }
+
+        List<TransferBatchResult.Outcome> results = new ArrayList<>(orders.size());
+        if (atomic && anyRejected) {
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(errors[i] != null ? TransferBatchResult.Outcome.rejected(i, errors[i])
+                        : TransferBatchResult.Outcome.skipped(i));
+            }
+            return new TransferBatchResult(true, results);
+        }
+
+        // 2. Transactions des virements acceptés (INSERT groupés au flush)
+        Map<String, BigDecimal> cashDeltas = new HashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (errors[i] != null) {
+                results.add(TransferBatchResult.Outcome.rejected(i, errors[i]));
+                continue;
+            }
+            TransferOrder order = orders.get(i);
+            Account from = accounts.get(order.getFromAccountID());
+            Account to = accounts.get(order.getToAccountID());
+            Transaction[] legs = newTransferLegs(from, to, order.getAmount(), order.getDescription());
+            transactionRepository.insert(legs[0]);
+            transactionRepository.insert(legs[1]);
+            results.add(TransferBatchResult.Outcome.completed(i, legs[0].getTransactionID(),
+                    legs[1].getTransactionID()));
+
+            if (from.getUserID() != null) {
+                cashDeltas.merge(from.getUserID(), order.getAmount().negate(), BigDecimal::add);
+            }
+            if (to.getUserID() != null) {
+                cashDeltas.merge(to.getUserID(), order.getAmount(), BigDecimal::add);
+            }
+        }
+
+        // 3. Soldes finaux : une seule mise à jour par compte
+        List<Account> touched = new ArrayList<>(balances.size());
+        for (Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+            Account account = accounts.get(balance.getKey());
+            account.setBalance(balance.getValue());
+            touched.add(account);
+        }
+
+        // 4. Snapshots de richesse et soldes de clôture du jour
+        wealthSnapshots.applyCashDeltas(cashDeltas);
+        balanceHistory.recordBalances(touched);
+
+        return new TransferBatchResult(atomic, results);
+    }
+
+    /**
+     * Verrouille (PESSIMISTIC_WRITE) les comptes par ordre d'identifiant, par
+     * tranches de {@link #LOCK_CHUNK}.
+     *
+     * @return les comptes trouvés par identifiant ; les absents sont omis
+     */
+    private Map<String, Account> lockAccounts(Collection<String> accountIds) {
+        List<String> sorted = accountIds.stream().distinct().sorted().toList();
+        Map<String, Account> locked = new HashMap<>();
+        for (int from = 0; from < sorted.size(); from += LOCK_CHUNK) {
+            List<String> chunk = sorted.subList(from, Math.min(from + LOCK_CHUNK, sorted.size()));
+            for (Account account : accountRepository.findAllForUpdate(chunk)) {
+                locked.put(account.getAccountID(), account);
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Valide un virement du lot sur les soldes courants et, s'il est accepté,
+     * les met à jour dans {@code balances}. Mêmes règles que transfer().
+     *
+     * @return null si le virement est accepté, sinon la raison du refus
+     */
+    private static String checkTransfer(TransferOrder order, Map<String, Account> accounts,
+            Map<String, BigDecimal> balances) {
+        if (order == null || order.getFromAccountID() == null || order.getToAccountID() == null) {
+            return "Account IDs cannot be null.";
+        }
+        String fromId = order.getFromAccountID();
+        String toId = order.getToAccountID();
+        BigDecimal amount = order.getAmount();
+        if (fromId.equals(toId)) {
+            return "Cannot transfer to the same account.";
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be greater than zero.";
+        }
+        if (!accounts.containsKey(fromId)) {
+            return "Source account not found: " + fromId;
+        }
+        if (!accounts.containsKey(toId)) {
+            return "Destination account not found: " + toId;
+        }
+
+        BigDecimal fromBalance = balances.computeIfAbsent(fromId, id -> accounts.get(id).getBalanceAsBigDecimal());
+        if (fromBalance.compareTo(amount) < 0) {
+            return "Insufficient balance. Available: " + fromBalance + " CHF, Requested: " + amount + " CHF";
+        }
+        BigDecimal toBalance = balances.computeIfAbsent(toId, id -> accounts.get(id).getBalanceAsBigDecimal());
+        balances.put(fromId, fromBalance.subtract(amount));
+        balances.put(toId, toBalance.add(amount));
+        return null;
+    }
+
+    /**
+     * Crée le retrait et le dépôt d'un virement, liés entre eux (suppression
+     * conjointe).
+     *
+     * @return {retrait, dépôt}, non persistés
+     */
+    private Transaction[] newTransferLegs(Account from, Account to, BigDecimal amount, String description) {
         // Get account names for better descriptions (fallback to ID if no name)
-        String fromName = (from.getName() != null && !from.getName().isBlank()) ? from.getName() : fromId;
-        String toName = (to.getName() != null && !to.getName().isBlank()) ? to.getName() : toId;
+        String fromName = (from.getName() != null && !from.getName().isBlank()) ? from.getName()
+                : from.getAccountID();
+        String toName = (to.getName() != null && !to.getName().isBlank()) ? to.getName() : to.getAccountID();
 
-        // 2. Créer les transactions (historique) avec relation JPA correcte
         Transaction withdrawal = new Transaction();
         withdrawal.setTransactionID(generateTransactionId());
-        withdrawal.setAccount(from); // Utiliser la relation JPA
+        withdrawal.setAccount(from); // Côté propriétaire uniquement (collection non chargée)
         withdrawal.setType("withdraw");
         withdrawal.setAmount(amount);
         withdrawal.setDescription("Transfer to " + toName + (description != null ? ": " + description : ""));
 
         Transaction deposit = new Transaction();
         deposit.setTransactionID(generateTransactionId());
-        deposit.setAccount(to); // Utiliser la relation JPA
+        deposit.setAccount(to); // Côté propriétaire uniquement (collection non chargée)
         deposit.setType("deposit");
         deposit.setAmount(amount);
         deposit.setDescription("Transfer from " + fromName + (description != null ? ": " + description : ""));
 
-        // 3. Link the transactions together (for cascade deletion)
+        // Link the transactions together (for cascade deletion)
         withdrawal.setLinkedTransactionId(deposit.getTransactionID());
         deposit.setLinkedTransactionId(withdrawal.getTransactionID());
-
-        // 4. Ajouter les transactions aux modèles de compte
-        from.addTransaction(withdrawal);
-        to.addTransaction(deposit);
-
-        // 5. Persister TOUT dans UNE SEULE transaction JPA
-        accountRepository.save(from);
-        accountRepository.save(to);
-        transactionRepository.save(withdrawal);
-        transactionRepository.save(deposit);
-
-        return true;
+        return new Transaction[] { withdrawal, deposit };
     }
-
 }
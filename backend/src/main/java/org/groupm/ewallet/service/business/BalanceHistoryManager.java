@@ -0,0 +1,156 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.AccountDailyBalance;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.repository.impl.JpaAccountDailyBalanceRepository;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.projection.BalancePoint;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service métier des soldes journaliers (table account_daily_balance).
+ *
+ * Le solde de clôture du jour est enregistré à chaque mouvement, dans la
+ * transaction de l'opération. Les séries historiques se lisent alors sans
+ * rejouer les transactions : leur coût dépend du nombre de jours, pas du
+ * nombre de transactions.
+ */
+@ApplicationScoped
+public class BalanceHistoryManager {
+
+    @Inject
+    private JpaAccountDailyBalanceRepository balanceRepository;
+
+    @Inject
+    private JpaAccountRepository accountRepository;
+
+    @Inject
+    private JpaTransactionRepository transactionRepository;
+
+    /**
+     * Enregistre le solde courant du compte comme solde de clôture du jour.
+     */
+    public void recordBalance(Account account) {
+        balanceRepository.recordClosingBalance(account.getAccountID(), account.getUserID(), LocalDate.now(),
+                account.getBalanceAsBigDecimal());
+    }
+
+    /**
+     * Enregistre le solde courant de plusieurs comptes comme solde de clôture
+     * du jour, en une requête par tranche de comptes.
+     */
+    public void recordBalances(List<Account> accounts) {
+        if (!accounts.isEmpty()) {
+            balanceRepository.recordClosingBalances(accounts, LocalDate.now());
+        }
+    }
+
+    /**
+     * Série journalière du solde d'un compte sur [from, to].
+     *
+     * @return un point par jour, ou null si le compte n'existe pas
+     */
+    @Transactional
+    public List<BalancePoint> getAccountHistory(String accountId, LocalDate from, LocalDate to) {
+        Account account = accountRepository.findById(accountId);
+        if (account == null) {
+            return null;
+        }
+        if (!balanceRepository.isBackfilled(accountId)) {
+            backfill(account);
+        }
+        return toDailySeries(balanceRepository.findRange(accountId, from, to), from, to);
+    }
+
+    /**
+     * Série journalière du cash total (somme des comptes) d'un utilisateur.
+     */
+    @Transactional
+    public List<BalancePoint> getUserHistory(String userId, LocalDate from, LocalDate to) {
+        for (String accountId : balanceRepository.findAccountIdsNotBackfilled(userId)) {
+            backfill(accountRepository.findById(accountId));
+        }
+        return toDailySeries(balanceRepository.findRangeByUserId(userId, from, to), from, to);
+    }
+
+    // =====================================================================
+    // HELPERS
+    // =====================================================================
+
+    /**
+     * Reporte le dernier solde connu de chaque compte sur les jours sans
+     * mouvement et somme les comptes jour par jour.
+     */
+    private List<BalancePoint> toDailySeries(List<AccountDailyBalance> rows, LocalDate from, LocalDate to) {
+        List<BalancePoint> series = new ArrayList<>();
+        Map<String, BigDecimal> lastByAccount = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        int next = 0;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            while (next < rows.size() && !rows.get(next).getBalanceDate().isAfter(day)) {
+                AccountDailyBalance row = rows.get(next++);
+                BigDecimal previous = lastByAccount.put(row.getAccountID(), row.getClosingBalance());
+                total = total.add(row.getClosingBalance())
+                        .subtract(previous != null ? previous : BigDecimal.ZERO);
+            }
+            series.add(new BalancePoint(day, total));
+        }
+        return series;
+    }
+
+    /**
+     * Reconstitue une fois l'historique d'un compte, en rejouant ses
+     * transactions à rebours depuis le solde courant. Les soldes déjà
+     * enregistrés sont réécrits avec les mêmes valeurs ; la fin de la
+     * reconstitution est marquée à part, un compte ayant déjà des soldes
+     * journaliers pouvant avoir été créé avant leur mise en place.
+     */
+    private void backfill(Account account) {
+        if (account == null) {
+            return;
+        }
+        Map<LocalDate, BigDecimal> netByDay = new TreeMap<>(Collections.reverseOrder());
+        for (Transaction tx : transactionRepository.findByAccountId(account.getAccountID())) {
+            if (tx.getTimestamp() == null || tx.getType() == null) {
+                continue;
+            }
+            BigDecimal signed = switch (tx.getType().toLowerCase()) {
+                case "deposit" -> tx.getAmountAsBigDecimal();
+                case "withdraw" -> tx.getAmountAsBigDecimal().negate();
+                default -> BigDecimal.ZERO;
+            };
+            netByDay.merge(tx.getTimestamp().toLocalDate(), signed, BigDecimal::add);
+        }
+
+        BigDecimal running = account.getBalanceAsBigDecimal();
+        recordBalance(account);
+
+        LocalDate earliest = null;
+        for (Map.Entry<LocalDate, BigDecimal> day : netByDay.entrySet()) {
+            balanceRepository.recordClosingBalance(account.getAccountID(), account.getUserID(), day.getKey(),
+                    running);
+            running = running.subtract(day.getValue());
+            earliest = day.getKey();
+        }
+        if (earliest != null) {
+            balanceRepository.recordClosingBalance(account.getAccountID(), account.getUserID(),
+                    earliest.minusDays(1), running);
+        }
+        balanceRepository.markBackfilled(account.getAccountID(), account.getUserID(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,64 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.repository.BulkDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaBulkDeleteRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Remise à zéro des données par requêtes DELETE ensemblistes, dans l'ordre
+ * des clés étrangères.
+ *
+ * Les tables sont vidées par lots de {@link #CHUNK_SIZE} lignes, chacun dans
+ * sa propre transaction : les verrous sont relâchés entre deux lots et rien
+ * n'est chargé en mémoire. Une remise à zéro interrompue peut être relancée,
+ * elle reprend où elle s'est arrêtée. Appelée dans une transaction déjà
+ * ouverte, elle s'y joint (les lots ne sont alors validés qu'à la fin).
+ *
+ * La suppression d'un utilisateur, d'un compte ou d'un portefeuille est
+ * logique ; {@link SoftDeletePurger} les supprime ensuite physiquement.
+ */
+@ApplicationScoped
+public class BulkDeleteManager {
+
+    /** Lignes supprimées par transaction. */
+    public static final int CHUNK_SIZE = 5000;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JpaBulkDeleteRepository bulkDeletes;
+
+    private int chunkSize = CHUNK_SIZE;
+
+    /**
+     * Vide toutes les tables de l'application, enfants avant parents.
+     *
+     * @return nombre de lignes supprimées par table
+     */
+    public Map<String, Long> clearAll() {
+        Map<String, Long> deleted = new LinkedHashMap<>();
+        for (String table : BulkDeleteRepository.CLEAR_ORDER) {
+            deleted.put(table, inChunks(() -> bulkDeletes.deleteAllChunk(table, chunkSize)));
+        }
+        return deleted;
+    }
+
+    /**
+     * Répète un lot jusqu'à ce qu'il supprime moins de chunkSize lignes.
+     *
+     * @return nombre total de lignes supprimées
+     */
+    private long inChunks(IntSupplier chunk) {
+        LongAdder total = new LongAdder();
+        ChunkedDeletes.drain(em, chunkSize, chunk, total::add, () -> true);
+        return total.sum();
+    }
+}
@@ -0,0 +1,61 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Suppressions par lots dans des transactions courtes, communes à
+ * {@link BulkDeleteManager} et {@link SoftDeletePurger}.
+ */
+final class ChunkedDeletes {
+
+    private ChunkedDeletes() {
+    }
+
+    /**
+     * Répète un lot jusqu'à ce qu'il supprime moins de {@code chunkSize}
+     * lignes, chacun dans sa propre transaction.
+     *
+     * @param onChunk         reçoit le nombre de lignes supprimées par chaque lot
+     * @param beforeNextChunk appelé après un lot plein ; false arrête avant le
+     *                        suivant
+     * @return true si tout a été supprimé, false si arrêté avant la fin
+     */
+    static boolean drain(EntityManager em, int chunkSize, IntSupplier chunk, IntConsumer onChunk,
+            BooleanSupplier beforeNextChunk) {
+        while (true) {
+            int deleted = inTransaction(em, chunk::getAsInt);
+            onChunk.accept(deleted);
+            if (deleted < chunkSize) {
+                return true;
+            }
+            if (!beforeNextChunk.getAsBoolean()) {
+                return false;
+            }
+        }
+    }
+
+    /** Même règle que TransactionInterceptor : rejoint la transaction en cours s'il y en a une. */
+    static <T> T inTransaction(EntityManager em, Supplier<T> work) {
+        EntityTransaction tx = em.getTransaction();
+        if (tx.isActive()) {
+            return work.get();
+        }
+        tx.begin();
+        try {
+            T result = work.get();
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.groupm.ewallet.service.business;
+
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Générateur de données de démonstration reproductible.
+ *
+ * Chaque utilisateur est tiré d'un générateur aléatoire dérivé de la graine et
+ * de son numéro : le contenu (noms, emails, montants, nombre de comptes...) ne
+ * dépend ni du nombre de threads ni de l'ordre d'exécution. Seuls les
+ * identifiants (ordonnés dans le temps) et les identifiants numériques alloués
+ * par la base changent d'une exécution à l'autre.
+ *
+ * Les emails contiennent le numéro de l'utilisateur : une génération se fait
+ * sur une base vide (DELETE /api/admin/clear).
+ */
+public class DemoDataGenerator {
+
+    // International first names (French, German, English, Italian, Spanish)
+    private static final String[] FIRST_NAMES = {
+            // English
+            "James", "Mary", "John", "Emma", "Michael", "Olivia", "William", "Sophia",
+            "David", "Isabella", "Richard", "Mia", "Joseph", "Charlotte", "Thomas", "Amelia",
+            // French
+            "Jean", "Marie", "Pierre", "Camille", "Louis", "Léa", "Antoine", "Manon",
+            "Nicolas", "Chloé", "François", "Julie", "Laurent", "Aurélie", "Mathieu", "Céline",
+            // German
+            "Hans", "Anna", "Klaus", "Lena", "Stefan", "Julia", "Andreas", "Laura",
+            "Markus", "Sarah", "Tobias", "Lisa", "Florian", "Katharina", "Lukas", "Sophie",
+            // Italian
+            "Marco", "Giulia", "Luca", "Francesca", "Alessandro", "Chiara", "Andrea", "Sara",
+            "Matteo", "Valentina", "Lorenzo", "Alessia", "Davide", "Martina", "Federico", "Elena",
+            // Spanish
+            "Carlos", "María", "Miguel", "Carmen", "Pablo", "Ana", "Diego", "Lucía",
+            "Alejandro", "Paula", "Daniel", "Laura", "Javier", "Marta", "Roberto", "Isabel"
+    };
+
+    // International last names
+    private static final String[] LAST_NAMES = {
+            // English
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Wilson", "Taylor", "Anderson",
+            "Thomas", "Jackson", "White", "Harris", "Martin", "Thompson", "Moore", "Clark",
+            // French
+            "Dubois", "Moreau", "Laurent", "Bernard", "Petit", "Leroy", "Roux", "Girard",
+            "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent", "Muller", "Lefebvre",
+            // German
+            "Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Schäfer", "Koch", "Bauer", "Richter", "Klein", "Wolf",
+            // Italian
+            "Rossi", "Russo", "Ferrari", "Esposito", "Bianchi", "Romano", "Colombo", "Ricci",
+            "Marino", "Greco", "Bruno", "Gallo", "Conti", "De Luca", "Mancini", "Costa",
+            // Spanish
+            "García", "Rodríguez", "Martínez", "López", "González", "Hernández", "Pérez", "Sánchez",
+            "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Reyes", "Morales"
+    };
+
+    // Email domains
+    private static final String[] EMAIL_DOMAINS = {
+            "gmail.com", "outlook.com", "yahoo.com", "icloud.com", "protonmail.com",
+            "hotmail.com", "mail.com", "gmx.com", "zoho.com", "fastmail.com"
+    };
+
+    // Strong password components for OWASP 2024 compliance
+    private static final String UPPERCASE = "ABCDEFGHJKLMNPQRSTUVWXYZ"; // Removed I, O to avoid confusion
+    private static final String LOWERCASE = "abcdefghjkmnpqrstuvwxyz"; // Removed i, l, o to avoid confusion
+    private static final String DIGITS = "23456789"; // Removed 0, 1 to avoid confusion with O, l
+    private static final String SPECIAL_CHARS = "!@#$%^&*?+-=";
+
+    private static final String[] ACCOUNT_TYPES = { "Checking", "Savings", "Investment", "Retirement" };
+    private static final String[] ACCOUNT_NAMES = { "Main Account", "Emergency Fund", "Vacation", "Daily Expenses",
+            "Business" };
+
+    private static final String[] CRYPTO_SYMBOLS = { "BTC", "ETH", "BNB", "XRP", "ADA", "SOL", "DOT", "DOGE", "AVAX",
+            "LINK" };
+    private static final String[] STOCK_SYMBOLS = { "AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "JPM", "V",
+            "WMT" };
+    private static final String[] ETF_SYMBOLS = { "SPY", "QQQ", "VTI", "IVV", "VOO", "VEA", "VWO", "BND", "GLD",
+            "VNQ" };
+
+    private static final String[] ASSET_TYPES = { "crypto", "stock", "etf" };
+
+    private static final String[] TRANSACTION_TYPES = { "deposit", "withdraw" };
+    private static final String[] TRANSACTION_DESCRIPTIONS = {
+            "Salary deposit", "ATM withdrawal", "Online purchase", "Transfer", "Bill payment",
+            "Investment", "Refund", "Interest", "Service fee", "Subscription"
+    };
+
+    /** Début de la période des transactions générées (7 jours). */
+    private static final LocalDateTime START_DATE = LocalDateTime.of(2025, 12, 8, 0, 0);
+    private static final long HOURS_RANGE = 7 * 24;
+
+    private final long seed;
+
+    public DemoDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Construit l'utilisateur {@code index} avec ses comptes, transactions,
+     * portefeuilles et actifs (persistés en cascade avec l'utilisateur).
+     */
+    public User generateUser(long index) {
+        Random random = randomFor(index, 0);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String userId = TimeOrderedId.next();
+
+        User user = new User(userId, generateEmail(firstName, lastName, index, random),
+                generateStrongPassword(random), firstName, lastName);
+
+        // 1 à 3 comptes, 10 à 20 transactions par compte
+        int numAccounts = 1 + random.nextInt(3);
+        for (int j = 0; j < numAccounts; j++) {
+            String type = ACCOUNT_TYPES[random.nextInt(ACCOUNT_TYPES.length)];
+            double balance = 100 + random.nextDouble() * 9900;
+
+            Account account = new Account(TimeOrderedId.next(), userId, type, balance);
+            account.setName(ACCOUNT_NAMES[random.nextInt(ACCOUNT_NAMES.length)] + " " + (j + 1));
+
+            int numTransactions = 10 + random.nextInt(11);
+            for (int k = 0; k < numTransactions; k++) {
+                String txnType = TRANSACTION_TYPES[random.nextInt(TRANSACTION_TYPES.length)];
+                double amount = 10 + random.nextDouble() * 990;
+                String description = TRANSACTION_DESCRIPTIONS[random.nextInt(TRANSACTION_DESCRIPTIONS.length)];
+
+                Transaction txn = new Transaction(TimeOrderedId.next(), txnType, amount, description);
+                txn.setTimestamp(randomTimestamp(random));
+                account.addTransaction(txn);
+            }
+            user.addAccount(account);
+        }
+
+        // 1 à 2 portefeuilles de 2 à 4 actifs
+        int numPortfolios = 1 + random.nextInt(2);
+        for (int j = 0; j < numPortfolios; j++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setName("Portfolio " + (j + 1));
+            portfolio.setUser(user);
+
+            int numAssets = 2 + random.nextInt(3);
+            for (int k = 0; k < numAssets; k++) {
+                int typeChoice = random.nextInt(3);
+                String[] symbols = symbolsFor(typeChoice);
+                String symbol = symbols[random.nextInt(symbols.length)];
+                double quantity = 0.1 + random.nextDouble() * 10;
+                double unitValue = 10 + random.nextDouble() * 1000;
+
+                Asset asset = new Asset(symbol, ASSET_TYPES[typeChoice], symbol + " Asset", unitValue);
+                asset.setQuantity(quantity);
+                portfolio.addAsset(asset);
+            }
+            user.addPortfolio(portfolio);
+        }
+        return user;
+    }
+
+    /**
+     * 3 à 6 achats/ventes pour le portefeuille {@code ordinal} de l'utilisateur
+     * {@code index}, une fois son identifiant connu (après persist).
+     */
+    public List<PortfolioTransaction> generateTrades(long index, int ordinal, int portfolioId) {
+        Random random = randomFor(index, ordinal + 1);
+        int numTrades = 3 + random.nextInt(4);
+        List<PortfolioTransaction> trades = new ArrayList<>(numTrades);
+        for (int t = 0; t < numTrades; t++) {
+            String[] symbols = symbolsFor(random.nextInt(3));
+            String symbol = symbols[random.nextInt(symbols.length)];
+            String tradeType = random.nextBoolean() ? "BUY" : "SELL";
+            double quantity = 0.1 + random.nextDouble() * 5;
+            double unitPrice = 10 + random.nextDouble() * 1000;
+
+            PortfolioTransaction trade = new PortfolioTransaction(portfolioId, symbol, symbol + " Asset", tradeType,
+                    quantity, unitPrice);
+            trade.setTimestamp(randomTimestamp(random));
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    /**
+     * Générateur propre à un utilisateur (et à un de ses flux) : mélange
+     * SplitMix64 de la graine et du numéro pour décorréler les voisins.
+     */
+    private Random randomFor(long index, int stream) {
+        long z = seed + (index * 31 + stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(z ^ (z >>> 31));
+    }
+
+    private static LocalDateTime randomTimestamp(Random random) {
+        return START_DATE.plusHours(random.nextLong(HOURS_RANGE)).plusMinutes(random.nextInt(60));
+    }
+
+    private static String[] symbolsFor(int typeChoice) {
+        return switch (typeChoice) {
+            case 0 -> CRYPTO_SYMBOLS;
+            case 1 -> STOCK_SYMBOLS;
+            default -> ETF_SYMBOLS;
+        };
+    }
+
+    /**
+     * Generate a realistic email address with varied formats.
+     * Uses index to ensure uniqueness.
+     */
+    private static String generateEmail(String firstName, String lastName, long index, Random random) {
+        String domain = EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        String firstClean = normalizeString(firstName.toLowerCase());
+        String lastClean = normalizeString(lastName.toLowerCase());
+
+        int format = random.nextInt(5);
+
+        return switch (format) {
+            case 0 -> firstClean + "." + lastClean + index + "@" + domain;
+            case 1 -> lastClean + "." + firstClean + index + "@" + domain;
+            case 2 -> firstClean + "-" + lastClean + index + "@" + domain;
+            case 3 -> firstClean + "_" + lastClean + index + "@" + domain;
+            default -> firstClean.charAt(0) + lastClean + index + "@" + domain;
+        };
+    }
+
+    /**
+     * Normalize string by removing accents for email addresses.
+     */
+    private static String normalizeString(String input) {
+        return java.text.Normalizer.normalize(input, java.text.Normalizer.Form.NFD)
+                .replaceAll("[^\\p{ASCII}]", "")
+                .replaceAll(" ", "");
+    }
+
+    /**
+     * Generate a strong password that complies with OWASP 2024 + NIST SP800-63B.
+     * Requirements:
+     * - Minimum 12 characters (recommended)
+     * - At least 1 uppercase letter
+     * - At least 1 lowercase letter
+     * - At least 1 digit
+     * - At least 1 special character
+     * - No common sequences
+     * - No character repetitions
+     */
+    private static String generateStrongPassword(Random random) {
+        StringBuilder password = new StringBuilder();
+
+        // Ensure at least one of each required character type (4 chars)
+        password.append(UPPERCASE.charAt(random.nextInt(UPPERCASE.length())));
+        password.append(LOWERCASE.charAt(random.nextInt(LOWERCASE.length())));
+        password.append(DIGITS.charAt(random.nextInt(DIGITS.length())));
+        password.append(SPECIAL_CHARS.charAt(random.nextInt(SPECIAL_CHARS.length())));
+
+        // Add more random characters to reach 12-16 characters total
+        int targetLength = 12 + random.nextInt(5); // 12-16 chars
+        String allChars = UPPERCASE + LOWERCASE + DIGITS + SPECIAL_CHARS;
+
+        while (password.length() < targetLength) {
+            char nextChar = allChars.charAt(random.nextInt(allChars.length()));
+
+            // Avoid repetition of the last character
+            if (password.length() > 0 && password.charAt(password.length() - 1) == nextChar) {
+                continue;
+            }
+            password.append(nextChar);
+        }
+
+        // Shuffle the password to randomize the position of required chars
+        char[] chars = password.toString().toCharArray();
+        for (int i = chars.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char temp = chars[i];
+            chars[i] = chars[j];
+            chars[j] = temp;
+        }
+
+        return new String(chars);
+    }
+}
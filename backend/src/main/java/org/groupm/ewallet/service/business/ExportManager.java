@@ -0,0 +1,93 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.repository.impl.JpaPortfolioTransactionRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service d'export complet des tables volumineuses au format NDJSON (un objet
+ * JSON par ligne).
+ *
+ * Les lignes sont lues par un curseur MySQL en lecture seule et écrites au fur
+ * et à mesure ; le contexte de persistance est vidé régulièrement pour que la
+ * mémoire utilisée reste constante quel que soit le nombre de lignes.
+ */
+@ApplicationScoped
+public class ExportManager {
+
+    /** Nombre de lignes écrites entre deux vidages du contexte de persistance. */
+    static final int CLEAR_EVERY = 1000;
+
+    /** Instance partagée : Jsonb est thread-safe et coûteux à créer. */
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JpaTransactionRepository transactionRepository;
+
+    @Inject
+    private JpaPortfolioTransactionRepository portfolioTransactionRepository;
+
+    /**
+     * Écrit toutes les transactions bancaires sur le flux.
+     *
+     * @return nombre de lignes écrites
+     */
+    public long exportTransactions(OutputStream out) throws IOException {
+        try (Stream<Transaction> rows = transactionRepository.streamAll()) {
+            return writeNdjson(rows, out, CLEAR_EVERY, em::clear);
+        }
+    }
+
+    /**
+     * Écrit toutes les transactions de portefeuille sur le flux.
+     *
+     * @return nombre de lignes écrites
+     */
+    public long exportPortfolioTransactions(OutputStream out) throws IOException {
+        try (Stream<PortfolioTransaction> rows = portfolioTransactionRepository.streamAll()) {
+            return writeNdjson(rows, out, CLEAR_EVERY, em::clear);
+        }
+    }
+
+    /**
+     * Sérialise chaque élément sur une ligne et appelle {@code clear} toutes les
+     * {@code clearEvery} lignes, après avoir vidé le tampon d'écriture.
+     *
+     * @return nombre de lignes écrites
+     */
+    public static <T> long writeNdjson(Stream<T> rows, OutputStream out, int clearEvery, Runnable clear)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            // toJson(Object, Writer) fermerait le flux de sortie : on passe par une chaîne
+            writer.write(JSONB.toJson(it.next()));
+            writer.write('\n');
+            if (++count % clearEvery == 0) {
+                writer.flush();
+                clear.run();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -0,0 +1,19 @@
+package org.groupm.ewallet.service.business;
+
+/**
+ * Une exécution portant la même clé d'idempotence est toujours en cours
+ * (voir {@link IdempotencyManager}). La requête peut être renvoyée plus tard
+ * avec la même clé.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
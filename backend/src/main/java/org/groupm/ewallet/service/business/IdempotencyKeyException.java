@@ -0,0 +1,14 @@
+package org.groupm.ewallet.service.business;
+
+/**
+ * Clé d'idempotence refusée : invalide, ou déjà utilisée pour une autre
+ * requête (voir {@link IdempotencyManager}). L'opération n'a pas été exécutée.
+ */
+public class IdempotencyKeyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyException(String message) {
+        super(message);
+    }
+}
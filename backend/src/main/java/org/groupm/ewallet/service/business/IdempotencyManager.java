@@ -0,0 +1,311 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import org.groupm.ewallet.model.IdempotencyRecord;
+import org.groupm.ewallet.repository.impl.JpaIdempotencyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Exécution au plus une fois des requêtes portant un en-tête Idempotency-Key.
+ *
+ * La première requête réserve la clé (ligne idempotency_keys insérée dans la
+ * transaction de l'opération) et enregistre sa réponse au commit : l'opération
+ * et sa réponse sont validées ensemble. Les requêtes suivantes portant la même
+ * clé reçoivent cette réponse sans réexécuter l'opération, d'abord depuis un
+ * index en mémoire borné ({@link #INDEX_SIZE} clés, {@link #INDEX_TTL}), puis
+ * depuis la table pendant {@link #RETENTION}.
+ *
+ * Une requête identique arrivant pendant l'exécution attend son résultat :
+ * sur le même serveur via l'exécution en cours, sur un autre via le verrou de
+ * la clé primaire. Une réponse d'erreur n'est pas enregistrée : rien n'a été
+ * appliqué, la clé reste libre pour une nouvelle tentative.
+ */
+@ApplicationScoped
+public class IdempotencyManager {
+
+    /** Durée de conservation d'une réponse en base. */
+    public static final Duration RETENTION = Duration.ofHours(24);
+
+    /** Réponses gardées au plus dans l'index en mémoire. */
+    public static final int INDEX_SIZE = 10_000;
+
+    /** Durée de vie d'une réponse dans l'index en mémoire. */
+    public static final Duration INDEX_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Attente maximale d'une exécution en cours portant la même clé. Doit
+     * rester inférieure au délai de lecture des clients qui réessaient (15 s
+     * dans HttpClientRegistry de la webapp) : la nouvelle tentative reçoit la réponse ou
+     * un 409 au lieu d'expirer à son tour en occupant une requête.
+     */
+    public static final long WAIT_MILLIS = 10_000;
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /** Clés expirées supprimées par transaction. */
+    private static final int PURGE_CHUNK = 1000;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JpaIdempotencyRepository repository;
+
+    private Duration retention = RETENTION;
+    private long waitMillis = WAIT_MILLIS;
+
+    /** Réponses enregistrées, de la moins récemment lue à la plus récente. */
+    private final Map<String, Entry> index = Collections.synchronizedMap(
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > INDEX_SIZE;
+                }
+            });
+
+    /** Exécutions en cours, complétées avec la réponse enregistrée (ou null). */
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Exécute {@code work} une seule fois pour une clé donnée, dans une
+     * transaction ouverte ici (à appeler hors transaction).
+     *
+     * @param key         valeur de l'en-tête Idempotency-Key
+     * @param requestHash empreinte de la requête (voir {@link #fingerprint})
+     * @param work        l'opération ; ses appels @Transactional rejoignent la
+     *                    transaction de la clé
+     * @return la réponse de l'opération, ou celle de sa première exécution
+     * @throws IdempotencyKeyException      si la clé est invalide ou déjà
+     *                                      utilisée pour une autre requête
+     * @throws IdempotencyConflictException si l'exécution concurrente ne se
+     *                                      termine pas à temps
+     */
+    public IdempotentResponse execute(String key, String requestHash, Supplier<IdempotentResponse> work) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        while (true) {
+            Entry cached = cached(key);
+            if (cached != null) {
+                return cached.replay(requestHash);
+            }
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            CompletableFuture<Entry> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                return executeOnce(key, requestHash, work, mine);
+            }
+            Entry first = await(running);
+            if (first != null) {
+                return first.replay(requestHash);
+            }
+            // La première exécution n'a rien enregistré : on prend le relais
+        }
+    }
+
+    /**
+     * Supprime les réponses expirées, par lots de {@value #PURGE_CHUNK}.
+     *
+     * @return nombre de clés supprimées
+     */
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            try {
+                deleted = repository.deleteExpiredChunk(now, PURGE_CHUNK);
+                tx.commit();
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            }
+            total += deleted;
+        } while (deleted == PURGE_CHUNK);
+        return total;
+    }
+
+    /**
+     * Empreinte SHA-256 des champs d'une requête (précédés de la route), pour
+     * refuser une clé réutilisée avec un autre contenu.
+     */
+    public static String fingerprint(Object... parts) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object part : parts) {
+            canonical.append(part == null ? "\u0000" : part.toString()).append('\u001f');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // =====================================================================
+    // HELPERS
+    // =====================================================================
+
+    private IdempotentResponse executeOnce(String key, String requestHash, Supplier<IdempotentResponse> work,
+            CompletableFuture<Entry> mine) {
+        Entry stored = null;
+        try {
+            Execution execution = executeInTransaction(key, requestHash, work);
+            stored = execution.stored;
+            return execution.response(requestHash);
+        } finally {
+            inFlight.remove(key, mine);
+            mine.complete(stored);
+        }
+    }
+
+    private Execution executeInTransaction(String key, String requestHash, Supplier<IdempotentResponse> work) {
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            IdempotencyRecord record = repository.findByKey(key);
+            if (record != null && record.getExpiresAt().isAfter(now)) {
+                tx.commit();
+                return Execution.replay(remember(record));
+            }
+            if (record != null) {
+                repository.delete(record);
+            }
+
+            record = new IdempotencyRecord(key, requestHash, now, now.plus(retention));
+            try {
+                repository.insert(record);
+            } catch (PersistenceException e) {
+                // Clé validée entre-temps par une autre exécution (autre serveur)
+                tx.rollback();
+                em.clear();
+                return replayCommitted(key, e);
+            }
+
+            IdempotentResponse response = work.get();
+            if (!response.isSuccessful()) {
+                tx.rollback();
+                return Execution.executed(response, null);
+            }
+            record.setResponse(response.getStatus(), response.getBody());
+            tx.commit();
+            return Execution.executed(response, remember(record));
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        }
+    }
+
+    private Execution replayCommitted(String key, PersistenceException cause) {
+        IdempotencyRecord winner = repository.findByKey(key);
+        if (winner == null) {
+            throw new IdempotencyConflictException("A request with the same Idempotency-Key is still in progress.",
+                    cause);
+        }
+        return Execution.replay(remember(winner));
+    }
+
+    private Entry await(CompletableFuture<Entry> running) {
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with the same Idempotency-Key is still in progress.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the same Idempotency-Key.");
+        } catch (ExecutionException e) {
+            return null; // Jamais complétée en erreur
+        }
+    }
+
+    private Entry cached(String key) {
+        Entry entry = index.get(key);
+        if (entry != null && entry.indexedUntil - System.nanoTime() <= 0) {
+            index.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private Entry remember(IdempotencyRecord record) {
+        long ttl = Math.min(INDEX_TTL.toNanos(),
+                Duration.between(LocalDateTime.now(), record.getExpiresAt()).toNanos());
+        Entry entry = new Entry(record.getRequestHash(), record.getStatusCode(), record.getResponseBody(),
+                System.nanoTime() + ttl);
+        index.put(record.getKey(), entry);
+        return entry;
+    }
+
+    /** Réponse enregistrée d'une clé. */
+    private static final class Entry {
+
+        private final String requestHash;
+        private final int status;
+        private final String body;
+        private final long indexedUntil;
+
+        private Entry(String requestHash, int status, String body, long indexedUntil) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.body = body;
+            this.indexedUntil = indexedUntil;
+        }
+
+        private IdempotentResponse replay(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyException("Idempotency-Key already used for a different request.");
+            }
+            return new IdempotentResponse(status, body, true);
+        }
+    }
+
+    /** Résultat de l'exécution propriétaire de la clé. */
+    private static final class Execution {
+
+        private final IdempotentResponse executed;
+        private final Entry stored;
+
+        private Execution(IdempotentResponse executed, Entry stored) {
+            this.executed = executed;
+            this.stored = stored;
+        }
+
+        private static Execution executed(IdempotentResponse response, Entry stored) {
+            return new Execution(response, stored);
+        }
+
+        private static Execution replay(Entry stored) {
+            return new Execution(null, stored);
+        }
+
+        private IdempotentResponse response(String requestHash) {
+            return executed != null ? executed : stored.replay(requestHash);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.groupm.ewallet.service.business;
+
+/**
+ * Réponse d'une requête idempotente : code HTTP et corps déjà sérialisé, tels
+ * qu'ils sont renvoyés à chaque rejeu (voir {@link IdempotencyManager}).
+ */
+public class IdempotentResponse {
+
+    private final int status;
+    private final String body;
+    private final boolean replayed;
+
+    public IdempotentResponse(int status, String body) {
+        this(status, body, false);
+    }
+
+    IdempotentResponse(int status, String body, boolean replayed) {
+        this.status = status;
+        this.body = body;
+        this.replayed = replayed;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /** Vrai si la réponse est celle d'une exécution précédente. */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    /** Seules les réponses 2xx sont enregistrées et rejouées. */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
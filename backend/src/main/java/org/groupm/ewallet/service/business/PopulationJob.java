@@ -0,0 +1,132 @@
+package org.groupm.ewallet.service.business;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * État d'une génération de données en cours ou terminée, exposé par
+ * l'endpoint de suivi. Les compteurs sont mis à jour par les threads de
+ * génération à chaque lot validé.
+ */
+public class PopulationJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final long users;
+    private final long seed;
+    private final int workers;
+    private final int chunkSize;
+    private final Instant startedAt = Instant.now();
+
+    private final LongAdder usersCreated = new LongAdder();
+    private final LongAdder rowsInserted = new LongAdder();
+    private final AtomicLong runningWorkers;
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public PopulationJob(String id, long users, long seed, int workers, int chunkSize) {
+        this.id = id;
+        this.users = users;
+        this.seed = seed;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.runningWorkers = new AtomicLong(workers);
+    }
+
+    /** Appelé après la validation de chaque lot. */
+    void chunkCommitted(long chunkUsers, long chunkRows) {
+        usersCreated.add(chunkUsers);
+        rowsInserted.add(chunkRows);
+    }
+
+    /**
+     * Fin d'un thread ; le job est terminé quand le dernier s'arrête. Le
+     * premier échec est conservé et arrête les autres threads au lot suivant.
+     */
+    void workerFinished(Throwable failure) {
+        if (failure != null) {
+            synchronized (this) {
+                if (error == null) {
+                    error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+                }
+            }
+        }
+        if (runningWorkers.decrementAndGet() == 0) {
+            finishedAt = Instant.now();
+            status = error == null ? Status.COMPLETED : Status.FAILED;
+        }
+    }
+
+    /** Vrai dès qu'un thread a échoué : les autres s'arrêtent. */
+    boolean isAborted() {
+        return error != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getUsersCreated() {
+        return usersCreated.sum();
+    }
+
+    /** Toutes tables confondues (utilisateurs, comptes, transactions...). */
+    public long getRowsInserted() {
+        return rowsInserted.sum();
+    }
+
+    /** Avancement entre 0 et 1. */
+    public double getProgress() {
+        return users == 0 ? 1 : (double) getUsersCreated() / users;
+    }
+
+    public long getElapsedMillis() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return Duration.between(startedAt, end).toMillis();
+    }
+
+    /** Débit moyen depuis le démarrage. */
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getRowsInserted() * 1000.0 / elapsed;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,172 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.groupm.ewallet.config.ConnectionPool;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.User;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Génération massive de données de démonstration en tâche de fond.
+ *
+ * Les utilisateurs [0, users) sont répartis en plages contiguës, une par
+ * thread. Chaque thread a son propre EntityManager et valide un lot de
+ * {@code chunkSize} utilisateurs par transaction avant de vider son contexte
+ * de persistance : la mémoire reste constante et un échec ne perd qu'un lot.
+ * Une seule génération tourne à la fois.
+ */
+@ApplicationScoped
+public class PopulationManager {
+
+    private static final Logger LOGGER = Logger.getLogger(PopulationManager.class.getName());
+
+    public static final long MAX_USERS = 10_000_000;
+    /**
+     * Connexions qu'un worker peut tenir à la fois : celle de son lot, plus
+     * celle que le générateur TABLE emprunte tous les 50 identifiants.
+     */
+    static final int CONNECTIONS_PER_WORKER = 2;
+
+    /** Connexions laissées au trafic courant pendant une génération. */
+    static final int RESERVED_CONNECTIONS = 4;
+    public static final int MAX_CHUNK_SIZE = 10_000;
+
+    /** Jobs terminés conservés pour l'endpoint de suivi. */
+    private static final int HISTORY_SIZE = 20;
+
+    @Inject
+    private EntityManagerFactory emf;
+
+    private final Map<String, PopulationJob> jobs = new LinkedHashMap<>();
+
+    private PopulationJob current;
+
+    /**
+     * Démarre une génération et rend la main immédiatement.
+     *
+     * @param threadFactory fabrique des threads de génération (threads gérés
+     *                      par le conteneur côté webservice)
+     * @throws IllegalArgumentException si un paramètre sort des bornes
+     * @throws IllegalStateException    si une génération est déjà en cours
+     */
+    public synchronized PopulationJob start(long users, long seed, int workers, int chunkSize,
+            ThreadFactory threadFactory) {
+        if (users < 1 || users > MAX_USERS) {
+            throw new IllegalArgumentException("users must be between 1 and " + MAX_USERS);
+        }
+        int maxWorkers = maxWorkers();
+        if (workers < 1 || workers > maxWorkers) {
+            throw new IllegalArgumentException("workers must be between 1 and " + maxWorkers
+                    + " (connection pool of " + ConnectionPool.maxSize(emf) + ")");
+        }
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        if (current != null && current.getStatus() == PopulationJob.Status.RUNNING) {
+            throw new IllegalStateException("Population job " + current.getId() + " is still running");
+        }
+
+        int threads = (int) Math.min(workers, users);
+        PopulationJob job = new PopulationJob(UUID.randomUUID().toString(), users, seed, threads, chunkSize);
+        remember(job);
+        current = job;
+
+        DemoDataGenerator generator = new DemoDataGenerator(seed);
+        for (int w = 0; w < threads; w++) {
+            long from = users * w / threads;
+            long to = users * (w + 1) / threads;
+            Thread thread = threadFactory.newThread(() -> runPartition(job, generator, from, to));
+            thread.setName("populate-" + job.getId().substring(0, 8) + "-" + w);
+            thread.start();
+        }
+        return job;
+    }
+
+    /**
+     * Nombre maximal de workers que le pool de connexions peut servir sans
+     * faire attendre le trafic courant ni dépasser son délai d'acquisition.
+     */
+    public int maxWorkers() {
+        return Math.max(1, (ConnectionPool.maxSize(emf) - RESERVED_CONNECTIONS) / CONNECTIONS_PER_WORKER);
+    }
+
+    /** Job par identifiant, ou null s'il est inconnu ou trop ancien. */
+    public synchronized PopulationJob find(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void runPartition(PopulationJob job, DemoDataGenerator generator, long from, long to) {
+        Throwable failure = null;
+        EntityManager em = emf.createEntityManager();
+        // Des millions de lignes écrites une seule fois : inutile de remplir le cache de second niveau
+        em.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+        try {
+            for (long chunkStart = from; chunkStart < to && !job.isAborted(); chunkStart += job.getChunkSize()) {
+                long chunkEnd = Math.min(to, chunkStart + job.getChunkSize());
+                em.getTransaction().begin();
+                long rows = 0;
+                for (long index = chunkStart; index < chunkEnd; index++) {
+                    rows += persistUser(em, generator, index);
+                }
+                em.getTransaction().commit();
+                em.clear();
+                job.chunkCommitted(chunkEnd - chunkStart, rows);
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            LOGGER.log(Level.WARNING, "Population job " + job.getId() + " failed", e);
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+            job.workerFinished(failure);
+        }
+    }
+
+    /** @return nombre de lignes insérées pour cet utilisateur */
+    private long persistUser(EntityManager em, DemoDataGenerator generator, long index) {
+        User user = generator.generateUser(index);
+        em.persist(user);
+
+        long rows = 1;
+        for (Account account : user.getAccounts()) {
+            rows += 1 + account.getTransactions().size();
+        }
+        // Identifiants des portefeuilles connus dès le persist (table id_sequences)
+        List<Portfolio> portfolios = user.getPortfolios();
+        for (int ordinal = 0; ordinal < portfolios.size(); ordinal++) {
+            Portfolio portfolio = portfolios.get(ordinal);
+            rows += 1 + portfolio.getAssets().size();
+            for (PortfolioTransaction trade : generator.generateTrades(index, ordinal, portfolio.getId())) {
+                em.persist(trade);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void remember(PopulationJob job) {
+        jobs.put(job.getId(), job);
+        Iterator<PopulationJob> oldest = jobs.values().iterator();
+        while (jobs.size() > HISTORY_SIZE && oldest.hasNext()) {
+            if (oldest.next().getStatus() != PopulationJob.Status.RUNNING) {
+                oldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.groupm.ewallet.service.business;
+
+import org.groupm.ewallet.repository.projection.PurgeBacklog;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * État de la purge des lignes supprimées logiquement, exposé par l'endpoint
+ * d'administration : file d'attente en base et compteurs depuis le
+ * démarrage.
+ */
+public class PurgeStats {
+
+    private final PurgeBacklog backlog;
+    private final long oldestPendingSeconds;
+    private final long runs;
+    private final long usersPurged;
+    private final long accountsPurged;
+    private final long portfoliosPurged;
+    private final long rowsPurged;
+    private final Instant lastRunAt;
+    private final long lastRunMillis;
+    private final long lastRunRows;
+    private final String lastError;
+
+    public PurgeStats(PurgeBacklog backlog, long runs, long usersPurged, long accountsPurged, long portfoliosPurged,
+            long rowsPurged, Instant lastRunAt, long lastRunMillis, long lastRunRows, String lastError) {
+        this.backlog = backlog;
+        LocalDateTime oldest = backlog.getOldestDeletedAt();
+        this.oldestPendingSeconds = oldest == null ? 0
+                : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds());
+        this.runs = runs;
+        this.usersPurged = usersPurged;
+        this.accountsPurged = accountsPurged;
+        this.portfoliosPurged = portfoliosPurged;
+        this.rowsPurged = rowsPurged;
+        this.lastRunAt = lastRunAt;
+        this.lastRunMillis = lastRunMillis;
+        this.lastRunRows = lastRunRows;
+        this.lastError = lastError;
+    }
+
+    /** Utilisateurs, comptes et portefeuilles supprimés pas encore purgés. */
+    public PurgeBacklog getBacklog() {
+        return backlog;
+    }
+
+    /** Ancienneté de la plus vieille suppression en attente (0 si aucune). */
+    public long getOldestPendingSeconds() {
+        return oldestPendingSeconds;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getUsersPurged() {
+        return usersPurged;
+    }
+
+    public long getAccountsPurged() {
+        return accountsPurged;
+    }
+
+    public long getPortfoliosPurged() {
+        return portfoliosPurged;
+    }
+
+    /** Lignes supprimées physiquement, toutes tables confondues. */
+    public long getRowsPurged() {
+        return rowsPurged;
+    }
+
+    public Instant getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public long getLastRunRows() {
+        return lastRunRows;
+    }
+
+    /** Erreur du dernier passage, null s'il a réussi. */
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,203 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.groupm.ewallet.repository.impl.JpaBulkDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaSoftDeleteRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Purge physique des utilisateurs, comptes et portefeuilles supprimés
+ * logiquement (voir {@link org.groupm.ewallet.model.SoftDeletes}).
+ *
+ * Chaque passage supprime au plus {@link #ROWS_PER_RUN} lignes, par lots de
+ * {@link #CHUNK_SIZE} dans des transactions courtes, avec une pause de
+ * {@link #PAUSE_MILLIS} ms entre deux lots pleins : les virements concurrents
+ * ne restent jamais longtemps bloqués. Le passage suivant reprend où le
+ * précédent s'est arrêté. Comptes et portefeuilles sont purgés avant les
+ * utilisateurs, enfants avant parents (clés étrangères).
+ */
+@ApplicationScoped
+public class SoftDeletePurger {
+
+    /** Lignes supprimées par transaction. */
+    public static final int CHUNK_SIZE = 1000;
+
+    /** Lignes supprimées au plus par passage. */
+    public static final long ROWS_PER_RUN = 50_000;
+
+    /** Pause entre deux lots pleins. */
+    public static final long PAUSE_MILLIS = 50;
+
+    /** Identifiants lus par requête dans la file d'attente. */
+    private static final int IDS_PER_QUERY = 100;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JpaBulkDeleteRepository bulkDeletes;
+
+    @Inject
+    private JpaSoftDeleteRepository softDeletes;
+
+    private int chunkSize = CHUNK_SIZE;
+    private long rowsPerRun = ROWS_PER_RUN;
+    private long pauseMillis = PAUSE_MILLIS;
+
+    /** Un seul passage à la fois : un appel concurrent rend la main sans rien faire. */
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder usersPurged = new LongAdder();
+    private final LongAdder accountsPurged = new LongAdder();
+    private final LongAdder portfoliosPurged = new LongAdder();
+    private final LongAdder rowsPurged = new LongAdder();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong lastRunRows = new AtomicLong();
+    private volatile Instant lastRunAt;
+    private volatile String lastError;
+
+    /**
+     * Un passage de purge, dans la limite de {@link #ROWS_PER_RUN} lignes.
+     *
+     * @return nombre de lignes supprimées (transactions, achats/ventes,
+     *         actifs, comptes, portefeuilles et utilisateurs)
+     */
+    public long purge() {
+        if (!running.tryLock()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Budget budget = new Budget(rowsPerRun);
+        try {
+            if (purgeAccounts(budget) && purgePortfolios(budget)) {
+                purgeUsers(budget);
+            }
+            lastError = null;
+            return budget.deleted;
+        } catch (RuntimeException e) {
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            runs.increment();
+            rowsPurged.add(budget.deleted);
+            lastRunRows.set(budget.deleted);
+            lastRunMillis.set((System.nanoTime() - started) / 1_000_000);
+            lastRunAt = Instant.now();
+            running.unlock();
+        }
+    }
+
+    /** File d'attente en base et compteurs depuis le démarrage. */
+    public PurgeStats stats() {
+        return new PurgeStats(softDeletes.countBacklog(), runs.sum(), usersPurged.sum(), accountsPurged.sum(),
+                portfoliosPurged.sum(), rowsPurged.sum(), lastRunAt, lastRunMillis.get(), lastRunRows.get(),
+                lastError);
+    }
+
+    /** @return false si le budget du passage est épuisé */
+    private boolean purgeAccounts(Budget budget) {
+        List<String> ids;
+        do {
+            ids = softDeletes.findDeletedAccountIds(IDS_PER_QUERY);
+            for (String accountId : ids) {
+                if (!drain(budget, () -> bulkDeletes.deleteTransactionsOfAccountChunk(accountId, chunkSize))) {
+                    return false;
+                }
+                budget.spend(inTransaction(() -> bulkDeletes.deleteAccount(accountId)));
+                accountsPurged.increment();
+            }
+        } while (ids.size() == IDS_PER_QUERY);
+        return true;
+    }
+
+    private boolean purgePortfolios(Budget budget) {
+        List<Integer> ids;
+        do {
+            ids = softDeletes.findDeletedPortfolioIds(IDS_PER_QUERY);
+            for (int portfolioId : ids) {
+                if (!drain(budget, () -> bulkDeletes.deletePortfolioTransactionsOfPortfolioChunk(portfolioId,
+                        chunkSize))
+                        || !drain(budget, () -> bulkDeletes.deleteAssetsOfPortfolioChunk(portfolioId, chunkSize))) {
+                    return false;
+                }
+                budget.spend(inTransaction(() -> bulkDeletes.deletePortfolio(portfolioId)));
+                portfoliosPurged.increment();
+            }
+        } while (ids.size() == IDS_PER_QUERY);
+        return true;
+    }
+
+    private void purgeUsers(Budget budget) {
+        List<String> ids;
+        do {
+            ids = softDeletes.findPurgeableUserIds(IDS_PER_QUERY);
+            for (String userId : ids) {
+                if (budget.exhausted()) {
+                    return;
+                }
+                budget.spend(inTransaction(() -> bulkDeletes.deleteUser(userId)));
+                usersPurged.increment();
+            }
+        } while (ids.size() == IDS_PER_QUERY);
+    }
+
+    /**
+     * Répète un lot jusqu'à ce qu'il supprime moins de chunkSize lignes.
+     *
+     * @return false si le budget est épuisé avant la fin
+     */
+    private boolean drain(Budget budget, IntSupplier chunk) {
+        return !budget.exhausted()
+                && ChunkedDeletes.drain(em, chunkSize, chunk, budget::spend, () -> pauseIfBudgetLeft(budget));
+    }
+
+    /** @return false si le budget est épuisé (ou le serveur en cours d'arrêt) */
+    private boolean pauseIfBudgetLeft(Budget budget) {
+        if (budget.exhausted()) {
+            return false;
+        }
+        if (pauseMillis > 0) {
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                budget.remaining = 0; // Arrêt du serveur : on reprendra au prochain passage
+            }
+        }
+        return !budget.exhausted();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return ChunkedDeletes.inTransaction(em, work);
+    }
+
+    /** Lignes restant à supprimer dans le passage en cours. */
+    private static final class Budget {
+
+        private long remaining;
+        private long deleted;
+
+        private Budget(long rows) {
+            this.remaining = rows;
+        }
+
+        private void spend(int rows) {
+            remaining -= rows;
+            deleted += rows;
+        }
+
+        private boolean exhausted() {
+            return remaining <= 0;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.groupm.ewallet.service.business;
+
+import java.util.List;
+
+/**
+ * Résultat d'un lot de virements : un résultat par virement, dans l'ordre de
+ * la requête.
+ */
+public class TransferBatchResult {
+
+    public enum Status {
+        /** Virement enregistré. */
+        COMPLETED,
+        /** Virement refusé (compte introuvable, solde insuffisant, ...). */
+        REJECTED,
+        /** Virement valide, non exécuté car un autre virement du lot tout-ou-rien a été refusé. */
+        SKIPPED
+    }
+
+    private final boolean atomic;
+    private final List<Outcome> results;
+    private final int completed;
+    private final int rejected;
+
+    public TransferBatchResult(boolean atomic, List<Outcome> results) {
+        this.atomic = atomic;
+        this.results = results;
+        this.completed = (int) results.stream().filter(r -> r.getStatus() == Status.COMPLETED).count();
+        this.rejected = (int) results.stream().filter(r -> r.getStatus() == Status.REJECTED).count();
+    }
+
+    /** Vrai si le lot a été traité en tout-ou-rien. */
+    public boolean isAtomic() {
+        return atomic;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<Outcome> getResults() {
+        return results;
+    }
+
+    /**
+     * Résultat d'un virement du lot.
+     */
+    public static class Outcome {
+
+        private final int index;
+        private final Status status;
+        private final String withdrawalID;
+        private final String depositID;
+        private final String error;
+
+        private Outcome(int index, Status status, String withdrawalID, String depositID, String error) {
+            this.index = index;
+            this.status = status;
+            this.withdrawalID = withdrawalID;
+            this.depositID = depositID;
+            this.error = error;
+        }
+
+        static Outcome completed(int index, String withdrawalID, String depositID) {
+            return new Outcome(index, Status.COMPLETED, withdrawalID, depositID, null);
+        }
+
+        static Outcome rejected(int index, String error) {
+            return new Outcome(index, Status.REJECTED, null, null, error);
+        }
+
+        static Outcome skipped(int index) {
+            return new Outcome(index, Status.SKIPPED, null, null, null);
+        }
+
+        /** Position du virement dans la requête (à partir de 0). */
+        public int getIndex() {
+            return index;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getWithdrawalID() {
+            return withdrawalID;
+        }
+
+        public String getDepositID() {
+            return depositID;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.groupm.ewallet.service.business;
+
+import java.math.BigDecimal;
+
+/**
+ * Un virement d'un lot (voir {@link AccountManager#transferBatch}).
+ */
+public class TransferOrder {
+
+    private final String fromAccountID;
+    private final String toAccountID;
+    private final BigDecimal amount;
+    private final String description;
+
+    public TransferOrder(String fromAccountID, String toAccountID, BigDecimal amount, String description) {
+        this.fromAccountID = fromAccountID;
+        this.toAccountID = toAccountID;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public String getFromAccountID() {
+        return fromAccountID;
+    }
+
+    public String getToAccountID() {
+        return toAccountID;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -2,13 +2,19 @@ package org.groupm.ewallet.service.business;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.groupm.ewallet.model.*;
+import org.groupm.ewallet.repository.impl.JpaAssetRepository;
 import org.groupm.ewallet.repository.impl.JpaUserRepository;
 import org.groupm.ewallet.repository.impl.JpaPortfolioRepository;
+import org.groupm.ewallet.repository.impl.JpaSoftDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaWealthTrackerRepository;
+import org.groupm.ewallet.repository.projection.AssetPosition;
+import org.groupm.ewallet.repository.projection.WealthTotals;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Service métier de gestion des utilisateurs et de leurs portefeuilles
@@ -27,6 +33,21 @@ public class UserManager {
     @Inject
     private JpaPortfolioRepository portfolioRepository;
 
+    @Inject
+    private JpaAssetRepository assetRepository;
+
+    @Inject
+    private JpaWealthTrackerRepository wealthTrackerRepository;
+
+    @Inject
+    private WealthSnapshotManager wealthSnapshots;
+
+    @Inject
+    private JpaSoftDeleteRepository softDeletes;
+
+    @Inject
+    private EntityManager em;
+
     // =====================================================================
     // USERS
     // =====================================================================
@@ -40,10 +61,10 @@ public class UserManager {
     public User registerUser(User user) {
 
         if (user.getUserID() == null || user.getUserID().isBlank()) {
-            user.setUserID(UUID.randomUUID().toString());
+            user.setUserID(TimeOrderedId.next());
         }
 
-        userRepository.save(user);
+        userRepository.insert(user);
         return user;
     }
 
@@ -64,18 +85,36 @@ public class UserManager {
         return userRepository.findAll();
     }
 
+    /**
+     * Page d'utilisateurs triée par identifiant.
+     *
+     * @param afterUserId dernier identifiant de la page précédente, ou null
+     */
+    public List<User> getUsersPage(String afterUserId, int limit) {
+        return userRepository.findPage(afterUserId, limit);
+    }
+
     public User getUserById(String userId) {
         return userRepository.findById(userId);
     }
 
+    /**
+     * Utilisateur avec comptes, transactions, portefeuilles et actifs chargés
+     * par plans de chargement (nombre de requêtes fixe), pour la sérialisation.
+     */
+    public User getUserWithDetails(String userId) {
+        return userRepository.findByIdWithDetails(userId);
+    }
+
+    /**
+     * Supprime logiquement un utilisateur, ses comptes et ses portefeuilles (une
+     * mise à jour par table) et retire son snapshot de richesse. Ses données
+     * sont purgées plus tard par {@link SoftDeletePurger} ; d'ici là, son email
+     * reste réservé.
+     */
     @Transactional
     public boolean deleteUser(String userId) {
-        User user = userRepository.findById(userId);
-        if (user != null) {
-            userRepository.delete(userId);
-            return true;
-        }
-        return false;
+        return softDeletes.markUserDeleted(userId, LocalDateTime.now()) > 0;
     }
 
     @Transactional
@@ -90,7 +129,7 @@ public class UserManager {
                 user.setEmail(newUser.getEmail());
             if (newUser.getPassword() != null)
                 user.setPassword(newUser.getPassword());
-            userRepository.save(user);
+            userRepository.update(user);
             return true;
         }
         return false;
@@ -114,6 +153,8 @@ public class UserManager {
         if (portfolio.getId() != 0) {
             Portfolio existing = portfolioRepository.findById(portfolio.getId());
             if (existing != null) {
+                // Delta des actifs appliqué avant la sauvegarde (lecture de l'état en base)
+                wealthSnapshots.applyPortfolioChange(portfolio);
                 portfolioRepository.save(portfolio);
                 return portfolio;
             }
@@ -129,8 +170,9 @@ public class UserManager {
         if (user != null) {
             portfolio.setUser(user);
             user.addPortfolio(portfolio);
+            wealthSnapshots.applyPortfolioChange(portfolio);
             portfolioRepository.save(portfolio);
-            userRepository.save(user);
+            userRepository.update(user);
         } else {
             // User doesn't exist, but we still save portfolio with userID for backward
             // compat
@@ -147,6 +189,19 @@ public class UserManager {
         return portfolioRepository.findById(id);
     }
 
+    /**
+     * Positions d'un portefeuille en projection (aucune entité chargée).
+     *
+     * @return les positions, ou null si le portefeuille n'existe pas
+     */
+    public List<AssetPosition> getAssetPositions(int portfolioId) {
+        List<AssetPosition> positions = assetRepository.findPositionsByPortfolioId(portfolioId);
+        if (positions.isEmpty() && portfolioRepository.findById(portfolioId) == null) {
+            return null;
+        }
+        return positions;
+    }
+
     /**
      * Récupère tous les portefeuilles.
      */
@@ -154,14 +209,31 @@ public class UserManager {
         return portfolioRepository.findAll();
     }
 
+    /**
+     * Page de portefeuilles triée par identifiant.
+     *
+     * @param afterId dernier identifiant de la page précédente, ou null
+     */
+    public List<Portfolio> getPortfoliosPage(Integer afterId, int limit) {
+        return portfolioRepository.findPage(afterId, limit);
+    }
+
+    /**
+     * Supprime logiquement un portefeuille et retire sa valeur du snapshot de
+     * richesse ; ses actifs et achats/ventes sont purgés plus tard par
+     * {@link SoftDeletePurger}.
+     */
     @Transactional
     public boolean deletePortfolio(int id) {
         Portfolio portfolio = portfolioRepository.findById(id);
-        if (portfolio != null) {
-            portfolioRepository.delete(id);
-            return true;
+        if (portfolio == null) {
+            return false;
         }
-        return false;
+        softDeletes.markPortfolioDeleted(id, LocalDateTime.now());
+        // Les actifs sont encore en base : leur valeur est retirée du snapshot
+        wealthSnapshots.applyPortfolioRemoval(portfolio);
+        em.detach(portfolio);
+        return true;
     }
 
     // =====================================================================
@@ -172,22 +244,19 @@ public class UserManager {
      * Calcule la richesse totale d'un utilisateur en prenant en compte :
      * tous ses comptes bancaires
      * ainsi que la valeur totale de tous ses portefeuilles.
+     * Les totaux sont agrégés en base en une seule requête, quel que soit le
+     * nombre de portefeuilles et d'actifs.
      */
     @Transactional
     public WealthTracker calculateWealthForUser(String userId) {
 
-        User user = userRepository.findById(userId);
-        if (user == null) {
+        WealthTotals totals = wealthTrackerRepository.aggregateByUserId(userId);
+        if (totals == null) {
             return null;
         }
 
-        List<Portfolio> portfolios = portfolioRepository.findAllByUserId(userId);
-        for (Portfolio p : portfolios) {
-            p.recalculateTotalValue();
-        }
-
-        WealthTracker tracker = new WealthTracker(user);
-        tracker.updateWealth();
+        WealthTracker tracker = new WealthTracker(userRepository.getReference(userId));
+        tracker.updateWealth(totals.getCash(), totals.getCrypto(), totals.getStocks());
         return tracker;
     }
 }
\ No newline at end of file
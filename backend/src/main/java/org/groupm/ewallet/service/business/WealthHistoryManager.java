@@ -0,0 +1,139 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.groupm.ewallet.model.WealthPoint;
+import org.groupm.ewallet.model.WealthPoint.Resolution;
+import org.groupm.ewallet.repository.impl.JpaWealthHistoryRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service métier de la série temporelle de richesse.
+ *
+ * Rétention : points RAW sur 2 jours, buckets horaires sur 30 jours,
+ * journaliers sur 2 ans, mensuels sans limite. Les buckets sont alimentés à
+ * l'écriture, la purge des résolutions fines suffit donc au sous-échantillonnage.
+ */
+@ApplicationScoped
+public class WealthHistoryManager {
+
+    private static final Duration RAW_RETENTION = Duration.ofDays(2);
+    private static final Duration HOURLY_RETENTION = Duration.ofDays(30);
+    private static final Duration DAILY_RETENTION = Duration.ofDays(730);
+
+    /** Points expirés supprimés par transaction. */
+    static final int PURGE_CHUNK = 1000;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    private JpaWealthHistoryRepository historyRepository;
+
+    /**
+     * Enregistre la richesse courante d'un utilisateur (appelé dans la
+     * transaction qui a modifié son snapshot).
+     */
+    public void record(String userId, BigDecimal totalUsd) {
+        historyRepository.record(userId, totalUsd, LocalDateTime.now());
+    }
+
+    /**
+     * Points de la série sur [from, to].
+     *
+     * @param resolution résolution souhaitée, ou null pour la plus fine encore
+     *                   conservée à la date de début
+     */
+    public List<WealthPoint> getHistory(String userId, LocalDateTime from, LocalDateTime to, Resolution resolution) {
+        Resolution effective = resolution != null ? resolution : finestRetained(from);
+        return historyRepository.findRange(userId, effective, from, to);
+    }
+
+    /**
+     * Taux de croissance (%) depuis la première mesure, lue comme valeur
+     * d'ouverture du premier bucket mensuel.
+     */
+    public BigDecimal growthRate(String userId, BigDecimal currentUsd) {
+        WealthPoint first = historyRepository.findFirst(userId, Resolution.MONTHLY);
+        return growth(first != null ? first.getOpenUsd() : null, currentUsd);
+    }
+
+    /**
+     * Taux de croissance (%) depuis une date, lu sur le bucket journalier (ou
+     * mensuel au-delà de la rétention) contenant cette date.
+     */
+    public BigDecimal growthRateSince(String userId, LocalDateTime since, BigDecimal currentUsd) {
+        WealthPoint base = historyRepository.findLatestAtOrBefore(userId, Resolution.DAILY, since);
+        if (base == null) {
+            base = historyRepository.findLatestAtOrBefore(userId, Resolution.MONTHLY, since);
+        }
+        return growth(base != null ? base.getValueUsd() : null, currentUsd);
+    }
+
+    /**
+     * Purge des points au-delà de leur fenêtre de rétention, par lots de
+     * {@value #PURGE_CHUNK} lignes, une transaction courte chacun.
+     *
+     * @return nombre de points supprimés par résolution
+     */
+    public Map<String, Integer> purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> purged = new LinkedHashMap<>();
+        purged.put(Resolution.RAW.name(), purge(Resolution.RAW, now.minus(RAW_RETENTION)));
+        purged.put(Resolution.HOURLY.name(), purge(Resolution.HOURLY, now.minus(HOURLY_RETENTION)));
+        purged.put(Resolution.DAILY.name(), purge(Resolution.DAILY, now.minus(DAILY_RETENTION)));
+        return purged;
+    }
+
+    private int purge(Resolution resolution, LocalDateTime cutoff) {
+        int total = 0;
+        int deleted;
+        do {
+            EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            try {
+                deleted = historyRepository.deleteOlderThan(resolution, cutoff, PURGE_CHUNK);
+                tx.commit();
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            }
+            total += deleted;
+        } while (deleted == PURGE_CHUNK);
+        return total;
+    }
+
+    private static Resolution finestRetained(LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!from.isBefore(now.minus(RAW_RETENTION))) {
+            return Resolution.RAW;
+        }
+        if (!from.isBefore(now.minus(HOURLY_RETENTION))) {
+            return Resolution.HOURLY;
+        }
+        if (!from.isBefore(now.minus(DAILY_RETENTION))) {
+            return Resolution.DAILY;
+        }
+        return Resolution.MONTHLY;
+    }
+
+    private static BigDecimal growth(BigDecimal initial, BigDecimal currentUsd) {
+        if (initial == null || initial.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return currentUsd.subtract(initial)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(initial, 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,283 @@
+package org.groupm.ewallet.service.business;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.model.WealthTracker;
+import org.groupm.ewallet.repository.impl.JpaWealthTrackerRepository;
+import org.groupm.ewallet.repository.projection.WealthTotals;
+import org.groupm.ewallet.service.CurrencyConverter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service métier de maintenance des snapshots de richesse (table
+ * wealth_trackers).
+ *
+ * Chaque modification de solde ou d'actif applique un delta au snapshot de
+ * l'utilisateur, dans la même transaction que la modification elle-même. La
+ * lecture de la richesse devient ainsi la lecture d'une seule ligne.
+ * Un contrôle de cohérence compare les snapshots à un recalcul complet.
+ *
+ * Le premier snapshot d'un utilisateur est créé dans sa propre transaction, à
+ * partir de l'état validé en base, puis chaque opération y applique son delta :
+ * deux premières écritures concurrentes ne se disputent plus l'insertion dans
+ * la transaction métier, et un échec de création n'annule pas l'opération.
+ */
+@ApplicationScoped
+public class WealthSnapshotManager {
+
+    /** Écart toléré (USD) entre snapshot et recalcul, dû aux arrondis. */
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+
+    private static final Logger LOGGER = Logger.getLogger(WealthSnapshotManager.class.getName());
+
+    @Inject
+    private EntityManagerFactory emf;
+
+    @Inject
+    private JpaWealthTrackerRepository wealthTrackerRepository;
+
+    @Inject
+    private WealthHistoryManager wealthHistory;
+
+    // =====================================================================
+    // LECTURE
+    // =====================================================================
+
+    /**
+     * Retourne le snapshot de richesse d'un utilisateur.
+     * Le snapshot est initialisé par un recalcul complet s'il n'existe pas encore
+     * (sans point d'historique : une lecture n'écrit rien d'autre).
+     * Le taux de croissance est lu sur la série temporelle.
+     *
+     * @return le snapshot, ou null si l'utilisateur n'existe pas
+     */
+    public WealthTracker getSnapshot(String userId) {
+        WealthTracker tracker = wealthTrackerRepository.findByUserId(userId);
+        if (tracker == null) {
+            tracker = createSnapshot(userId);
+        }
+        if (tracker != null) {
+            tracker.setGrowthRate(wealthHistory.growthRate(userId, tracker.getTotalWealthUsdAsBigDecimal()));
+        }
+        return tracker;
+    }
+
+    // =====================================================================
+    // DELTAS (appelés dans la transaction de l'opération métier)
+    // =====================================================================
+
+    /**
+     * Applique des variations de cash (CHF) à plusieurs utilisateurs.
+     * Les lignes sont mises à jour dans l'ordre des identifiants pour éviter
+     * les interblocages entre virements croisés.
+     *
+     * @param cashDeltasChf variation de cash par identifiant d'utilisateur
+     */
+    public void applyCashDeltas(Map<String, BigDecimal> cashDeltasChf) {
+        cashDeltasChf.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> applyDelta(e.getKey(), e.getValue(), BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    /**
+     * Applique une variation de cash (CHF) au snapshot d'un utilisateur.
+     */
+    public void applyCashDelta(String userId, BigDecimal deltaChf) {
+        applyDelta(userId, deltaChf, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * Applique au snapshot la différence entre les actifs du portefeuille en
+     * mémoire (après modification) et ceux encore stockés en base.
+     * Doit être appelé avant la sauvegarde du portefeuille.
+     */
+    public void applyPortfolioChange(Portfolio portfolio) {
+        if (portfolio == null || portfolio.getUserID() == null) {
+            return;
+        }
+        WealthTotals stored = portfolio.getId() != 0
+                ? wealthTrackerRepository.aggregateStoredPortfolio(portfolio.getId())
+                : new WealthTotals(null, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        BigDecimal crypto = BigDecimal.ZERO;
+        BigDecimal stocks = BigDecimal.ZERO;
+        for (Asset asset : portfolio.getAssets()) {
+            if (isCrypto(asset.getType())) {
+                crypto = crypto.add(asset.getTotalValueAsBigDecimal());
+            } else {
+                stocks = stocks.add(asset.getTotalValueAsBigDecimal());
+            }
+        }
+
+        applyDelta(portfolio.getUserID(), BigDecimal.ZERO,
+                crypto.subtract(stored.getCrypto()), stocks.subtract(stored.getStocks()));
+    }
+
+    /**
+     * Retire du snapshot la valeur stockée d'un portefeuille sur le point
+     * d'être supprimé.
+     */
+    public void applyPortfolioRemoval(Portfolio portfolio) {
+        if (portfolio == null || portfolio.getUserID() == null) {
+            return;
+        }
+        WealthTotals stored = wealthTrackerRepository.aggregateStoredPortfolio(portfolio.getId());
+        applyDelta(portfolio.getUserID(), BigDecimal.ZERO, stored.getCrypto().negate(), stored.getStocks().negate());
+    }
+
+    private void applyDelta(String userId, BigDecimal cashChf, BigDecimal cryptoChf, BigDecimal stocksChf) {
+        if (userId == null || (cashChf.signum() == 0 && cryptoChf.signum() == 0 && stocksChf.signum() == 0)) {
+            return;
+        }
+        // Lecture sans verrou : un UPDATE sans ligne poserait sur
+        // uk_wealth_trackers_user_id un verrou de plage qui bloquerait la
+        // création du snapshot par une autre connexion.
+        if (wealthTrackerRepository.findTotalByUserId(userId) == null) {
+            // Créé sans la modification en cours, appliquée ci-dessous
+            createSnapshot(userId);
+        }
+        int updated = wealthTrackerRepository.applyDelta(userId,
+                CurrencyConverter.chfToUsd(cashChf),
+                CurrencyConverter.chfToUsd(cryptoChf),
+                CurrencyConverter.chfToUsd(stocksChf));
+
+        // Création impossible : le snapshot sera initialisé à la prochaine lecture
+        if (updated > 0) {
+            wealthHistory.record(userId, wealthTrackerRepository.findTotalByUserId(userId));
+        }
+    }
+
+    // =====================================================================
+    // COHÉRENCE
+    // =====================================================================
+
+    /**
+     * Compare chaque snapshot à un recalcul complet.
+     *
+     * @param repair si true, les snapshots divergents sont recalculés
+     * @return la liste des écarts détectés
+     */
+    @Transactional
+    public List<Mismatch> checkConsistency(boolean repair) {
+        List<Mismatch> mismatches = new ArrayList<>();
+
+        for (WealthTracker tracker : wealthTrackerRepository.findAll()) {
+            String userId = tracker.getUserID();
+            WealthTotals totals = wealthTrackerRepository.aggregateByUserId(userId);
+            if (totals == null) {
+                continue;
+            }
+
+            BigDecimal expectedCash = CurrencyConverter.chfToUsd(totals.getCash());
+            BigDecimal expectedCrypto = CurrencyConverter.chfToUsd(totals.getCrypto());
+            BigDecimal expectedStocks = CurrencyConverter.chfToUsd(totals.getStocks());
+
+            if (differs(tracker.getTotalCashAsBigDecimal(), expectedCash)
+                    || differs(tracker.getTotalCryptoAsBigDecimal(), expectedCrypto)
+                    || differs(tracker.getTotalStocksAsBigDecimal(), expectedStocks)) {
+
+                mismatches.add(new Mismatch(userId, tracker.getTotalWealthUsdAsBigDecimal(),
+                        expectedCash.add(expectedCrypto).add(expectedStocks)));
+
+                if (repair) {
+                    tracker.updateWealth(totals.getCash(), totals.getCrypto(), totals.getStocks());
+                    wealthTrackerRepository.update(tracker);
+                    wealthHistory.record(userId, tracker.getTotalWealthUsdAsBigDecimal());
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    // =====================================================================
+    // HELPERS
+    // =====================================================================
+
+    /**
+     * Crée le snapshot d'un utilisateur dans une transaction séparée, à partir
+     * de l'état validé en base : les modifications non validées de l'appelant
+     * n'y figurent pas et lui sont appliquées ensuite par delta.
+     * Si un autre appel l'a créé entre-temps (violation de
+     * uk_wealth_trackers_user_id), c'est ce snapshot qui est conservé. Un échec
+     * est journalisé et n'interrompt jamais la transaction de l'appelant.
+     *
+     * @return le snapshot, ou null si l'utilisateur n'existe pas ou si la
+     *         création a échoué
+     */
+    private WealthTracker createSnapshot(String userId) {
+        EntityManager own = null;
+        try {
+            own = emf.createEntityManager();
+            JpaWealthTrackerRepository trackers = new JpaWealthTrackerRepository(own);
+            own.getTransaction().begin();
+            WealthTotals totals = trackers.aggregateByUserId(userId);
+            if (totals == null) {
+                own.getTransaction().rollback();
+                return null;
+            }
+            WealthTracker tracker = new WealthTracker(own.getReference(User.class, userId));
+            tracker.updateWealth(totals.getCash(), totals.getCrypto(), totals.getStocks());
+            trackers.insert(tracker);
+            own.getTransaction().commit();
+            return tracker;
+
+        } catch (RuntimeException e) {
+            if (own != null && own.getTransaction().isActive()) {
+                own.getTransaction().rollback();
+            }
+            LOGGER.log(Level.WARNING, "Wealth snapshot for " + userId + " not created here", e);
+            return wealthTrackerRepository.findByUserId(userId);
+        } finally {
+            if (own != null) {
+                own.close();
+            }
+        }
+    }
+
+    private static boolean isCrypto(String type) {
+        return "CRYPTO".equalsIgnoreCase(type);
+    }
+
+    private static boolean differs(BigDecimal actual, BigDecimal expected) {
+        return actual.subtract(expected).abs().compareTo(TOLERANCE) > 0;
+    }
+
+    /**
+     * Écart entre un snapshot et le recalcul complet.
+     */
+    public static class Mismatch {
+        private final String userID;
+        private final BigDecimal snapshotTotalUsd;
+        private final BigDecimal expectedTotalUsd;
+
+        public Mismatch(String userID, BigDecimal snapshotTotalUsd, BigDecimal expectedTotalUsd) {
+            this.userID = userID;
+            this.snapshotTotalUsd = snapshotTotalUsd;
+            this.expectedTotalUsd = expectedTotalUsd;
+        }
+
+        public String getUserID() {
+            return userID;
+        }
+
+        public BigDecimal getSnapshotTotalUsd() {
+            return snapshotTotalUsd;
+        }
+
+        public BigDecimal getExpectedTotalUsd() {
+            return expectedTotalUsd;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaAccountDailyBalanceRepository;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.projection.BalancePoint;
+import org.groupm.ewallet.service.business.BalanceHistoryManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Soldes journaliers : un compte antérieur à leur mise en place est
+ * reconstitué une fois, même si un mouvement récent a déjà enregistré le
+ * solde du jour.
+ */
+public class BalanceHistoryTest {
+
+    private static EntityManagerFactory emf;
+
+    private EntityManager em;
+    private BalanceHistoryManager balanceHistory;
+    private JpaAccountDailyBalanceRepository balances;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU",
+                Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:balance-history;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void wire() throws Exception {
+        em = emf.createEntityManager();
+        balances = inject(new JpaAccountDailyBalanceRepository(), "em", em);
+        balanceHistory = new BalanceHistoryManager();
+        inject(balanceHistory, "balanceRepository", balances);
+        inject(balanceHistory, "accountRepository", inject(new JpaAccountRepository(), "em", em));
+        inject(balanceHistory, "transactionRepository", inject(new JpaTransactionRepository(), "em", em));
+    }
+
+    @AfterEach
+    void close() {
+        em.close();
+    }
+
+    @Test
+    void accountWrittenAfterDeployIsStillBackfilled() {
+        LocalDate today = LocalDate.now();
+        // Compte existant : +100 il y a 10 jours, +50 il y a 5 jours, aucun solde journalier
+        inTransaction(() -> {
+            em.persist(new User("H1", "h1@mail.com", "pw", "Alice", "Demo"));
+            Account account = new Account("H1-A", "H1", "courant", 0.0);
+            account.setBalance(new BigDecimal("150"));
+            account.addTransaction(transaction("deposit", "100", today.minusDays(10)));
+            account.addTransaction(transaction("deposit", "50", today.minusDays(5)));
+            em.persist(account);
+        });
+        em.clear();
+
+        // Premier mouvement après la mise en place : solde du jour seulement
+        inTransaction(() -> balanceHistory.recordBalance(em.find(Account.class, "H1-A")));
+
+        List<BalancePoint> series = inTransaction(
+                () -> balanceHistory.getAccountHistory("H1-A", today.minusDays(12), today));
+        assertBalance("0", series.get(0));
+        assertBalance("100", series.get(3));
+        assertBalance("150", series.get(7));
+        assertBalance("150", series.get(12));
+
+        // Série par utilisateur : le compte n'est pas reconstitué une seconde fois
+        inTransaction(() -> balances.recordClosingBalance("H1-A", "H1", today.minusDays(10), new BigDecimal("999")));
+        em.clear();
+        List<BalancePoint> userSeries = inTransaction(
+                () -> balanceHistory.getUserHistory("H1", today.minusDays(12), today));
+        assertBalance("999", userSeries.get(2));
+    }
+
+    private static Transaction transaction(String type, String amount, LocalDate day) {
+        Transaction tx = new Transaction(TimeOrderedId.next(), type, new BigDecimal(amount), "historique");
+        tx.setTimestamp(day.atTime(12, 0));
+        return tx;
+    }
+
+    private static void assertBalance(String expected, BalancePoint point) {
+        assertEquals(0, new BigDecimal(expected).compareTo(point.getBalance()), point.getDate().toString());
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        em.getTransaction().begin();
+        T result = work.get();
+        em.getTransaction().commit();
+        return result;
+    }
+
+    private void inTransaction(Runnable work) {
+        em.getTransaction().begin();
+        work.run();
+        em.getTransaction().commit();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
@@ -0,0 +1,107 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.IdSequences;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insertion en lots : les identifiants viennent de la table id_sequences,
+ * donc 50 actifs partent en une seule instruction préparée au lieu de 50.
+ */
+public class BatchInsertTest {
+
+    private static final int ASSETS = 50;
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void assetsAreInsertedInOneBatch() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            User user = new User("B1", "b1@mail.com", "pw", "Alice", "Demo");
+            em.persist(user);
+            em.flush();
+
+            stats.clear();
+            Portfolio portfolio = new Portfolio(user.getUserID());
+            portfolio.setUser(user);
+            for (int i = 0; i < ASSETS; i++) {
+                portfolio.addAsset(new Asset("SYM" + i, "stock", 1.0, 10.0, "SYM" + i));
+            }
+            em.persist(portfolio);
+            // Identifiant connu dès le persist, sans INSERT immédiat
+            assertTrue(portfolio.getId() > 0);
+            assertEquals(0, stats.getEntityInsertCount());
+            em.getTransaction().commit();
+
+            assertEquals(ASSETS + 1, stats.getEntityInsertCount());
+            // 1 INSERT portfolio + 1 lot de 50 INSERT assets (l'allocation des blocs
+            // d'identifiants passe par une transaction séparée, non comptée ici)
+            assertEquals(2, stats.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void identifiersAreAllocatedInBlocks() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<PortfolioTransaction> trades = new ArrayList<>();
+            for (int i = 0; i < IdSequences.ALLOCATION_SIZE * 2 + 1; i++) {
+                PortfolioTransaction trade = new PortfolioTransaction(1, "BTC", "Bitcoin", "BUY", 1.0, 10.0);
+                em.persist(trade);
+                trades.add(trade);
+            }
+            em.getTransaction().commit();
+
+            Set<Long> ids = new HashSet<>();
+            long previous = 0;
+            for (PortfolioTransaction trade : trades) {
+                assertTrue(trade.getId() > previous, "ids must increase");
+                previous = trade.getId();
+                ids.add(trade.getId());
+            }
+            assertEquals(trades.size(), ids.size());
+
+            // 101 identifiants = 3 blocs réservés
+            Number reserved = (Number) em.createNativeQuery("SELECT next_val FROM " + IdSequences.TABLE
+                    + " WHERE sequence_name = 'portfolio_transactions'").getSingleResult();
+            assertTrue(reserved.longValue() >= previous);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaBulkDeleteRepository;
+import org.groupm.ewallet.service.business.BulkDeleteManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Remise à zéro : tables vidées par lots dans l'ordre des clés étrangères
+ * (vérifiées par H2), sans charger d'entité.
+ */
+public class BulkDeleteTest {
+
+    private static EntityManagerFactory emf;
+
+    private EntityManager em;
+    private BulkDeleteManager bulkDeletes;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void wire() throws Exception {
+        em = emf.createEntityManager();
+        bulkDeletes = new BulkDeleteManager();
+        inject(bulkDeletes, "em", em);
+        inject(bulkDeletes, "bulkDeletes", inject(new JpaBulkDeleteRepository(), "em", em));
+        bulkDeletes.clearAll();
+    }
+
+    @AfterEach
+    void close() {
+        em.close();
+    }
+
+    @Test
+    void clearAllEmptiesTablesChildFirst() throws Exception {
+        persistUser("U4", "U4-A", 11);
+        persistUser("U5", "U5-A", 4);
+
+        inject(bulkDeletes, "chunkSize", 3);
+        Map<String, Long> deleted = bulkDeletes.clearAll();
+
+        assertEquals(15L, deleted.get("transactions"));
+        assertEquals(2L, deleted.get("accounts"));
+        assertEquals(2L, deleted.get("users"));
+        assertEquals(0L, count("Transaction") + count("Account") + count("User"));
+    }
+
+    @Test
+    void callerTransactionIsJoined() {
+        persistUser("U6", "U6-A", 4);
+
+        em.getTransaction().begin();
+        assertEquals(4L, bulkDeletes.clearAll().get("transactions"));
+        em.getTransaction().rollback();
+
+        assertEquals(4L, em.createQuery("SELECT COUNT(t) FROM Transaction t WHERE t.account.accountID = 'U6-A'",
+                Long.class).getSingleResult());
+    }
+
+    private void persistUser(String userId, String accountId, int transactions) {
+        em.getTransaction().begin();
+        em.persist(new User(userId, userId.toLowerCase() + "@mail.com", "pw", "Alice", "Demo"));
+        em.getTransaction().commit();
+        persistAccount(userId, accountId, transactions);
+    }
+
+    private void persistAccount(String userId, String accountId, int transactions) {
+        em.getTransaction().begin();
+        Account account = new Account(accountId, userId, "courant", 0.0);
+        for (int i = 0; i < transactions; i++) {
+            account.addTransaction(new Transaction(TimeOrderedId.next(), "deposit", 1.0, "test"));
+        }
+        em.persist(account);
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    private long count(String entity) {
+        return em.createQuery("SELECT COUNT(e) FROM " + entity + " e", Long.class).getSingleResult();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
@@ -0,0 +1,82 @@
+package org.groupm.ewallet;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.config.ConnectionPool;
+import org.groupm.ewallet.config.ConnectionPoolStats;
+import org.groupm.ewallet.config.PoolMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool de connexions : statistiques exposées par l'endpoint d'administration
+ * et branchement sur l'EntityManagerFactory.
+ */
+public class ConnectionPoolTest {
+
+    private static final Map<String, String> ENV = Map.of(
+            "EWALLET_DB_URL", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1",
+            "EWALLET_DB_USER", "sa",
+            "EWALLET_DB_PASSWORD", "",
+            "EWALLET_DB_POOL_MIN_IDLE", "1",
+            "EWALLET_DB_POOL_MAX_SIZE", "2",
+            "EWALLET_DB_POOL_ACQUIRE_TIMEOUT_MS", "250",
+            "EWALLET_DB_POOL_LEAK_DETECTION_MS", "0");
+
+    @Test
+    void statsTrackBorrowedConnectionsAndTimeouts() throws SQLException {
+        PoolMetrics metrics = new PoolMetrics();
+        try (HikariDataSource pool = ConnectionPool.create(ENV, metrics)) {
+            try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+                ConnectionPoolStats busy = ConnectionPoolStats.of(pool, metrics);
+                assertEquals(2, busy.getActive());
+                assertEquals(0, busy.getIdle());
+                assertEquals(2, busy.getMaxSize());
+
+                // Pool épuisé : l'appel suivant échoue après le délai d'acquisition
+                assertThrows(SQLException.class, pool::getConnection);
+            }
+
+            ConnectionPoolStats released = ConnectionPoolStats.of(pool, metrics);
+            assertEquals(0, released.getActive());
+            assertEquals(2, released.getIdle());
+            // Les tentatives expirées comptent aussi comme acquisitions
+            assertEquals(3, released.getAcquisitions());
+            assertEquals(1, released.getTimeouts());
+            assertTrue(released.getMaxAcquisitionMicros() >= released.getMeanAcquisitionMicros());
+        }
+    }
+
+    @Test
+    void entityManagerFactoryUsesPool() {
+        PoolMetrics metrics = new PoolMetrics();
+        try (HikariDataSource pool = ConnectionPool.create(ENV, metrics)) {
+            EntityManagerFactory emf = Persistence.createEntityManagerFactory("ewalletPooledTestPU",
+                    Map.of("jakarta.persistence.nonJtaDataSource", pool));
+            assertEquals(2, ConnectionPool.maxSize(emf));
+            long before = metrics.getAcquisitions();
+
+            EntityManager em = emf.createEntityManager();
+            em.createQuery("SELECT COUNT(u) FROM User u").getSingleResult();
+            em.close();
+            emf.close();
+
+            assertTrue(metrics.getAcquisitions() > before);
+        }
+    }
+
+    @Test
+    void invalidSettingIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ConnectionPool.create(Map.of("EWALLET_DB_POOL_MAX_SIZE", "lots"), new PoolMetrics()));
+    }
+}
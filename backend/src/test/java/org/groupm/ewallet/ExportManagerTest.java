@@ -0,0 +1,124 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.service.business.ExportManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Export NDJSON : exécuté avec un petit tas (-Xmx64m, exécution surefire
+ * export-small-heap), la mémoire ne doit pas dépendre du nombre de lignes.
+ */
+public class ExportManagerTest {
+
+    private static final int SEEDED_TRANSACTIONS = 200_000;
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Stream<Transaction> rows = Stream.of(
+                new Transaction("TXN1", "deposit", 10.0, "a"),
+                new Transaction("TXN2", "withdraw", 5.5, "b"));
+
+        long count = ExportManager.writeNdjson(rows, out, 1000, () -> {
+        });
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"transactionID\":\"TXN1\""));
+        assertTrue(lines[1].contains("\"transactionID\":\"TXN2\""));
+    }
+
+    @Test
+    void streamsOneMillionRowsWithoutBuffering() throws Exception {
+        AtomicLong newlines = new AtomicLong();
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    newlines.incrementAndGet();
+                }
+            }
+        };
+        AtomicInteger clears = new AtomicInteger();
+        Stream<Transaction> rows = LongStream.range(0, 1_000_000)
+                .mapToObj(i -> new Transaction("TXN" + i, "deposit", 1.0, null));
+
+        long count = ExportManager.writeNdjson(rows, counting, 1000, clears::incrementAndGet);
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000, newlines.get());
+        assertEquals(1000, clears.get());
+    }
+
+    @Test
+    void exportsSeededTableThroughRepositoryStream() throws Exception {
+        // Base sur disque : les lignes exportées ne tiennent pas dans le tas de test
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("ewalletTestPU", Map.of(
+                "jakarta.persistence.jdbc.url", "jdbc:h2:file:./target/export;MODE=MySQL;CACHE_SIZE=4096"));
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(new User("E1", "e1@mail.com", "pw", "Alice", "Demo"));
+            em.persist(new Account("E1-A", "E1", "courant", 0.0));
+            em.getTransaction().commit();
+            for (int seeded = 0; seeded < SEEDED_TRANSACTIONS; seeded += 10_000) {
+                em.getTransaction().begin();
+                em.createNativeQuery("INSERT INTO transactions (transaction_id, type, amount, timestamp, "
+                        + "description, account_id, version) SELECT CAST(RANDOM_UUID() AS BINARY(16)), 'deposit', "
+                        + "1, CURRENT_TIMESTAMP, 'seed', 'E1-A', 0 FROM SYSTEM_RANGE(1, 10000)").executeUpdate();
+                em.getTransaction().commit();
+            }
+
+            ExportManager exports = new ExportManager();
+            inject(exports, "em", em);
+            inject(exports, "transactionRepository", inject(new JpaTransactionRepository(), "em", em));
+
+            AtomicLong newlines = new AtomicLong();
+            OutputStream counting = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    if (b == '\n') {
+                        newlines.incrementAndGet();
+                    }
+                }
+            };
+            long count = exports.exportTransactions(counting);
+
+            assertEquals(SEEDED_TRANSACTIONS, count);
+            assertEquals(SEEDED_TRANSACTIONS, newlines.get());
+            // Contexte vidé tous les CLEAR_EVERY : il ne garde qu'un lot au plus
+            assertTrue(em.unwrap(Session.class).getStatistics().getEntityCount() <= 1000);
+        } finally {
+            em.close();
+            emf.close();
+        }
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
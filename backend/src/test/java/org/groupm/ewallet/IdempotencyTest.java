@@ -0,0 +1,219 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaIdempotencyRepository;
+import org.groupm.ewallet.service.business.IdempotencyKeyException;
+import org.groupm.ewallet.service.business.IdempotencyManager;
+import org.groupm.ewallet.service.business.IdempotentResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clés d'idempotence : une seule exécution par clé, réponse rejouée depuis la
+ * mémoire puis depuis la table, doublons concurrents en attente de la
+ * première exécution.
+ */
+public class IdempotencyTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    private EntityManager em;
+    private JpaIdempotencyRepository repository;
+    private IdempotencyManager idempotency;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU",
+                Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void wire() throws Exception {
+        em = emf.createEntityManager();
+        repository = inject(new JpaIdempotencyRepository(), "em", em);
+        idempotency = newManager();
+
+        em.getTransaction().begin();
+        em.createNativeQuery("DELETE FROM idempotency_keys").executeUpdate();
+        em.createNativeQuery("DELETE FROM users").executeUpdate();
+        em.getTransaction().commit();
+        executions.set(0);
+    }
+
+    @AfterEach
+    void close() {
+        em.close();
+    }
+
+    @Test
+    void retryReturnsFirstResponseWithoutRunningAgain() throws Exception {
+        String hash = IdempotencyManager.fingerprint("POST /transactions", "I1", "100");
+
+        IdempotentResponse first = idempotency.execute("key-1", hash, createUser("I1", 201));
+        assertFalse(first.isReplayed());
+
+        // Depuis l'index en mémoire : aucune requête SQL
+        stats.clear();
+        IdempotentResponse retry = idempotency.execute("key-1", hash, createUser("I1", 201));
+        assertTrue(retry.isReplayed());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        // Autre serveur (index vide) : rejeu depuis la table
+        em.clear();
+        IdempotentResponse fromTable = newManager().execute("key-1", hash, createUser("I1", 201));
+        assertTrue(fromTable.isReplayed());
+        assertEquals(first.getBody(), fromTable.getBody());
+
+        assertEquals(1, executions.get());
+        assertEquals(1L, count("User"));
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        idempotency.execute("key-2", IdempotencyManager.fingerprint("POST /transactions", "I2", "100"),
+                createUser("I2", 201));
+        String other = IdempotencyManager.fingerprint("POST /transactions", "I2", "999");
+        assertNotEquals(IdempotencyManager.fingerprint("POST /transactions", "I2", "100"), other);
+
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotency.execute("key-2", other, createUser("I2", 201)));
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotency.execute(" ", other, createUser("I2", 201)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedResponseIsRolledBackAndNotRecorded() {
+        String hash = IdempotencyManager.fingerprint("POST /transactions/transfer", "I3");
+
+        IdempotentResponse failed = idempotency.execute("key-3", hash, createUser("I3", 400));
+        assertEquals(400, failed.getStatus());
+        assertEquals(0L, count("User"));
+        assertEquals(0L, count("IdempotencyRecord"));
+
+        // Rien n'a été appliqué : la nouvelle tentative s'exécute
+        IdempotentResponse retry = idempotency.execute("key-3", hash, createUser("I3", 200));
+        assertFalse(retry.isReplayed());
+        assertEquals(2, executions.get());
+        assertEquals(1L, count("User"));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstExecution() throws Exception {
+        String hash = IdempotencyManager.fingerprint("POST /transactions/transfer", "I4");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(
+                () -> idempotency.execute("key-4", hash, () -> {
+                    started.countDown();
+                    await(release);
+                    return createUser("I4", 200).get();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Le doublon ne touche pas à la base : il attend la première exécution
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(
+                () -> idempotency.execute("key-4", hash, createUser("I4", 200)));
+        Thread.sleep(200);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+        IdempotentResponse original = first.get(5, TimeUnit.SECONDS);
+        IdempotentResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+
+        assertFalse(original.isReplayed());
+        assertTrue(replayed.isReplayed());
+        assertEquals(original.getBody(), replayed.getBody());
+        assertEquals(1, executions.get());
+        assertEquals(1L, count("User"));
+    }
+
+    @Test
+    void expiredKeysArePurgedAndCanBeReused() throws Exception {
+        inject(idempotency, "retention", Duration.ofMillis(-1));
+        String hash = IdempotencyManager.fingerprint("POST /transactions", "I5");
+        idempotency.execute("key-5", hash, createUser("I5", 201));
+        em.clear();
+
+        // Expirée en base : réexécutée par un autre serveur
+        IdempotencyManager other = newManager();
+        inject(other, "retention", Duration.ofMillis(-1));
+        assertFalse(other.execute("key-5", hash, () -> response(201)).isReplayed());
+        assertEquals(2, executions.get());
+
+        assertEquals(1, idempotency.purgeExpired());
+        assertEquals(0L, count("IdempotencyRecord"));
+    }
+
+    private IdempotencyManager newManager() throws Exception {
+        IdempotencyManager manager = new IdempotencyManager();
+        inject(manager, "em", em);
+        inject(manager, "repository", repository);
+        return manager;
+    }
+
+    /** Opération de test : crée un utilisateur et répond avec le code donné. */
+    private Supplier<IdempotentResponse> createUser(String userId, int status) {
+        return () -> {
+            em.persist(new User(userId, userId.toLowerCase() + "@mail.com", "pw", "Alice", "Demo"));
+            return response(status);
+        };
+    }
+
+    private IdempotentResponse response(int status) {
+        return new IdempotentResponse(status, "{\"execution\":" + executions.incrementAndGet() + "}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long count(String entity) {
+        return em.createQuery("SELECT COUNT(e) FROM " + entity + " e", Long.class).getSingleResult();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
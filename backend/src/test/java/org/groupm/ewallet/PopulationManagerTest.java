@@ -0,0 +1,109 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.service.business.DemoDataGenerator;
+import org.groupm.ewallet.service.business.PopulationJob;
+import org.groupm.ewallet.service.business.PopulationManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Génération de données en tâche de fond : plusieurs threads, lots validés
+ * séparément, contenu reproductible à graine égale.
+ */
+public class PopulationManagerTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void workersInsertEveryUserInChunks() throws Exception {
+        PopulationManager manager = manager();
+        PopulationJob job = manager.start(25, 7, 3, 4, Executors.defaultThreadFactory());
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (job.getStatus() == PopulationJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(PopulationJob.Status.COMPLETED, job.getStatus(), job.getError());
+        assertEquals(25, job.getUsersCreated());
+        assertEquals(1.0, job.getProgress());
+        assertEquals(job, manager.find(job.getId()));
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            long rows = 0;
+            for (String entity : new String[] { "User", "Account", "Transaction", "Portfolio", "Asset",
+                    "PortfolioTransaction" }) {
+                rows += em.createQuery("SELECT COUNT(e) FROM " + entity + " e", Long.class).getSingleResult();
+            }
+            assertEquals(25L, em.createQuery("SELECT COUNT(u) FROM User u", Long.class).getSingleResult());
+            assertEquals(rows, job.getRowsInserted());
+            // Chaque transaction de portefeuille pointe vers un portefeuille existant
+            assertEquals(0L, em.createQuery("SELECT COUNT(t) FROM PortfolioTransaction t WHERE NOT EXISTS "
+                    + "(SELECT p FROM Portfolio p WHERE p.id = t.portfolioId)", Long.class).getSingleResult());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameUsers() {
+        User first = new DemoDataGenerator(42).generateUser(17);
+        User again = new DemoDataGenerator(42).generateUser(17);
+        User otherSeed = new DemoDataGenerator(43).generateUser(17);
+
+        assertEquals(first.getEmail(), again.getEmail());
+        assertEquals(first.getAccounts().size(), again.getAccounts().size());
+        assertEquals(first.getAccounts().get(0).getBalanceAsBigDecimal(),
+                again.getAccounts().get(0).getBalanceAsBigDecimal());
+        assertNotEquals(first.getEmail(), otherSeed.getEmail());
+    }
+
+    @Test
+    void invalidOrConcurrentStartsAreRejected() throws Exception {
+        PopulationManager manager = manager();
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.start(0, 1, 1, 1, Executors.defaultThreadFactory()));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.start(10, 1, manager.maxWorkers() + 1, 1, Executors.defaultThreadFactory()));
+        // Pool Hibernate de 20 connexions : 2 par worker, 4 réservées au trafic
+        assertEquals(8, manager.maxWorkers());
+
+        // Threads qui ne font rien : le job reste en cours
+        PopulationJob running = manager.start(10, 1, 2, 5, task -> new Thread(() -> { }));
+        assertEquals(PopulationJob.Status.RUNNING, running.getStatus());
+        assertThrows(IllegalStateException.class,
+                () -> manager.start(10, 1, 1, 1, Executors.defaultThreadFactory()));
+        assertEquals(0, running.getUsersCreated());
+    }
+
+    private static PopulationManager manager() throws Exception {
+        PopulationManager manager = new PopulationManager();
+        Field field = PopulationManager.class.getDeclaredField("emf");
+        field.setAccessible(true);
+        field.set(manager, emf);
+        return manager;
+    }
+}
@@ -0,0 +1,135 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaAssetRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.projection.AccountSummary;
+import org.groupm.ewallet.repository.projection.AssetPosition;
+import org.groupm.ewallet.repository.projection.TransactionRow;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Projections des listes : bonnes colonnes, et aucune entité chargée dans le
+ * contexte de persistance.
+ */
+public class ProjectionQueriesTest {
+
+    private static final String OLDER_ID = "0190a000-0000-7000-8000-000000000001";
+    private static final String NEWER_ID = "0190a000-0000-7000-8000-000000000002";
+
+    private static EntityManagerFactory emf;
+    private static int portfolioId;
+
+    private EntityManager em;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        User user = new User("P1", "p1@mail.com", "pw", "Alice", "Demo");
+        em.persist(user);
+
+        Account account = new Account("PA1", "P1", "courant", 250.0);
+        account.setName("Principal");
+        Transaction older = new Transaction(OLDER_ID, "deposit", 100.0, "salaire");
+        older.setTimestamp(LocalDateTime.of(2025, 1, 1, 10, 0));
+        Transaction newer = new Transaction(NEWER_ID, "withdraw", 20.0, "courses");
+        newer.setTimestamp(LocalDateTime.of(2025, 1, 2, 10, 0));
+        account.addTransaction(older);
+        account.addTransaction(newer);
+        em.persist(account);
+
+        Portfolio portfolio = new Portfolio("P1");
+        portfolio.setUser(user);
+        user.addPortfolio(portfolio);
+        portfolio.addAsset(new Asset("Apple", "stock", 2.0, 150.0, "AAPL"));
+        em.persist(portfolio);
+        em.getTransaction().commit();
+        portfolioId = portfolio.getId();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        em = emf.createEntityManager();
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        em.close();
+    }
+
+    @Test
+    void accountSummaries() throws Exception {
+        List<AccountSummary> page = inject(new JpaAccountRepository()).findSummaryPage(null, 10);
+
+        AccountSummary summary = page.stream().filter(a -> a.getAccountID().equals("PA1")).findFirst().orElseThrow();
+        assertEquals("P1", summary.getUserID());
+        assertEquals("Principal", summary.getName());
+        assertEquals(0, new BigDecimal("250").compareTo(summary.getBalance()));
+        assertNoManagedEntity();
+    }
+
+    @Test
+    void transactionRowsNewestFirst() throws Exception {
+        JpaTransactionRepository repository = inject(new JpaTransactionRepository());
+
+        List<TransactionRow> first = repository.findRowPageByAccountId("PA1", null, null, 1);
+        assertEquals(1, first.size());
+        assertEquals(NEWER_ID, first.get(0).getTransactionID());
+        assertEquals("PA1", first.get(0).getAccountID());
+
+        TransactionRow last = first.get(0);
+        List<TransactionRow> next = repository.findRowPageByAccountId("PA1", last.getTimestamp(),
+                last.getTransactionID(), 1);
+        assertEquals(OLDER_ID, next.get(0).getTransactionID());
+        assertNoManagedEntity();
+    }
+
+    @Test
+    void assetPositionsCarryTotalValue() throws Exception {
+        List<AssetPosition> positions = inject(new JpaAssetRepository()).findPositionsByPortfolioId(portfolioId);
+
+        assertEquals(1, positions.size());
+        assertEquals("AAPL", positions.get(0).getSymbol());
+        assertEquals(0, new BigDecimal("300").compareTo(positions.get(0).getTotalValue()));
+        assertNoManagedEntity();
+    }
+
+    private void assertNoManagedEntity() {
+        assertEquals(0, em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private <T> T inject(T repository) throws Exception {
+        Field field = repository.getClass().getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+        return repository;
+    }
+}
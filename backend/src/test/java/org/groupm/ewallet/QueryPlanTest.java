@@ -0,0 +1,159 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.model.WealthTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans d'exécution des requêtes fréquentes sur un jeu de données peuplé :
+ * chacune doit être une recherche par index, jamais un parcours de table, et
+ * les index composites de migration_v2.sql suivent la forme des requêtes
+ * (colonne filtrée puis colonne de tri).
+ */
+public class QueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int ACCOUNTS_PER_USER = 2;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 20;
+    private static final String[] SYMBOLS = { "BTC", "ETH", "AAPL", "MSFT" };
+
+    private static EntityManagerFactory emf;
+    private static int portfolioId;
+
+    @BeforeAll
+    static void populate() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int u = 0; u < USERS; u++) {
+            User user = new User("QU" + u, "qu" + u + "@mail.com", "pw", "Q", "User");
+            em.persist(user);
+            for (int a = 0; a < ACCOUNTS_PER_USER; a++) {
+                Account account = new Account("QA" + u + "-" + a, user.getUserID(), "courant", 100.0);
+                for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                    Transaction transaction = new Transaction(TimeOrderedId.next(), "deposit", 1.0, null);
+                    transaction.setTimestamp(start.plusHours(t));
+                    account.addTransaction(transaction);
+                }
+                em.persist(account);
+            }
+            Portfolio portfolio = new Portfolio(user.getUserID());
+            portfolio.setUser(user);
+            for (String symbol : SYMBOLS) {
+                portfolio.addAsset(new Asset(symbol, "crypto", 1.0, 10.0, symbol));
+            }
+            em.persist(portfolio);
+            em.flush();
+            portfolioId = portfolio.getId();
+            for (String symbol : SYMBOLS) {
+                em.persist(new PortfolioTransaction(portfolio.getId(), symbol, symbol, "BUY", 1.0, 10.0));
+            }
+            em.persist(new WealthTracker(user));
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void hotQueriesAreIndexLookups() {
+        assertIndexLookup("ACCOUNT_ID", "SELECT * FROM transactions WHERE account_id = 'QA7-1' "
+                + "ORDER BY timestamp DESC, transaction_id DESC LIMIT 101");
+        assertIndexLookup("PORTFOLIO_ID",
+                "SELECT * FROM portfolio_transactions WHERE portfolio_id = " + portfolioId + " ORDER BY timestamp DESC");
+        assertIndexLookup("PORTFOLIO_ID",
+                "SELECT * FROM assets WHERE portfolio_id = " + portfolioId + " AND symbol = 'BTC'");
+        assertIndexLookup("SYMBOL", "SELECT * FROM assets WHERE symbol = 'ETH'");
+        assertIndexLookup("USER_ID", "SELECT * FROM wealth_trackers WHERE user_id = 'QU3'");
+        assertIndexLookup("EMAIL", "SELECT * FROM users WHERE email = 'qu3@mail.com'");
+
+        // Page suivante du flux global : parcours de l'index dans l'ordre du tri
+        String plan = explain("SELECT * FROM transactions WHERE timestamp < TIMESTAMP '2030-01-01 00:00:00' "
+                + "ORDER BY timestamp DESC, transaction_id DESC LIMIT 101");
+        assertTrue(plan.contains("IDX_TRANSACTIONS_TS"), plan);
+    }
+
+    @Test
+    void compositeIndexesMatchQueryShapes() {
+        assertEquals(List.of("ACCOUNT_ID", "TIMESTAMP"), indexColumns("IDX_TRANSACTIONS_ACCOUNT_TS"));
+        assertEquals(List.of("TIMESTAMP", "TRANSACTION_ID"), indexColumns("IDX_TRANSACTIONS_TS"));
+        assertEquals(List.of("PORTFOLIO_ID", "TIMESTAMP"), indexColumns("IDX_PORTFOLIO_TRANSACTIONS_PORTFOLIO_TS"));
+        assertEquals(List.of("PORTFOLIO_ID", "SYMBOL"), indexColumns("IDX_ASSETS_PORTFOLIO_SYMBOL"));
+        assertEquals(List.of("SYMBOL"), indexColumns("IDX_ASSETS_SYMBOL"));
+    }
+
+    @Test
+    void wealthTrackerIsUniquePerUser() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            User user = em.find(User.class, "QU1");
+            // Identité IDENTITY : l'INSERT part dès le persist
+            assertThrows(PersistenceException.class, () -> {
+                em.persist(new WealthTracker(user));
+                em.flush();
+            });
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Le plan H2 signale l'index utilisé par un commentaire
+     * {@code /* PUBLIC.<index>: <colonne> = ... *\/}, et {@code tableScan}
+     * en l'absence d'index.
+     */
+    private static void assertIndexLookup(String column, String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains(": " + column + " ="), plan);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> indexColumns(String index) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createNativeQuery("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                    + "WHERE INDEX_NAME = ?1 ORDER BY ORDINAL_POSITION")
+                    .setParameter(1, index)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static String explain(String sql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+        } finally {
+            em.close();
+        }
+    }
+}
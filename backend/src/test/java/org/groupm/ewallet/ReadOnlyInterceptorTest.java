@@ -0,0 +1,109 @@
+package org.groupm.ewallet;
+
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.config.ReadOnlyInterceptor;
+import org.groupm.ewallet.config.TransactionInterceptor;
+import org.groupm.ewallet.model.User;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadOnlyInterceptorTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new User("RO1", "ro1@mail.com", "pw", "Alice", "Demo"));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void readOnlyCallLoadsUntrackedEntitiesAndRestoresSession() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+
+        withEm(new ReadOnlyInterceptor(), em).readOnly(context(() -> {
+            User user = em.createQuery("SELECT u FROM User u WHERE u.userID = 'RO1'", User.class)
+                    .getSingleResult();
+            assertTrue(session.isReadOnly(user));
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            user.setFirstName("Changed");
+            return null;
+        }));
+
+        assertFalse(session.isDefaultReadOnly());
+        assertEquals(FlushMode.AUTO, session.getHibernateFlushMode());
+
+        // La modification d'une entité en lecture seule n'est jamais écrite
+        em.getTransaction().begin();
+        em.getTransaction().commit();
+        em.close();
+        assertEquals("Alice", reload("RO1").getFirstName());
+    }
+
+    @Test
+    void transactionalCallInsideReadOnlyCallStillWrites() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+        TransactionInterceptor tx = withEm(new TransactionInterceptor(), em);
+
+        withEm(new ReadOnlyInterceptor(), em).readOnly(context(() -> tx.manageTransaction(context(() -> {
+            assertFalse(session.isDefaultReadOnly());
+            em.persist(new User("RO2", "ro2@mail.com", "pw", "Bob", "Demo"));
+            return null;
+        }))));
+        em.close();
+
+        assertNotNull(reload("RO2"));
+    }
+
+    private static User reload(String userId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(User.class, userId);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static <T> T withEm(T interceptor, EntityManager em) throws Exception {
+        Field field = interceptor.getClass().getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(interceptor, em);
+        return interceptor;
+    }
+
+    /** Contexte d'invocation minimal : proceed() et getMethod(). */
+    private static InvocationContext context(Callable<Object> body) {
+        return (InvocationContext) Proxy.newProxyInstance(InvocationContext.class.getClassLoader(),
+                new Class<?>[] { InvocationContext.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "proceed" -> body.call();
+                    case "getMethod" -> Callable.class.getMethod("call");
+                    default -> null;
+                });
+    }
+}
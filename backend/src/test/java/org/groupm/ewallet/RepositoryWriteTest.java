@@ -0,0 +1,118 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.impl.JpaUserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Contrat insert/update des dépôts : une création n'émet que l'INSERT, sans
+ * SELECT préalable sur la clé primaire.
+ */
+public class RepositoryWriteTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void insertIssuesOnlyInserts() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            stats.clear();
+            inject(new JpaUserRepository(), em).insert(new User("W1", "w1@mail.com", "pw", "Alice", "Demo"));
+            inject(new JpaAccountRepository(), em).insert(new Account("WA1", "W1", "courant", 0.0));
+            inject(new JpaTransactionRepository(), em)
+                    .insert(new Transaction(TimeOrderedId.next(), "deposit", 10.0, "salaire", "WA1"));
+            em.getTransaction().commit();
+
+            assertEquals(3, stats.getPrepareStatementCount());
+            assertEquals(3, stats.getEntityInsertCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void updateReturnsManagedInstance() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(new Account("WA2", null, "courant", 5.0));
+            em.getTransaction().commit();
+            em.clear();
+
+            Account detached = em.find(Account.class, "WA2");
+            em.detach(detached);
+            detached.setName("Renommé");
+            em.getTransaction().begin();
+            Account managed = inject(new JpaAccountRepository(), em).update(detached);
+            managed.setBalance(new BigDecimal("7"));
+            em.getTransaction().commit();
+            em.clear();
+
+            Account reloaded = em.find(Account.class, "WA2");
+            assertEquals("Renommé", reloaded.getName());
+            assertEquals(0, new BigDecimal("7").compareTo(reloaded.getBalanceAsBigDecimal()));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void insertWithExistingIdFailsInsteadOfOverwriting() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(new User("W3", "w3@mail.com", "pw", "Bob", "Demo"));
+            em.getTransaction().commit();
+            em.clear();
+
+            em.getTransaction().begin();
+            JpaUserRepository repository = inject(new JpaUserRepository(), em);
+            assertThrows(PersistenceException.class, () -> {
+                repository.insert(new User("W3", "other@mail.com", "pw", "Eve", "Demo"));
+                em.flush();
+            });
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static <T> T inject(T repository, EntityManager em) throws Exception {
+        Field field = repository.getClass().getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+        return repository;
+    }
+}
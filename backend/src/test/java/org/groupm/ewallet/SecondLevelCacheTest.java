@@ -0,0 +1,196 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.config.CacheRegionStats;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaAccountDailyBalanceRepository;
+import org.groupm.ewallet.repository.impl.JpaAssetRepository;
+import org.groupm.ewallet.repository.impl.JpaSoftDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaUserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de second niveau : les lectures répétées par clé, par email et par
+ * symbole ne touchent plus la base, et les écritures invalident les entrées.
+ */
+public class SecondLevelCacheTest {
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletCacheTestPU");
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void findByIdIsServedFromCache() {
+        persist(new Account("CA1", null, "courant", 10.0));
+
+        inNewEntityManager(em -> em.find(Account.class, "CA1"));
+        stats.clear();
+        Account cached = inNewEntityManager(em -> em.find(Account.class, "CA1"));
+
+        assertEquals("CA1", cached.getAccountID());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(1, stats.getDomainDataRegionStatistics(Account.CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void versionedUpdateRefreshesCachedEntry() {
+        persist(new Account("CA2", null, "courant", 10.0));
+        inNewEntityManager(em -> em.find(Account.class, "CA2"));
+
+        inNewEntityManager(em -> {
+            em.getTransaction().begin();
+            em.find(Account.class, "CA2").setBalance(new BigDecimal("25"));
+            em.getTransaction().commit();
+            return null;
+        });
+
+        stats.clear();
+        Account reloaded = inNewEntityManager(em -> em.find(Account.class, "CA2"));
+        assertEquals(0, new BigDecimal("25").compareTo(reloaded.getBalanceAsBigDecimal()));
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByEmailUsesNaturalIdCache() {
+        persist(new User("CU1", "cache@mail.com", "pw", "Alice", "Demo"));
+
+        inNewEntityManager(em -> repository(new JpaUserRepository(), em).findByEmail("cache@mail.com"));
+        stats.clear();
+        User user = inNewEntityManager(em -> repository(new JpaUserRepository(), em).findByEmail("cache@mail.com"));
+
+        assertEquals("CU1", user.getUserID());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void findBySymbolQueryCacheIsInvalidatedByAssetWrites() {
+        persist(portfolioWith(new Asset("AAPL", "action", "Apple", 180.0)));
+
+        inNewEntityManager(em -> repository(new JpaAssetRepository(), em).findBySymbol("AAPL"));
+        stats.clear();
+        inNewEntityManager(em -> repository(new JpaAssetRepository(), em).findBySymbol("AAPL"));
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(1, stats.getQueryCacheHitCount());
+
+        // Toute écriture sur la table assets rend le résultat en cache périmé
+        persist(portfolioWith(new Asset("MSFT", "action", "Microsoft", 410.0)));
+        stats.clear();
+        inNewEntityManager(em -> repository(new JpaAssetRepository(), em).findBySymbol("AAPL"));
+        assertEquals(0, stats.getQueryCacheHitCount());
+        assertEquals(1, stats.getQueryCacheMissCount());
+    }
+
+    @Test
+    void nativeUpsertOnlyInvalidatesItsOwnTable() {
+        persist(new User("CU2", "native@mail.com", "pw", "Bob", "Demo"));
+        inNewEntityManager(em -> em.find(User.class, "CU2"));
+
+        inNewEntityManager(em -> {
+            em.getTransaction().begin();
+            repository(new JpaAccountDailyBalanceRepository(), em)
+                    .recordClosingBalance("CA9", "CU2", LocalDate.of(2024, 1, 31), new BigDecimal("100"));
+            em.getTransaction().commit();
+            return null;
+        });
+
+        stats.clear();
+        inNewEntityManager(em -> em.find(User.class, "CU2"));
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void softDeletedAccountIsNoLongerServedFromCache() {
+        persist(new Account("CA4", null, "courant", 5.0));
+        inNewEntityManager(em -> em.find(Account.class, "CA4"));
+
+        inNewEntityManager(em -> {
+            em.getTransaction().begin();
+            repository(new JpaSoftDeleteRepository(), em).markAccountDeleted("CA4", LocalDateTime.now());
+            em.getTransaction().commit();
+            return null;
+        });
+
+        assertNull(inNewEntityManager(em -> em.find(Account.class, "CA4")));
+    }
+
+    @Test
+    void regionStatsReportHitRatio() {
+        persist(new Account("CA3", null, "courant", 1.0));
+        inNewEntityManager(em -> em.find(Account.class, "CA3"));
+        inNewEntityManager(em -> em.find(Account.class, "CA3"));
+
+        CacheRegionStats accounts = CacheRegionStats.of(emf.unwrap(SessionFactory.class)).stream()
+                .filter(region -> region.getRegion().equals(Account.CACHE_REGION))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(accounts.getHits() > 0);
+        assertTrue(accounts.getHitRatio() > 0);
+    }
+
+    private static void persist(Object entity) {
+        inNewEntityManager(em -> {
+            em.getTransaction().begin();
+            em.persist(entity);
+            em.getTransaction().commit();
+            return null;
+        });
+    }
+
+    private static Portfolio portfolioWith(Asset asset) {
+        User owner = new User("CP-" + asset.getSymbol(), asset.getSymbol() + "@mail.com", "pw", "Carol", "Demo");
+        persist(owner);
+        Portfolio portfolio = new Portfolio(owner.getUserID());
+        portfolio.addAsset(asset);
+        return portfolio;
+    }
+
+    private static <T> T inNewEntityManager(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static <T> T repository(T repository, EntityManager em) {
+        try {
+            Field field = repository.getClass().getDeclaredField("em");
+            field.setAccessible(true);
+            field.set(repository, em);
+            return repository;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.PortfolioTransaction;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.model.WealthTracker;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaBulkDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaPortfolioRepository;
+import org.groupm.ewallet.repository.impl.JpaSoftDeleteRepository;
+import org.groupm.ewallet.repository.impl.JpaUserRepository;
+import org.groupm.ewallet.repository.impl.JpaWealthHistoryRepository;
+import org.groupm.ewallet.repository.impl.JpaWealthTrackerRepository;
+import org.groupm.ewallet.repository.projection.PurgeBacklog;
+import org.groupm.ewallet.service.CurrencyConverter;
+import org.groupm.ewallet.service.business.AccountManager;
+import org.groupm.ewallet.service.business.BulkDeleteManager;
+import org.groupm.ewallet.service.business.PurgeStats;
+import org.groupm.ewallet.service.business.SoftDeletePurger;
+import org.groupm.ewallet.service.business.WealthHistoryManager;
+import org.groupm.ewallet.service.business.WealthSnapshotManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Suppression logique : lignes masquées aussitôt pour tous les
+ * repositories, en un nombre fixe de requêtes, puis purgées par lots dans la
+ * limite du budget de chaque passage.
+ */
+public class SoftDeleteTest {
+
+    private static final int HEAVY_TRANSACTIONS = 100_000;
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    private EntityManager em;
+    private JpaSoftDeleteRepository softDeletes;
+    private SoftDeletePurger purger;
+
+    @BeforeAll
+    static void setUp() {
+        // Base sur disque : 100 000 lignes ne tiennent pas dans le tas de test (-Xmx64m)
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU", Map.of("jakarta.persistence.jdbc.url",
+                "jdbc:h2:file:./target/soft-delete;MODE=MySQL;CACHE_SIZE=4096"));
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void wire() throws Exception {
+        em = emf.createEntityManager();
+        softDeletes = inject(new JpaSoftDeleteRepository(), "em", em);
+        JpaBulkDeleteRepository bulkDeletes = inject(new JpaBulkDeleteRepository(), "em", em);
+        purger = new SoftDeletePurger();
+        inject(purger, "em", em);
+        inject(purger, "bulkDeletes", bulkDeletes);
+        inject(purger, "softDeletes", softDeletes);
+        inject(purger, "pauseMillis", 0L);
+
+        BulkDeleteManager reset = new BulkDeleteManager();
+        inject(reset, "em", em);
+        inject(reset, "bulkDeletes", bulkDeletes);
+        reset.clearAll();
+    }
+
+    @AfterEach
+    void close() {
+        em.close();
+    }
+
+    @Test
+    void deletedRowsAreHiddenFromRepositories() throws Exception {
+        persistUser("S1", "S1-A", 2);
+        persistAccount("S1", "S1-B", 1);
+        int portfolioId = persistPortfolio("S1", 0);
+        JpaAccountRepository accounts = inject(new JpaAccountRepository(), "em", em);
+        JpaUserRepository users = inject(new JpaUserRepository(), "em", em);
+        JpaPortfolioRepository portfolios = inject(new JpaPortfolioRepository(), "em", em);
+
+        inTransaction(() -> assertEquals(1, softDeletes.markAccountDeleted("S1-A", LocalDateTime.now())));
+        em.clear();
+
+        assertNull(accounts.findById("S1-A"));
+        assertEquals(1, accounts.findByUserId("S1").size());
+        assertEquals(1, users.findByIdWithDetails("S1").getAccounts().size());
+        assertEquals(1L, count("Account"));
+        // Transactions encore en base jusqu'à la purge
+        assertEquals(3L, count("Transaction"));
+
+        // Utilisateur : une requête par table, quel que soit le volume rattaché
+        stats.clear();
+        inTransaction(() -> assertEquals(1, softDeletes.markUserDeleted("S1", LocalDateTime.now())));
+        assertEquals(4, stats.getPrepareStatementCount());
+        em.clear();
+
+        assertNull(users.findById("S1"));
+        assertNull(users.findByEmail("s1@mail.com"));
+        assertTrue(users.findAll().isEmpty());
+        assertTrue(accounts.findByUserId("S1").isEmpty());
+        assertNull(portfolios.findById(portfolioId));
+        assertNull(inject(new JpaWealthTrackerRepository(), "em", em).aggregateByUserId("S1"));
+
+        // Déjà supprimé : rien à faire
+        inTransaction(() -> assertEquals(0, softDeletes.markUserDeleted("S1", LocalDateTime.now())));
+    }
+
+    @Test
+    void purgeRemovesRowsInChunksWithinRunBudget() throws Exception {
+        persistUser("S2", "S2-A", 12);
+        persistPortfolio("S2", 12);
+        persistUser("S3", "S3-A", 4);
+        inTransaction(() -> softDeletes.markUserDeleted("S2", LocalDateTime.now()));
+        inject(purger, "chunkSize", 5);
+        inject(purger, "rowsPerRun", 20L);
+
+        PurgeBacklog before = purger.stats().getBacklog();
+        assertEquals(1, before.getUsers());
+        assertEquals(1, before.getAccounts());
+        assertEquals(1, before.getPortfolios());
+        assertNotNull(before.getOldestDeletedAt());
+
+        // 12 transactions + le compte, puis deux lots d'achats/ventes : budget dépassé
+        assertEquals(23, purger.purge());
+        PurgeBacklog partial = purger.stats().getBacklog();
+        assertEquals(0, partial.getAccounts());
+        assertEquals(1, partial.getPortfolios());
+        assertEquals(1, partial.getUsers());
+
+        // Le passage suivant reprend où le précédent s'est arrêté
+        assertEquals(5, purger.purge());
+        PurgeStats after = purger.stats();
+        assertEquals(0, after.getBacklog().getTotal());
+        assertEquals(0, after.getOldestPendingSeconds());
+        assertEquals(2, after.getRuns());
+        assertEquals(28, after.getRowsPurged());
+        assertEquals(1, after.getUsersPurged());
+        assertNull(after.getLastError());
+
+        assertEquals(0L, count("PortfolioTransaction") + count("Asset"));
+        // L'autre utilisateur est intact
+        assertEquals(4L, count("Transaction"));
+        assertEquals(1L, count("User"));
+        assertEquals(0, purger.purge());
+    }
+
+    @Test
+    void purgeUserWithHundredThousandTransactions() {
+        persistUser("H1", "H1-A", 0);
+        for (int seeded = 0; seeded < HEAVY_TRANSACTIONS; seeded += 10_000) {
+            em.getTransaction().begin();
+            em.createNativeQuery("INSERT INTO transactions (transaction_id, type, amount, timestamp, description, "
+                    + "account_id, version) SELECT CAST(RANDOM_UUID() AS BINARY(16)), 'deposit', 1, "
+                    + "CURRENT_TIMESTAMP, 'seed', 'H1-A', 0 FROM SYSTEM_RANGE(1, 10000)").executeUpdate();
+            em.getTransaction().commit();
+        }
+
+        stats.clear();
+        inTransaction(() -> softDeletes.markUserDeleted("H1", LocalDateTime.now()));
+        // Suppression logique : nombre de requêtes indépendant du volume
+        assertEquals(4, stats.getPrepareStatementCount());
+
+        stats.clear();
+        long purged = 0;
+        while (purger.stats().getBacklog().getTotal() > 0) {
+            purged += purger.purge();
+        }
+
+        assertEquals(HEAVY_TRANSACTIONS + 2, purged);
+        // Un DELETE par lot de CHUNK_SIZE transactions, plus quelques requêtes par passage
+        long chunks = HEAVY_TRANSACTIONS / SoftDeletePurger.CHUNK_SIZE + 1;
+        assertTrue(stats.getPrepareStatementCount() <= chunks + 30,
+                stats.getPrepareStatementCount() + " statements for " + chunks + " chunks");
+        assertEquals(0L, count("Transaction"));
+        // Rien n'est chargé dans le contexte de persistance
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void deleteAccountRemovesItsBalanceFromSnapshot() throws Exception {
+        persistUser("S4", "S4-A", 0);
+        persistAccount("S4", "S4-B", 0);
+        inTransaction(() -> {
+            em.find(Account.class, "S4-A").setBalance(new BigDecimal("100"));
+            em.find(Account.class, "S4-B").setBalance(new BigDecimal("50"));
+        });
+
+        JpaWealthTrackerRepository trackers = inject(new JpaWealthTrackerRepository(), "em", em);
+        WealthSnapshotManager wealthSnapshots = new WealthSnapshotManager();
+        inject(wealthSnapshots, "wealthTrackerRepository", trackers);
+        inject(wealthSnapshots, "emf", emf);
+        inject(wealthSnapshots, "wealthHistory", inject(new WealthHistoryManager(), "historyRepository",
+                inject(new JpaWealthHistoryRepository(), "em", em)));
+        AccountManager accountManager = new AccountManager();
+        inject(accountManager, "em", em);
+        inject(accountManager, "softDeletes", softDeletes);
+        inject(accountManager, "wealthSnapshots", wealthSnapshots);
+        inTransaction(() -> wealthSnapshots.getSnapshot("S4"));
+
+        em.getTransaction().begin();
+        assertTrue(accountManager.deleteAccount("S4-A"));
+        em.getTransaction().commit();
+        em.clear();
+
+        em.getTransaction().begin();
+        assertFalse(accountManager.deleteAccount("S4-A"));
+        em.getTransaction().commit();
+        WealthTracker tracker = trackers.findByUserId("S4");
+        assertEquals(CurrencyConverter.chfToUsd(new BigDecimal("50")).setScale(2, RoundingMode.HALF_UP),
+                tracker.getTotalWealthUsdAsBigDecimal().setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private void persistUser(String userId, String accountId, int transactions) {
+        inTransaction(() -> em.persist(new User(userId, userId.toLowerCase() + "@mail.com", "pw", "Alice", "Demo")));
+        persistAccount(userId, accountId, transactions);
+    }
+
+    private void persistAccount(String userId, String accountId, int transactions) {
+        Account account = new Account(accountId, userId, "courant", 0.0);
+        for (int i = 0; i < transactions; i++) {
+            account.addTransaction(new Transaction(TimeOrderedId.next(), "deposit", 1.0, "test"));
+        }
+        inTransaction(() -> em.persist(account));
+        em.clear();
+    }
+
+    private int persistPortfolio(String userId, int trades) {
+        Portfolio portfolio = new Portfolio(userId);
+        portfolio.setUser(em.getReference(User.class, userId));
+        portfolio.addAsset(new Asset("Gratuit", "stock", 1.0, 0.0, "FREE"));
+        inTransaction(() -> {
+            em.persist(portfolio);
+            for (int i = 0; i < trades; i++) {
+                em.persist(new PortfolioTransaction(portfolio.getId(), "FREE", "Gratuit", "BUY", 1.0, 0.0));
+            }
+        });
+        em.clear();
+        return portfolio.getId();
+    }
+
+    private void inTransaction(Runnable work) {
+        em.getTransaction().begin();
+        work.run();
+        em.getTransaction().commit();
+    }
+
+    private long count(String entity) {
+        return em.createQuery("SELECT COUNT(e) FROM " + entity + " e", Long.class).getSingleResult();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
@@ -0,0 +1,62 @@
+package org.groupm.ewallet;
+
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Identifiants ordonnés dans le temps et leur stockage binaire.
+ */
+public class TimeOrderedIdTest {
+
+    @Test
+    void idsAreStrictlyIncreasingInTextAndBinaryForm() {
+        String previous = TimeOrderedId.next();
+        for (int i = 0; i < 100_000; i++) {
+            String id = TimeOrderedId.next();
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            assertTrue(Arrays.compareUnsigned(TimeOrderedId.toBytes(id), TimeOrderedId.toBytes(previous)) > 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreVersion7() {
+        String id = TimeOrderedId.next();
+        assertEquals('7', id.charAt(14));
+        assertTrue("89ab".indexOf(id.charAt(19)) >= 0);
+    }
+
+    @Test
+    void binaryRoundTrip() {
+        String id = TimeOrderedId.next();
+
+        byte[] bytes = TimeOrderedId.toBytes(id);
+        assertEquals(16, bytes.length);
+        assertEquals(id, TimeOrderedId.fromBytes(bytes));
+    }
+
+    @Test
+    void legacyIdsAreRejected() {
+        assertFalse(TimeOrderedId.isValid("TXN-1"));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedId.toBytes("TXN001"));
+    }
+
+    @Test
+    void externalIdsMapToStoredForm() {
+        String id = TimeOrderedId.next();
+        assertEquals(id, TimeOrderedId.normalize(id));
+        // Ancienne forme : l'UUID a été conservé sans le préfixe
+        assertEquals(id, TimeOrderedId.normalize("TXN-" + id.toUpperCase()));
+        assertNull(TimeOrderedId.normalize("TXN-1"));
+        assertNull(TimeOrderedId.normalize("not-an-id"));
+        assertNull(TimeOrderedId.normalize(null));
+    }
+}
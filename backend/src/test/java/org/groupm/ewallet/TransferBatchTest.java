@@ -0,0 +1,354 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaAccountDailyBalanceRepository;
+import org.groupm.ewallet.repository.impl.JpaAccountRepository;
+import org.groupm.ewallet.repository.impl.JpaTransactionRepository;
+import org.groupm.ewallet.repository.impl.JpaWealthHistoryRepository;
+import org.groupm.ewallet.repository.impl.JpaWealthTrackerRepository;
+import org.groupm.ewallet.service.CurrencyConverter;
+import org.groupm.ewallet.service.business.AccountManager;
+import org.groupm.ewallet.service.business.BalanceHistoryManager;
+import org.groupm.ewallet.service.business.TransferBatchResult;
+import org.groupm.ewallet.service.business.TransferBatchResult.Status;
+import org.groupm.ewallet.service.business.TransferOrder;
+import org.groupm.ewallet.service.business.WealthHistoryManager;
+import org.groupm.ewallet.service.business.WealthSnapshotManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Virements groupés : un résultat par virement, tout-ou-rien sur demande, et
+ * un nombre de requêtes qui ne dépend plus du nombre de virements.
+ */
+public class TransferBatchTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final int TRANSFERS = 500;
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    private EntityManager em;
+    private AccountManager accountManager;
+    private JpaWealthTrackerRepository trackers;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU",
+                Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:transfer-batch;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void wire() throws Exception {
+        em = emf.createEntityManager();
+        trackers = inject(new JpaWealthTrackerRepository(), "em", em);
+        accountManager = newAccountManager(em);
+
+        inTransaction(() -> {
+            for (String table : List.of("transactions", "account_daily_balance", "wealth_points", "wealth_trackers",
+                    "accounts", "users")) {
+                em.createNativeQuery("DELETE FROM " + table).executeUpdate();
+            }
+        });
+    }
+
+    @AfterEach
+    void close() {
+        em.close();
+    }
+
+    @Test
+    void partialBatchCompletesValidTransfersAndRejectsOthers() {
+        persistUser("B1", "B1-A", "100", "B1-B", "0");
+        persistUser("B2", "B2-A", "50");
+
+        TransferBatchResult result = inTransaction(() -> accountManager.transferBatch(Arrays.asList(
+                order("B1-A", "B1-B", "30"),
+                order("B1-A", "B1-B", "80"),
+                order("B2-A", "B1-A", "50"),
+                order("B1-A", "B1-A", "1"),
+                order("B1-A", "NOPE", "1"),
+                order("B1-A", "B1-B", "120"),
+                null), false));
+        em.clear();
+
+        assertEquals(List.of(Status.COMPLETED, Status.REJECTED, Status.COMPLETED, Status.REJECTED,
+                Status.REJECTED, Status.COMPLETED, Status.REJECTED), statuses(result));
+        assertEquals(3, result.getCompleted());
+        assertEquals(4, result.getRejected());
+        // Le refus est évalué sur le solde courant du lot, pas sur celui du début
+        assertEquals("Insufficient balance. Available: 70.0000 CHF, Requested: 80 CHF",
+                result.getResults().get(1).getError());
+        assertEquals("Cannot transfer to the same account.", result.getResults().get(3).getError());
+        assertEquals("Destination account not found: NOPE", result.getResults().get(4).getError());
+        assertEquals("Account IDs cannot be null.", result.getResults().get(6).getError());
+        assertNotNull(result.getResults().get(0).getWithdrawalID());
+
+        assertBalance("B1-A", "0");
+        assertBalance("B1-B", "150");
+        assertBalance("B2-A", "0");
+        assertEquals(6L, count("Transaction"));
+        assertEquals(3L, count("AccountDailyBalance"));
+        assertCash("B1", "150");
+        assertCash("B2", "0");
+    }
+
+    @Test
+    void atomicBatchWritesNothingWhenOneTransferIsRejected() {
+        persistUser("B3", "B3-A", "100", "B3-B", "0");
+
+        TransferBatchResult result = inTransaction(() -> accountManager.transferBatch(List.of(
+                order("B3-A", "B3-B", "60"),
+                order("B3-A", "B3-B", "60")), true));
+        em.clear();
+
+        assertEquals(List.of(Status.SKIPPED, Status.REJECTED), statuses(result));
+        assertEquals(0, result.getCompleted());
+        assertBalance("B3-A", "100");
+        assertBalance("B3-B", "0");
+        assertEquals(0L, count("Transaction"));
+        assertEquals(0L, count("AccountDailyBalance"));
+
+        assertThrows(IllegalArgumentException.class, () -> accountManager.transferBatch(List.of(), true));
+    }
+
+    @Test
+    void batchUsesFarFewerStatementsThanSingleTransfers() {
+        persistUser("B4", accountsWithBalance("B4-S", "1000"));
+        persistUser("B5", accountsWithBalance("B5-B", "1000"));
+        List<TransferOrder> singles = rotation("B4-S", "B5-B");
+        List<TransferOrder> batch = rotation("B5-B", "B4-S");
+
+        stats.clear();
+        for (TransferOrder order : singles) {
+            inTransaction(() -> accountManager.transfer(order.getFromAccountID(), order.getToAccountID(),
+                    order.getAmount(), null, order.getDescription()));
+            em.clear();
+        }
+        long singleStatements = stats.getPrepareStatementCount();
+
+        stats.clear();
+        TransferBatchResult result = inTransaction(() -> accountManager.transferBatch(batch, true));
+        long batchStatements = stats.getPrepareStatementCount();
+        em.clear();
+
+        assertEquals(TRANSFERS, result.getCompleted());
+        assertEquals(4L * TRANSFERS, count("Transaction"));
+        assertTrue(batchStatements * 10 < singleStatements, batchStatements + " vs " + singleStatements);
+        // Lot : requêtes groupées (lecture des comptes, lots JDBC), quel que soit le nombre de virements
+        assertTrue(batchStatements <= 20, batchStatements + " statements for " + TRANSFERS + " transfers");
+        // Aller-retour : chaque compte retrouve son solde initial
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertBalance("B4-S" + i, "1000");
+            assertBalance("B5-B" + i, "1000");
+        }
+        assertCash("B4", "20000");
+        assertCash("B5", "20000");
+    }
+
+    @Test
+    void concurrentFirstWritesShareOneSnapshot() throws Exception {
+        int writers = 8;
+        persistUser("C0", "C0-A", "0", "C0-B", "0");
+        for (int i = 1; i <= writers; i++) {
+            persistUser("C" + i, "C" + i + "-A", "10");
+        }
+
+        // Premières écritures simultanées sur le même utilisateur, depuis des
+        // comptes différents : aucune ne doit échouer sur la création du snapshot
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 1; i <= writers; i++) {
+            String from = "C" + i + "-A";
+            String to = i % 2 == 0 ? "C0-A" : "C0-B";
+            results.add(pool.submit(() -> {
+                EntityManager own = emf.createEntityManager();
+                try {
+                    AccountManager manager = newAccountManager(own);
+                    start.await();
+                    own.getTransaction().begin();
+                    boolean done = manager.transfer(from, to, new BigDecimal("10"), null, "premier");
+                    own.getTransaction().commit();
+                    return done;
+                } finally {
+                    own.close();
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertBalance("C0-A", "40");
+        assertBalance("C0-B", "40");
+        assertCash("C0", "80");
+        assertEquals(1L, em.createQuery("SELECT COUNT(w) FROM WealthTracker w WHERE w.user.userID = 'C0'",
+                Long.class).getSingleResult());
+    }
+
+    @Test
+    void invalidAndLegacyTransactionIdsAreLookedUpWithoutFailing() {
+        persistUser("L1", "L1-A", "10", "L1-B", "0");
+        TransferBatchResult result = inTransaction(
+                () -> accountManager.transferBatch(List.of(order("L1-A", "L1-B", "5")), true));
+        String id = result.getResults().get(0).getWithdrawalID();
+        em.clear();
+
+        assertNull(accountManager.getTransactionById("TXN-1"));
+        assertNull(accountManager.getTransactionById("not-an-id"));
+        assertNotNull(accountManager.getTransactionById("TXN-" + id));
+        assertFalse(inTransaction(() -> accountManager.deleteTransaction("TXN-1")));
+        assertTrue(inTransaction(() -> accountManager.deleteTransaction("TXN-" + id)));
+        assertEquals(0L, count("Transaction"));
+    }
+
+    @Test
+    void fundedAccountIsAddedToExistingSnapshot() throws Exception {
+        persistUser("F1", "F1-A", "100");
+        WealthSnapshotManager wealthSnapshots = newWealthSnapshots(em);
+        assertNotNull(wealthSnapshots.getSnapshot("F1"));
+
+        Account funded = new Account("F1-B", "F1", "épargne", 0.0);
+        funded.setBalance(new BigDecimal("250"));
+        inTransaction(() -> accountManager.addAccount(funded));
+        em.clear();
+
+        assertCash("F1", "350");
+        assertTrue(inTransaction(() -> wealthSnapshots.checkConsistency(false)).isEmpty());
+    }
+
+    private WealthSnapshotManager newWealthSnapshots(EntityManager em) throws Exception {
+        WealthSnapshotManager wealthSnapshots = new WealthSnapshotManager();
+        inject(wealthSnapshots, "emf", emf);
+        inject(wealthSnapshots, "wealthTrackerRepository", inject(new JpaWealthTrackerRepository(), "em", em));
+        inject(wealthSnapshots, "wealthHistory", inject(new WealthHistoryManager(), "historyRepository",
+                inject(new JpaWealthHistoryRepository(), "em", em)));
+        return wealthSnapshots;
+    }
+
+    private AccountManager newAccountManager(EntityManager em) throws Exception {
+        WealthSnapshotManager wealthSnapshots = newWealthSnapshots(em);
+        BalanceHistoryManager balanceHistory = new BalanceHistoryManager();
+        inject(balanceHistory, "balanceRepository", inject(new JpaAccountDailyBalanceRepository(), "em", em));
+
+        AccountManager manager = new AccountManager();
+        inject(manager, "em", em);
+        inject(manager, "accountRepository", inject(new JpaAccountRepository(), "em", em));
+        inject(manager, "transactionRepository", inject(new JpaTransactionRepository(), "em", em));
+        inject(manager, "wealthSnapshots", wealthSnapshots);
+        inject(manager, "balanceHistory", balanceHistory);
+        return manager;
+    }
+
+    private List<TransferOrder> rotation(String fromPrefix, String toPrefix) {
+        List<TransferOrder> orders = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            orders.add(order(fromPrefix + (i % ACCOUNTS), toPrefix + (i * 7 % ACCOUNTS), "10"));
+        }
+        return orders;
+    }
+
+    private static String[] accountsWithBalance(String prefix, String balance) {
+        String[] accounts = new String[2 * ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[2 * i] = prefix + i;
+            accounts[2 * i + 1] = balance;
+        }
+        return accounts;
+    }
+
+    /** @param accounts identifiant puis solde, pour chaque compte */
+    private void persistUser(String userId, String... accounts) {
+        inTransaction(() -> {
+            em.persist(new User(userId, userId.toLowerCase() + "@mail.com", "pw", "Alice", "Demo"));
+            for (int i = 0; i < accounts.length; i += 2) {
+                Account account = new Account(accounts[i], userId, "courant", 0.0);
+                account.setBalance(new BigDecimal(accounts[i + 1]));
+                em.persist(account);
+            }
+        });
+        em.clear();
+    }
+
+    private static TransferOrder order(String from, String to, String amount) {
+        return new TransferOrder(from, to, new BigDecimal(amount), "lot");
+    }
+
+    private static List<Status> statuses(TransferBatchResult result) {
+        return result.getResults().stream().map(TransferBatchResult.Outcome::getStatus).toList();
+    }
+
+    private void assertBalance(String accountId, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(em.find(Account.class, accountId).getBalanceAsBigDecimal()),
+                accountId);
+    }
+
+    private void assertCash(String userId, String expectedChf) {
+        assertEquals(CurrencyConverter.chfToUsd(new BigDecimal(expectedChf)).setScale(2, RoundingMode.HALF_UP),
+                trackers.findByUserId(userId).getTotalWealthUsdAsBigDecimal().setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        em.getTransaction().begin();
+        T result = work.get();
+        em.getTransaction().commit();
+        return result;
+    }
+
+    private void inTransaction(Runnable work) {
+        em.getTransaction().begin();
+        work.run();
+        em.getTransaction().commit();
+    }
+
+    private long count(String entity) {
+        return em.createQuery("SELECT COUNT(e) FROM " + entity + " e", Long.class).getSingleResult();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
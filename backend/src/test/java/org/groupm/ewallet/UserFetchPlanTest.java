@@ -0,0 +1,125 @@
+package org.groupm.ewallet;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.model.Portfolio;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.model.Transaction;
+import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.impl.JpaUserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nombre de requêtes SQL émises par GET /users/{id} (chargement puis
+ * sérialisation JSON-B), sur une base H2 en mémoire.
+ */
+public class UserFetchPlanTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int PORTFOLIOS = 3;
+    private static final String FIRST_TRANSACTION_ID = TimeOrderedId.next();
+
+    private static EntityManagerFactory emf;
+    private static Statistics stats;
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("ewalletTestPU");
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        User user = new User("U1", "u1@mail.com", "pw", "Alice", "Demo");
+        em.persist(user);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            Account account = new Account("A" + a, "U1", "courant", 100.0);
+            account.setUser(user);
+            account.addTransaction(new Transaction(a == 0 ? FIRST_TRANSACTION_ID : TimeOrderedId.next(), "deposit", 10.0, null));
+            account.addTransaction(new Transaction(TimeOrderedId.next(), "withdraw", 5.0, null));
+            em.persist(account);
+        }
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            Portfolio portfolio = new Portfolio("U1");
+            portfolio.setUser(user);
+            user.addPortfolio(portfolio);
+            portfolio.addAsset(new Asset("Bitcoin", "crypto", 1.0, 50000.0, "BTC" + p));
+            portfolio.addAsset(new Asset("Apple", "stock", 2.0, 150.0, "AAPL" + p));
+            em.persist(portfolio);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void userDetailsLoadWithFixedStatementCount() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try (Jsonb jsonb = JsonbBuilder.create()) {
+            stats.clear();
+
+            User user = repository(em).findByIdWithDetails("U1");
+            String json = jsonb.toJson(user);
+
+            // utilisateur+comptes, comptes+transactions, utilisateur+portefeuilles,
+            // portefeuilles+actifs : indépendant du nombre de comptes et de portefeuilles
+            assertEquals(4, stats.getPrepareStatementCount());
+            assertEquals(ACCOUNTS, user.getAccounts().size());
+            assertEquals(PORTFOLIOS, user.getPortfolios().size());
+            assertTrue(json.contains("\"" + FIRST_TRANSACTION_ID + "\"") && json.contains("\"BTC2\""));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void lazyGraphWalkIssuesOneStatementPerCollection() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try (Jsonb jsonb = JsonbBuilder.create()) {
+            stats.clear();
+
+            jsonb.toJson(repository(em).findById("U1"));
+
+            // utilisateur, comptes, transactions par compte, portefeuilles, actifs par portefeuille
+            assertEquals(1 + 1 + ACCOUNTS + 1 + PORTFOLIOS, stats.getPrepareStatementCount());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void unknownUserReturnsNull() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertNull(repository(em).findByIdWithDetails("missing"));
+        } finally {
+            em.close();
+        }
+    }
+
+    private static JpaUserRepository repository(EntityManager em) throws Exception {
+        JpaUserRepository repository = new JpaUserRepository();
+        Field field = JpaUserRepository.class.getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+        return repository;
+    }
+}
@@ -0,0 +1,72 @@
+package org.groupm.ewallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.groupm.ewallet.model.WealthPoint.Resolution;
+import org.groupm.ewallet.repository.impl.JpaWealthHistoryRepository;
+import org.groupm.ewallet.service.business.WealthHistoryManager;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WealthPointTest {
+
+    @Test
+    void bucketStartTruncatesToResolution() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 17, 14, 42, 9, 500_000_000);
+
+        assertEquals(LocalDateTime.of(2025, 3, 17, 14, 42, 9), Resolution.RAW.bucketStart(at));
+        assertEquals(LocalDateTime.of(2025, 3, 17, 14, 0), Resolution.HOURLY.bucketStart(at));
+        assertEquals(LocalDateTime.of(2025, 3, 17, 0, 0), Resolution.DAILY.bucketStart(at));
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), Resolution.MONTHLY.bucketStart(at));
+    }
+
+    @Test
+    void expiredPointsArePurgedInChunks() throws Exception {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("ewalletTestPU",
+                Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:wealth-points;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        EntityManager em = emf.createEntityManager();
+        try {
+            // 2 500 points RAW de 3 jours (au-delà des 2 jours de rétention), 10 récents
+            em.getTransaction().begin();
+            seed(em, "RAW", 2500, "DATEADD('DAY', -3, CURRENT_TIMESTAMP)");
+            seed(em, "RAW", 10, "CURRENT_TIMESTAMP");
+            seed(em, "MONTHLY", 10, "DATEADD('YEAR', -5, CURRENT_TIMESTAMP)");
+            em.getTransaction().commit();
+
+            WealthHistoryManager history = new WealthHistoryManager();
+            inject(history, "em", em);
+            inject(history, "historyRepository", inject(new JpaWealthHistoryRepository(), "em", em));
+
+            Map<String, Integer> purged = history.purgeExpired();
+
+            assertEquals(2500, purged.get("RAW"));
+            assertEquals(0, purged.get("HOURLY"));
+            assertEquals(0, purged.get("DAILY"));
+            // Points récents et mensuels (sans limite de rétention) conservés
+            assertEquals(20L, em.createQuery("SELECT COUNT(p) FROM WealthPoint p", Long.class).getSingleResult());
+        } finally {
+            em.close();
+            emf.close();
+        }
+    }
+
+    private static void seed(EntityManager em, String resolution, int points, String bucketStart) {
+        // Un utilisateur par point : la clé (user_id, resolution, bucket_start) reste unique
+        em.createNativeQuery("INSERT INTO wealth_points (user_id, resolution, bucket_start, open_usd, value_usd, "
+                + "min_usd, max_usd, sample_count) SELECT CONCAT('W" + resolution + "', X), '" + resolution + "', "
+                + bucketStart + ", 1, 1, 1, 1, 1 FROM SYSTEM_RANGE(1, " + points + ")").executeUpdate();
+    }
+
+    private static <T> T inject(T target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return target;
+    }
+}
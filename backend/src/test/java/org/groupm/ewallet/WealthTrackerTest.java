@@ -3,6 +3,8 @@ package org.groupm.ewallet;
 import org.groupm.ewallet.model.*;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class WealthTrackerTest {
@@ -58,4 +60,32 @@ public class WealthTrackerTest {
         // zéro
         assertEquals(false, tracker.getTotalWealthUsd() == 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void wealthFromAggregatedTotalsMatchesGraphWalk() {
+
+        User user = new User("4", "agg@example.com", "pwd", "Carol", "Test");
+        user.addAccount(new Account("A003", "courant", 1500.0));
+
+        Portfolio portfolio = new Portfolio(user.getUserID());
+        Asset etf = new Asset("SPY", "etf", "S&P 500", 400.0);
+        etf.setQuantity(2);
+        portfolio.addAsset(etf);
+        Asset eth = new Asset("ETH", "crypto", "Ethereum", 3000.0);
+        eth.setQuantity(0.5);
+        portfolio.addAsset(eth);
+        user.addPortfolio(portfolio);
+
+        WealthTracker walked = new WealthTracker(user);
+        walked.updateWealth();
+
+        // Mêmes totaux (CHF) que ceux renvoyés par la requête d'agrégation
+        WealthTracker aggregated = new WealthTracker(user);
+        aggregated.updateWealth(new BigDecimal("1500"), new BigDecimal("1500"), new BigDecimal("800"));
+
+        assertEquals(walked.getTotalCash(), aggregated.getTotalCash(), 1e-6);
+        assertEquals(walked.getTotalCrypto(), aggregated.getTotalCrypto(), 1e-6);
+        assertEquals(walked.getTotalStocks(), aggregated.getTotalStocks(), 1e-6);
+        assertEquals(walked.getTotalWealthUsd(), aggregated.getTotalWealthUsd(), 1e-6);
+    }
+}
@@ -0,0 +1,33 @@
+package org.groupm.ewallet.webapp.api;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.groupm.ewallet.webapp.connector.HttpClientRegistry;
+
+/**
+ * Monitoring endpoints of the web application.
+ */
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@RequestScoped
+public class AdminResource {
+
+    @Inject
+    private HttpClientRegistry http;
+
+    /**
+     * GET /api/admin/http - Outbound connection pools per upstream (backend,
+     * CoinGecko, Finnhub): leased, idle, pending, max, request and acquire
+     * timeout counts.
+     */
+    @GET
+    @Path("/http")
+    public Response getHttpClientStats() {
+        return Response.ok(http.getClientStats()).build();
+    }
+}
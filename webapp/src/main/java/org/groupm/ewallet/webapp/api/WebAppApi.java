@@ -0,0 +1,8 @@
+package org.groupm.ewallet.webapp.api;
+
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+@ApplicationPath("/api")
+public class WebAppApi extends Application {
+}
@@ -0,0 +1,48 @@
+package org.groupm.ewallet.webapp.connector;
+
+import java.util.Objects;
+
+/**
+ * Reference to a priced asset: CoinGecko id (bitcoin) or ticker (AAPL), plus
+ * its type (crypto, stock, etf). Used as key for bulk price lookups.
+ */
+public class AssetRef {
+
+    private final String idOrSymbol;
+    private final String type;
+
+    public AssetRef(String idOrSymbol, String type) {
+        this.idOrSymbol = idOrSymbol;
+        this.type = type != null ? type.toLowerCase() : "";
+    }
+
+    public String getIdOrSymbol() {
+        return idOrSymbol;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AssetRef)) {
+            return false;
+        }
+        AssetRef other = (AssetRef) o;
+        return Objects.equals(idOrSymbol, other.idOrSymbol) && type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idOrSymbol, type);
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + idOrSymbol;
+    }
+}
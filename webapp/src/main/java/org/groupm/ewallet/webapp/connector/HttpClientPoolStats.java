@@ -0,0 +1,58 @@
+package org.groupm.ewallet.webapp.connector;
+
+/**
+ * Point-in-time view of one upstream's HTTP connection pool, serialized by
+ * the admin endpoint.
+ */
+public class HttpClientPoolStats {
+
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final int maxConnections;
+    private final long requests;
+    private final long failures;
+    private final long acquireTimeouts;
+
+    public HttpClientPoolStats(int leased, int idle, int pending, int maxConnections, long requests,
+            long failures, long acquireTimeouts) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.maxConnections = maxConnections;
+        this.requests = requests;
+        this.failures = failures;
+        this.acquireTimeouts = acquireTimeouts;
+    }
+
+    /** Connections currently used by a request. */
+    public int getLeased() {
+        return leased;
+    }
+
+    /** Kept-alive connections waiting in the pool. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** Requests waiting for a connection. */
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getAcquireTimeouts() {
+        return acquireTimeouts;
+    }
+}
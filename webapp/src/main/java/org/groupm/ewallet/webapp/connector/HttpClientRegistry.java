@@ -0,0 +1,80 @@
+package org.groupm.ewallet.webapp.connector;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Application-scoped holder of the shared HTTP clients, one per upstream.
+ * Replaces the per-call ClientBuilder.newClient() previously done in every
+ * service method.
+ */
+@ApplicationScoped
+public class HttpClientRegistry {
+
+    // Backend webservice: same host, many calls per page render
+    private static final int BACKEND_MAX_CONNECTIONS = 32;
+    private static final long BACKEND_CONNECT_TIMEOUT_MS = 2_000;
+    // Must stay above the backend's 10 s wait on a request already running
+    // with the same Idempotency-Key (IdempotencyManager.WAIT_MILLIS in the
+    // webservice): a retried POST gets its answer (or a 409) instead of
+    // timing out again
+    private static final long BACKEND_READ_TIMEOUT_MS = 15_000;
+
+    // External market APIs: rate-limited, keep concurrency low
+    private static final int MARKET_MAX_CONNECTIONS = 8;
+    private static final long MARKET_CONNECT_TIMEOUT_MS = 3_000;
+    private static final long MARKET_READ_TIMEOUT_MS = 10_000;
+
+    private static final long ACQUIRE_TIMEOUT_MS = 5_000;
+
+    private LimitedHttpClient backend;
+    private LimitedHttpClient coinGecko;
+    private LimitedHttpClient finnhub;
+
+    @PostConstruct
+    public void init() {
+        backend = new LimitedHttpClient("backend", BACKEND_MAX_CONNECTIONS,
+                BACKEND_CONNECT_TIMEOUT_MS, BACKEND_READ_TIMEOUT_MS, ACQUIRE_TIMEOUT_MS);
+        coinGecko = new LimitedHttpClient("coingecko", MARKET_MAX_CONNECTIONS,
+                MARKET_CONNECT_TIMEOUT_MS, MARKET_READ_TIMEOUT_MS, ACQUIRE_TIMEOUT_MS);
+        finnhub = new LimitedHttpClient("finnhub", MARKET_MAX_CONNECTIONS,
+                MARKET_CONNECT_TIMEOUT_MS, MARKET_READ_TIMEOUT_MS, ACQUIRE_TIMEOUT_MS);
+        System.out.println("[HttpClientRegistry] Shared HTTP clients initialized");
+    }
+
+    public LimitedHttpClient backend() {
+        return backend;
+    }
+
+    public LimitedHttpClient coinGecko() {
+        return coinGecko;
+    }
+
+    public LimitedHttpClient finnhub() {
+        return finnhub;
+    }
+
+    /**
+     * Connection pool metrics (leased/idle/pending/max/...) for every
+     * upstream.
+     */
+    public Map<String, HttpClientPoolStats> getClientStats() {
+        Map<String, HttpClientPoolStats> stats = new LinkedHashMap<>();
+        for (LimitedHttpClient c : new LimitedHttpClient[] { backend, coinGecko, finnhub }) {
+            stats.put(c.getName(), c.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backend.close();
+        coinGecko.close();
+        finnhub.close();
+        System.out.println("[HttpClientRegistry] Shared HTTP clients closed");
+    }
+}
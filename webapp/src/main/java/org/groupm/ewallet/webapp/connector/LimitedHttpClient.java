@@ -0,0 +1,104 @@
+package org.groupm.ewallet.webapp.connector;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Shared HTTP client for one upstream (backend, CoinGecko, Finnhub), backed
+ * by a bounded connection pool.
+ *
+ * A single JAX-RS Client is built once on Jersey's Apache connector with a
+ * PoolingHttpClientConnectionManager of {@code maxConnections} connections.
+ * Every request leases a pooled connection for its duration, so the pool
+ * bounds both the requests in flight and the keep-alive connections. Callers
+ * beyond the limit wait (pending) up to the acquire timeout, then fail with a
+ * ProcessingException caused by a ConnectionPoolTimeoutException.
+ *
+ * Callers must fully read the response entity (or close the Response) inside
+ * the call, otherwise the connection is not returned to the pool.
+ */
+public class LimitedHttpClient implements AutoCloseable {
+
+    private final String name;
+    private final Client client;
+    private final PoolingHttpClientConnectionManager pool;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+
+    public LimitedHttpClient(String name, int maxConnections, long connectTimeoutMs, long readTimeoutMs,
+            long acquireTimeoutMs) {
+        this.name = name;
+        this.pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxConnections);
+
+        ClientConfig config = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, pool)
+                .property(ApacheClientProperties.REQUEST_CONFIG, RequestConfig.custom()
+                        .setConnectionRequestTimeout((int) acquireTimeoutMs)
+                        .build())
+                .property(ClientProperties.CONNECT_TIMEOUT, (int) connectTimeoutMs)
+                .property(ClientProperties.READ_TIMEOUT, (int) readTimeoutMs);
+        this.client = ClientBuilder.newClient(config);
+    }
+
+    /**
+     * Runs one call against the given URL. The connection is leased from the
+     * pool when the request is sent.
+     */
+    public <T> T execute(String url, Function<WebTarget, T> call) {
+        requests.increment();
+        try {
+            return call.apply(client.target(url));
+        } catch (RuntimeException e) {
+            failures.increment();
+            if (isAcquireTimeout(e)) {
+                acquireTimeouts.increment();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isAcquireTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectionPoolTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Snapshot of the pool (leased/idle/pending/max) and request counters.
+     */
+    public HttpClientPoolStats getStats() {
+        PoolStats totals = pool.getTotalStats();
+        return new HttpClientPoolStats(totals.getLeased(), totals.getAvailable(), totals.getPending(),
+                totals.getMax(), requests.sum(), failures.sum(), acquireTimeouts.sum());
+    }
+
+    @Override
+    public void close() {
+        // The connection manager is not shared, closing the client shuts it down
+        client.close();
+    }
+}
@@ -1,17 +1,21 @@
 package org.groupm.ewallet.webapp.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.json.Json;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.groupm.ewallet.webapp.connector.HttpClientRegistry;
 
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * Service for backend REST API calls (users, portfolios, assets, transactions).
@@ -21,6 +25,138 @@ public class BackendApiService {
 
     private static final String BASE_URL = "http://localhost:8080/webservice/api";
 
+    /** Header carrying the keyset cursor of paginated backend lists. */
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Page size requested when walking a paginated list (backend maximum). */
+    private static final int PAGE_SIZE = 1000;
+
+    /** Header that lets the backend apply a POST at most once across retries. */
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Attempts of an idempotent POST (first call included). */
+    private static final int IDEMPOTENT_ATTEMPTS = 3;
+
+    /** Pause before the second attempt, doubled before each further one (plus jitter). */
+    private static final long IDEMPOTENT_BACKOFF_MS = 500;
+
+    @Inject
+    private HttpClientRegistry http;
+
+    // ============================================================
+    // HTTP HELPERS (shared client)
+    // ============================================================
+
+    /**
+     * Status and body of a backend response, read inside the call so that
+     * the connection can be kept alive.
+     */
+    private static class HttpResult {
+        private final int status;
+        private final String body;
+        private final String nextCursor;
+
+        HttpResult(int status, String body, String nextCursor) {
+            this.status = status;
+            this.body = body;
+            this.nextCursor = nextCursor;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        /** Cursor of the next page of a paginated list, or null on the last page. */
+        String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    private HttpResult send(String path, Function<WebTarget, Response> call) {
+        return http.backend().execute(BASE_URL + path, target -> {
+            try (Response response = call.apply(target)) {
+                String body = response.hasEntity() ? response.readEntity(String.class) : null;
+                return new HttpResult(response.getStatus(), body, response.getHeaderString(NEXT_CURSOR_HEADER));
+            }
+        });
+    }
+
+    private HttpResult get(String path) {
+        return send(path, target -> target.request(MediaType.APPLICATION_JSON_TYPE).get());
+    }
+
+    private HttpResult post(String path, String json) {
+        return send(path, target -> target.request(MediaType.APPLICATION_JSON).post(Entity.json(json)));
+    }
+
+    /**
+     * POST sent with the same Idempotency-Key on every attempt, so it can be
+     * retried after a timeout: if the first attempt went through, the backend
+     * returns its response instead of applying the request again. Also
+     * retried on 409 (first attempt still running) and 5xx (nothing applied),
+     * after an increasing pause so retries do not pile up on a busy backend.
+     */
+    private HttpResult postIdempotent(String path, String json) {
+        String key = UUID.randomUUID().toString();
+        for (int attempt = 1;; attempt++) {
+            try {
+                HttpResult result = send(path, target -> target.request(MediaType.APPLICATION_JSON)
+                        .header(IDEMPOTENCY_KEY_HEADER, key)
+                        .post(Entity.json(json)));
+                boolean retryable = result.getStatus() == 409 || result.getStatus() >= 500;
+                if (!retryable || attempt == IDEMPOTENT_ATTEMPTS) {
+                    return result;
+                }
+            } catch (ProcessingException e) {
+                if (attempt == IDEMPOTENT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            backOff(path, attempt);
+        }
+    }
+
+    private static void backOff(String path, int attempt) {
+        long pause = IDEMPOTENT_BACKOFF_MS << (attempt - 1);
+        try {
+            Thread.sleep(pause + ThreadLocalRandom.current().nextLong(pause / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted before retrying POST " + path, e);
+        }
+    }
+
+    private HttpResult put(String path, String json) {
+        return send(path, target -> target.request(MediaType.APPLICATION_JSON).put(Entity.json(json)));
+    }
+
+    private HttpResult delete(String path) {
+        return send(path, target -> target.request().delete());
+    }
+
+    /**
+     * Reads every page of a keyset-paginated backend list and returns the
+     * concatenated JSON array, or null if a page could not be read.
+     */
+    private jakarta.json.JsonArray getAllPages(String path) {
+        var all = Json.createArrayBuilder();
+        String cursor = null;
+        do {
+            String url = path + "?limit=" + PAGE_SIZE + (cursor != null ? "&after=" + cursor : "");
+            HttpResult res = get(url);
+            if (res.getStatus() != 200) {
+                return null;
+            }
+            Json.createReader(new StringReader(res.getBody())).readArray().forEach(all::add);
+            cursor = res.getNextCursor();
+        } while (cursor != null);
+        return all.build();
+    }
+
     // ============================================================
     // USER OPERATIONS
     // ============================================================
@@ -31,20 +167,17 @@ public class BackendApiService {
      */
     public String login(String email, String password) {
         try {
-            Client client = ClientBuilder.newClient();
-            WebTarget target = client.target(BASE_URL + "/users/login");
-
             String payload = """
                         {"email":"%s","password":"%s"}
                     """.formatted(email, password);
 
-            Response response = target.request(MediaType.APPLICATION_JSON).post(Entity.json(payload));
+            HttpResult response = post("/users/login", payload);
 
             if (response.getStatus() != 200) {
                 return null;
             }
 
-            String json = response.readEntity(String.class);
+            String json = response.getBody();
             var obj = Json.createReader(new StringReader(json)).readObject();
 
             if (obj.containsKey("userID")) {
@@ -66,15 +199,12 @@ public class BackendApiService {
      * Registers a new user in the backend.
      */
     public boolean registerUser(String firstname, String lastname, String email, String password) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            WebTarget target = client.target(BASE_URL + "/users/register");
-
+        try {
             String payload = """
                         {"firstName":"%s","lastName":"%s","email":"%s","password":"%s"}
                     """.formatted(firstname, lastname, email, password);
 
-            Response response = target.request(MediaType.APPLICATION_JSON).post(Entity.json(payload));
+            HttpResult response = post("/users/register", payload);
 
             return response.getStatus() == 200 || response.getStatus() == 201;
 
@@ -88,9 +218,8 @@ public class BackendApiService {
      * Deletes a user account from the backend.
      */
     public boolean deleteUser(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/users/" + userId);
-            Response response = target.request().delete();
+        try {
+            HttpResult response = delete("/users/" + userId);
             return response.getStatus() == 200 || response.getStatus() == 204;
         } catch (Exception e) {
             e.printStackTrace();
@@ -103,15 +232,14 @@ public class BackendApiService {
      * JsonObject.
      */
     public jakarta.json.JsonObject getUserDetails(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/users/" + userId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/users/" + userId);
 
             if (res.getStatus() != 200) {
                 return null;
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             return Json.createReader(new StringReader(json)).readObject();
         } catch (Exception e) {
             e.printStackTrace();
@@ -123,9 +251,7 @@ public class BackendApiService {
      * Updates user information in the backend.
      */
     public boolean updateUser(String userId, String firstname, String lastname, String email, String password) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/users/" + userId);
-
+        try {
             var builder = Json.createObjectBuilder();
             // Assuming the backend User object fields match these keys
             // UserResource expects a User object. Jackson/JSON-B maps "firstName" to
@@ -141,7 +267,7 @@ public class BackendApiService {
 
             String payload = builder.build().toString();
 
-            Response response = target.request(MediaType.APPLICATION_JSON).put(Entity.json(payload));
+            HttpResult response = put("/users/" + userId, payload);
             return response.getStatus() == 200;
         } catch (Exception e) {
             e.printStackTrace();
@@ -153,15 +279,14 @@ public class BackendApiService {
      * Retrieves the WealthTracker object for a given user.
      */
     public jakarta.json.JsonObject getWealthForUser(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/wealth/" + userId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/wealth/" + userId);
 
             if (res.getStatus() != 200) {
                 return null;
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             return Json.createReader(new StringReader(json)).readObject();
         } catch (Exception e) {
             e.printStackTrace();
@@ -173,17 +298,14 @@ public class BackendApiService {
      * Retrieves the list of accounts for a given user from the backend service.
      */
     public List<org.groupm.ewallet.webapp.model.LocalAccount> getAccountsForUser(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            WebTarget target = client.target(BASE_URL + "/users/" + userId);
-
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/users/" + userId);
 
             if (res.getStatus() != 200) {
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
 
             var obj = Json.createReader(new StringReader(json)).readObject();
             if (!obj.containsKey("accounts") || obj.isNull("accounts")) {
@@ -213,13 +335,12 @@ public class BackendApiService {
     }
 
     public boolean createAccount(String userId, String type, String name) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/accounts");
-            String accountId = java.util.UUID.randomUUID().toString();
+        try {
+            String accountId = org.groupm.ewallet.model.TimeOrderedId.next();
             String payload = """
                     {"accountID":"%s","userID":"%s","type":"%s","name":"%s","balance":0.0}
                     """.formatted(accountId, userId, type, name);
-            Response response = target.request(MediaType.APPLICATION_JSON).post(Entity.json(payload));
+            HttpResult response = post("/accounts", payload);
             return response.getStatus() == 200 || response.getStatus() == 201;
         } catch (Exception e) {
             e.printStackTrace();
@@ -228,9 +349,8 @@ public class BackendApiService {
     }
 
     public boolean deleteAccount(String accountId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/accounts/" + accountId);
-            Response response = target.request().delete();
+        try {
+            HttpResult response = delete("/accounts/" + accountId);
             return response.getStatus() == 200 || response.getStatus() == 204;
         } catch (Exception e) {
             e.printStackTrace();
@@ -242,9 +362,8 @@ public class BackendApiService {
      * Deletes a portfolio from the backend.
      */
     public boolean deletePortfolio(int portfolioId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/portfolios/" + portfolioId);
-            Response response = target.request().delete();
+        try {
+            HttpResult response = delete("/portfolios/" + portfolioId);
             return response.getStatus() == 200 || response.getStatus() == 204;
         } catch (Exception e) {
             e.printStackTrace();
@@ -256,9 +375,8 @@ public class BackendApiService {
      * Deletes a transaction from the backend.
      */
     public boolean deleteTransaction(String transactionId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/transactions/" + transactionId);
-            Response response = target.request().delete();
+        try {
+            HttpResult response = delete("/transactions/" + transactionId);
             return response.getStatus() == 200 || response.getStatus() == 204;
         } catch (Exception e) {
             e.printStackTrace();
@@ -267,14 +385,11 @@ public class BackendApiService {
     }
 
     public List<org.groupm.ewallet.webapp.model.LocalTransaction> getTransactionsForAccount(String accountId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/transactions/account/" + accountId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
-            if (res.getStatus() != 200) {
+        try {
+            var array = getAllPages("/transactions/account/" + accountId);
+            if (array == null) {
                 return List.of();
             }
-            String json = res.readEntity(String.class);
-            var array = Json.createReader(new StringReader(json)).readArray();
             List<org.groupm.ewallet.webapp.model.LocalTransaction> out = new ArrayList<>();
 
             for (var tVal : array) {
@@ -310,17 +425,43 @@ public class BackendApiService {
         }
     }
 
+    /**
+     * Daily total cash balance of a user over [from, to], read from the
+     * backend's materialized daily balances.
+     *
+     * @return one entry per day, or null if the backend call failed
+     */
+    public java.util.Map<java.time.LocalDate, Double> getBalanceHistoryForUser(String userId,
+            java.time.LocalDate from, java.time.LocalDate to) {
+        try {
+            HttpResult res = get("/accounts/user/" + userId + "/balance-history?from=" + from + "&to=" + to);
+            if (res.getStatus() != 200) {
+                return null;
+            }
+            var array = Json.createReader(new StringReader(res.getBody())).readArray();
+            java.util.Map<java.time.LocalDate, Double> out = new java.util.TreeMap<>();
+            for (var pVal : array) {
+                var p = pVal.asJsonObject();
+                out.put(java.time.LocalDate.parse(p.getString("date")),
+                        p.getJsonNumber("balance").doubleValue());
+            }
+            return out;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     public List<org.groupm.ewallet.webapp.model.LocalTransaction> getTransactionsForUser(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
+        try {
             // GET /api/transactions/user/{userId}
-            WebTarget target = client.target(BASE_URL + "/transactions/user/" + userId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+            HttpResult res = get("/transactions/user/" + userId);
 
             if (res.getStatus() != 200) {
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var array = Json.createReader(new StringReader(json)).readArray();
             List<org.groupm.ewallet.webapp.model.LocalTransaction> out = new ArrayList<>();
 
@@ -375,15 +516,12 @@ public class BackendApiService {
      * Performs a bank transfer between two backend accounts.
      */
     public boolean makeTransfer(String fromAccount, String toAccount, double amount) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            WebTarget target = client.target(BASE_URL + "/transactions/transfer");
-
+        try {
             String payload = """
                         {"fromAccount":"%s","toAccount":"%s","amount":%f}
                     """.formatted(fromAccount, toAccount, amount);
 
-            Response response = target.request(MediaType.APPLICATION_JSON).post(Entity.json(payload));
+            HttpResult response = postIdempotent("/transactions/transfer", payload);
 
             return response.getStatus() == 200 || response.getStatus() == 201;
 
@@ -394,9 +532,8 @@ public class BackendApiService {
     }
 
     public boolean createTransaction(String accountId, double amount, String type, String description) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/transactions");
-            String txnId = java.util.UUID.randomUUID().toString();
+        try {
+            String txnId = org.groupm.ewallet.model.TimeOrderedId.next();
 
             // Note: 'usage' field often mapped to 'type' in backend or handled logic
             // Assuming Transaction entity matches JSON.
@@ -407,7 +544,7 @@ public class BackendApiService {
                         {"transactionID":"%s","type":"%s","amount":%f,"description":"%s","accountID":"%s"}
                     """.formatted(txnId, type, amount, description, accountId);
 
-            Response response = target.request(MediaType.APPLICATION_JSON).post(Entity.json(json));
+            HttpResult response = postIdempotent("/transactions", json);
             return response.getStatus() == 200 || response.getStatus() == 201;
         } catch (Exception e) {
             e.printStackTrace();
@@ -423,15 +560,14 @@ public class BackendApiService {
      * Returns the list of portfolio ids for a given user.
      */
     public List<Integer> getPortfoliosForUser(String userId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/users/" + userId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/users/" + userId);
 
             if (res.getStatus() != 200) {
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var obj = Json.createReader(new StringReader(json)).readObject();
 
             if (!obj.containsKey("portfolios")) {
@@ -458,21 +594,19 @@ public class BackendApiService {
      * Creates a new portfolio for the given user with an optional name.
      */
     public Integer createPortfolioForUser(String userId, String name) {
-        try (Client client = ClientBuilder.newClient()) {
+        try {
             String payload = String.format(
                     "{\"userID\":\"%s\",\"name\":%s}",
                     userId,
                     name != null ? "\"" + name + "\"" : "null");
 
-            Response response = client.target(BASE_URL + "/portfolios")
-                    .request(MediaType.APPLICATION_JSON)
-                    .post(Entity.json(payload));
+            HttpResult response = post("/portfolios", payload);
 
             if (response.getStatus() != 200 && response.getStatus() != 201) {
                 return null;
             }
 
-            String json = response.readEntity(String.class);
+            String json = response.getBody();
             var obj = Json.createReader(new StringReader(json)).readObject();
             return obj.getInt("id");
 
@@ -486,15 +620,14 @@ public class BackendApiService {
      * Gets portfolio details by ID.
      */
     public org.groupm.ewallet.webapp.model.Portfolio getPortfolioById(int portfolioId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/portfolios/" + portfolioId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/portfolios/" + portfolioId);
 
             if (res.getStatus() != 200) {
                 return null;
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var obj = Json.createReader(new StringReader(json)).readObject();
 
             int id = obj.getInt("id");
@@ -512,13 +645,12 @@ public class BackendApiService {
     }
 
     public org.groupm.ewallet.webapp.model.LocalAccount getAccount(String accountId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/accounts/" + accountId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/accounts/" + accountId);
             if (res.getStatus() != 200) {
                 return null;
             }
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var acc = Json.createReader(new StringReader(json)).readObject();
 
             String id = acc.getString("accountID");
@@ -541,17 +673,15 @@ public class BackendApiService {
      * Returns a display-ready list of assets for a given portfolio.
      */
     public List<String> getAssetsForPortfolio(int portfolioId) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            WebTarget target = client.target(BASE_URL + "/portfolios/" + portfolioId + "/assets");
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/portfolios/" + portfolioId + "/assets");
 
             if (res.getStatus() != 200) {
                 System.err.println("[BackendApiService] Failed to get assets. Status: " + res.getStatus());
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             System.out.println("[BackendApiService] Assets JSON: " + json);
             var array = Json.createReader(new StringReader(json)).readArray();
 
@@ -581,16 +711,14 @@ public class BackendApiService {
      * Retrieves the list of assets for a given portfolio as rich objects.
      */
     public List<org.groupm.ewallet.webapp.model.PortfolioAsset> getPortfolioAssetsFromBackend(int portfolioId) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            WebTarget target = client.target(BASE_URL + "/portfolios/" + portfolioId + "/assets");
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/portfolios/" + portfolioId + "/assets");
 
             if (res.getStatus() != 200) {
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var array = Json.createReader(new StringReader(json)).readArray();
 
             List<org.groupm.ewallet.webapp.model.PortfolioAsset> out = new ArrayList<>();
@@ -638,33 +766,29 @@ public class BackendApiService {
             double qty,
             double unitPrice,
             String symbol) {
-        try (Client client = ClientBuilder.newClient()) {
-
-            String url = BASE_URL + "/portfolios/" + portfolioId + "/assets";
+        try {
+            String path = "/portfolios/" + portfolioId + "/assets";
             System.out.println("[BackendApiService] Adding asset to portfolio " + portfolioId);
-            System.out.println("  URL: " + url);
+            System.out.println("  URL: " + BASE_URL + path);
             System.out.println("  Name: " + name);
             System.out.println("  Type: " + type);
             System.out.println("  Quantity: " + qty);
             System.out.println("  UnitPrice: " + unitPrice);
             System.out.println("  Symbol: " + symbol);
 
-            WebTarget target = client.target(url);
-
             String payload = """
                         {"name":"%s","type":"%s","quantity":%f,"unitPrice":%f,"symbol":"%s"}
                     """.formatted(name, type, qty, unitPrice, symbol != null ? symbol : "");
 
             System.out.println("  Payload: " + payload);
 
-            Response response = target.request(MediaType.APPLICATION_JSON)
-                    .post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+            HttpResult response = post(path, payload);
 
             int status = response.getStatus();
             System.out.println("  Response status: " + status);
 
             if (status != 200 && status != 201) {
-                String responseBody = response.readEntity(String.class);
+                String responseBody = response.getBody();
                 System.err.println("  Backend rejected asset addition. Response: " + responseBody);
             }
 
@@ -686,9 +810,7 @@ public class BackendApiService {
      */
     public boolean recordPortfolioTransaction(int portfolioId, String assetName, String symbol,
             String type, double quantity, double unitPrice) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/portfolio-transactions");
-
+        try {
             String payload = String.format(
                     "{\"portfolioId\":%d,\"assetName\":\"%s\",\"symbol\":\"%s\",\"type\":\"%s\",\"quantity\":%f,\"unitPrice\":%f}",
                     portfolioId,
@@ -700,14 +822,13 @@ public class BackendApiService {
 
             System.out.println("[BackendApiService] Recording portfolio transaction: " + payload);
 
-            Response response = target.request(MediaType.APPLICATION_JSON)
-                    .post(Entity.json(payload));
+            HttpResult response = post("/portfolio-transactions", payload);
 
             int status = response.getStatus();
             System.out.println("[BackendApiService] Portfolio transaction response status: " + status);
 
             if (status != 200 && status != 201) {
-                String responseBody = response.readEntity(String.class);
+                String responseBody = response.getBody();
                 System.err.println("[BackendApiService] Failed to record portfolio transaction: " + responseBody);
             }
 
@@ -724,15 +845,14 @@ public class BackendApiService {
      * Retrieves all portfolio transactions for a given portfolio.
      */
     public List<org.groupm.ewallet.webapp.model.PortfolioTrade> getPortfolioTransactions(int portfolioId) {
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(BASE_URL + "/portfolio-transactions/portfolio/" + portfolioId);
-            Response res = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+        try {
+            HttpResult res = get("/portfolio-transactions/portfolio/" + portfolioId);
 
             if (res.getStatus() != 200) {
                 return List.of();
             }
 
-            String json = res.readEntity(String.class);
+            String json = res.getBody();
             var array = Json.createReader(new StringReader(json)).readArray();
             List<org.groupm.ewallet.webapp.model.PortfolioTrade> out = new ArrayList<>();
 
@@ -1,16 +1,21 @@
 package org.groupm.ewallet.webapp.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.json.Json;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import org.groupm.ewallet.webapp.connector.ExternalAsset;
+import org.groupm.ewallet.webapp.connector.HttpClientRegistry;
 
 import java.io.StringReader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for CoinGecko API integration (cryptocurrency data).
@@ -20,15 +25,25 @@ public class CoinGeckoService {
 
     private static final String API_URL = "https://api.coingecko.com/api/v3";
 
+    /** Max ids per /simple/price request (keeps the URL well under limits). */
+    private static final int MAX_IDS_PER_REQUEST = 100;
+
+    @Inject
+    private HttpClientRegistry http;
+
+    /**
+     * GET request through the shared pooled client, returning the raw JSON body.
+     */
+    private String getJson(String url) {
+        return http.coinGecko().execute(url, target -> target.request(MediaType.APPLICATION_JSON).get(String.class));
+    }
+
     /**
      * Loads a list of crypto assets from CoinGecko.
      */
     public List<ExternalAsset> loadCryptoAssets() {
         try {
-            Client client = ClientBuilder.newClient();
-            WebTarget target = client.target(API_URL + "/coins/markets?vs_currency=usd");
-
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(API_URL + "/coins/markets?vs_currency=usd");
             var arr = Json.createReader(new StringReader(json)).readArray();
 
             List<ExternalAsset> list = new ArrayList<>();
@@ -53,11 +68,8 @@ public class CoinGeckoService {
      */
     public double getCryptoPrice(String apiId) {
         try {
-            Client client = ClientBuilder.newClient();
             String url = API_URL + "/simple/price?ids=" + apiId + "&vs_currencies=usd";
-
-            WebTarget target = client.target(url);
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(url);
 
             var obj = Json.createReader(new StringReader(json)).readObject();
 
@@ -76,6 +88,43 @@ public class CoinGeckoService {
         }
     }
 
+    /**
+     * Requests the USD prices of several crypto assets, batching the ids into
+     * comma-separated /simple/price calls.
+     *
+     * @return price per requested id; ids without a price are absent
+     */
+    public Map<String, Double> getCryptoPrices(Collection<String> apiIds) {
+        Map<String, Double> prices = new HashMap<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(apiIds));
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_REQUEST) {
+            List<String> batch = ids.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, ids.size()));
+            try {
+                List<String> encoded = new ArrayList<>();
+                for (String id : batch) {
+                    encoded.add(URLEncoder.encode(id, StandardCharsets.UTF_8));
+                }
+                String url = API_URL + "/simple/price?ids=" + String.join(",", encoded) + "&vs_currencies=usd";
+                String json = getJson(url);
+
+                var obj = Json.createReader(new StringReader(json)).readObject();
+
+                for (String id : batch) {
+                    if (obj.containsKey(id)) {
+                        var priceObj = obj.getJsonObject(id);
+                        if (priceObj.containsKey("usd")) {
+                            prices.put(id, priceObj.getJsonNumber("usd").doubleValue());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return prices;
+    }
+
     /**
      * Requests historical prices for a crypto asset.
      * 
@@ -85,11 +134,8 @@ public class CoinGeckoService {
      */
     public List<Double> getHistoricalCryptoPrice(String apiId, int days) {
         try {
-            Client client = ClientBuilder.newClient();
             String url = API_URL + "/coins/" + apiId + "/market_chart?vs_currency=usd&days=" + days;
-
-            WebTarget target = client.target(url);
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(url);
 
             var reader = Json.createReader(new StringReader(json));
             var obj = reader.readObject();
@@ -1,16 +1,24 @@
 package org.groupm.ewallet.webapp.service;
 
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.json.Json;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import org.groupm.ewallet.webapp.connector.ExternalAsset;
+import org.groupm.ewallet.webapp.connector.HttpClientRegistry;
 
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Service for Finnhub API integration (stock and ETF data).
@@ -21,6 +29,22 @@ public class FinnhubService {
     private static final String API_URL = "https://finnhub.io/api/v1";
     private static final String API_KEY = System.getenv("FINNHUB_API_KEY");
 
+    /** Max quote requests running at the same time for one bulk lookup. */
+    private static final int MAX_PARALLEL_QUOTES = 4;
+
+    @Inject
+    private HttpClientRegistry http;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    /**
+     * GET request through the shared pooled client, returning the raw JSON body.
+     */
+    private String getJson(String url) {
+        return http.finnhub().execute(url, target -> target.request(MediaType.APPLICATION_JSON).get(String.class));
+    }
+
     /**
      * Loads a list of US stocks from Finnhub.
      */
@@ -36,11 +60,8 @@ public class FinnhubService {
                         new ExternalAsset("Google LLC", "GOOGL", "GOOGL"));
             }
 
-            Client client = ClientBuilder.newClient();
             String url = API_URL + "/stock/symbol?exchange=US&token=" + API_KEY;
-
-            WebTarget target = client.target(url);
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(url);
 
             var arr = Json.createReader(new StringReader(json)).readArray();
             List<ExternalAsset> list = new ArrayList<>();
@@ -157,11 +178,8 @@ public class FinnhubService {
                 return Math.abs(symbol.hashCode() % 500) + 50.0;
             }
 
-            Client client = ClientBuilder.newClient();
             String url = API_URL + "/quote?symbol=" + symbol + "&token=" + API_KEY;
-
-            WebTarget target = client.target(url);
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(url);
 
             var obj = Json.createReader(new StringReader(json)).readObject();
 
@@ -177,6 +195,37 @@ public class FinnhubService {
         }
     }
 
+    /**
+     * Requests the current prices of several stocks/ETFs. Finnhub has no
+     * multi-symbol quote endpoint, so quotes are fanned out over at most
+     * MAX_PARALLEL_QUOTES workers.
+     *
+     * @return price per requested symbol (0.0 when unavailable)
+     */
+    public Map<String, Double> getStockEtfPrices(Collection<String> symbols) {
+        Map<String, Double> prices = new ConcurrentHashMap<>();
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        symbols.stream().filter(Objects::nonNull).distinct().forEach(pending::add);
+
+        int workers = Math.min(MAX_PARALLEL_QUOTES, pending.size());
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            running.add(CompletableFuture.runAsync(() -> {
+                String symbol;
+                while ((symbol = pending.poll()) != null) {
+                    prices.put(symbol, getStockEtfPrice(symbol));
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return prices;
+    }
+
     /**
      * Requests historical prices for a stock/ETF asset using Candle endpoint.
      * 
@@ -196,12 +245,9 @@ public class FinnhubService {
             long to = System.currentTimeMillis() / 1000;
             long from = to - (days * 86400L);
 
-            Client client = ClientBuilder.newClient();
             String url = API_URL + "/stock/candle?symbol=" + symbol + "&resolution=D&from=" + from + "&to=" + to
                     + "&token=" + API_KEY;
-
-            WebTarget target = client.target(url);
-            String json = target.request(MediaType.APPLICATION_JSON).get(String.class);
+            String json = getJson(url);
 
             var reader = Json.createReader(new StringReader(json));
             var obj = reader.readObject();
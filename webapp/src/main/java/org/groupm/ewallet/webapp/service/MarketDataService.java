@@ -2,9 +2,14 @@ package org.groupm.ewallet.webapp.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.groupm.ewallet.webapp.connector.AssetRef;
 import org.groupm.ewallet.webapp.connector.ExternalAsset;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Facade service for external market data APIs (crypto, stocks, ETFs).
@@ -19,6 +24,9 @@ public class MarketDataService {
     @Inject
     private FinnhubService finnhub;
 
+    @Inject
+    private PriceCacheService priceCache;
+
     /**
      * High-level API used by the UI to load external assets by type.
      */
@@ -42,6 +50,43 @@ public class MarketDataService {
         };
     }
 
+    /**
+     * Bulk price lookup. Cached prices are served directly; the misses go
+     * through the cache's single-flight map and are loaded in one CoinGecko
+     * call (per 100 ids) and one bounded fan-out of Finnhub quotes.
+     *
+     * @return price per ref (0.0 when unavailable)
+     */
+    public Map<AssetRef, Double> getPrices(Collection<AssetRef> refs) {
+        return priceCache.getCachedPrices(refs, this::loadPrices);
+    }
+
+    private Map<AssetRef, Double> loadPrices(List<AssetRef> refs) {
+        Map<AssetRef, Double> prices = new HashMap<>();
+        List<AssetRef> cryptoRefs = new ArrayList<>();
+        List<AssetRef> quoteRefs = new ArrayList<>();
+
+        for (AssetRef ref : refs) {
+            switch (ref.getType()) {
+                case "crypto" -> cryptoRefs.add(ref);
+                case "stock", "etf" -> quoteRefs.add(ref);
+                default -> prices.put(ref, 0.0);
+            }
+        }
+
+        if (!cryptoRefs.isEmpty()) {
+            Map<String, Double> loaded = coinGecko.getCryptoPrices(
+                    cryptoRefs.stream().map(AssetRef::getIdOrSymbol).toList());
+            cryptoRefs.forEach(ref -> prices.put(ref, loaded.getOrDefault(ref.getIdOrSymbol(), 0.0)));
+        }
+        if (!quoteRefs.isEmpty()) {
+            Map<String, Double> loaded = finnhub.getStockEtfPrices(
+                    quoteRefs.stream().map(AssetRef::getIdOrSymbol).toList());
+            quoteRefs.forEach(ref -> prices.put(ref, loaded.getOrDefault(ref.getIdOrSymbol(), 0.0)));
+        }
+        return prices;
+    }
+
     /**
      * Retrieves historical prices for a given asset.
      */
@@ -1,33 +1,81 @@
 package org.groupm.ewallet.webapp.service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
 import jakarta.ejb.Singleton;
 import jakarta.ejb.Startup;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.inject.Inject;
+import org.groupm.ewallet.webapp.connector.AssetRef;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * Price caching service that stores asset prices on-demand.
  * This reduces API calls to external services and provides consistent pricing
  * even when APIs are rate-limited or require premium subscriptions.
- * 
- * Cache operates in lazy mode: prices are fetched only when requested.
+ *
+ * Concurrency is bean-managed: lookups never take the singleton lock.
+ * - Concurrent misses on the same key share a single upstream call
+ * (single-flight).
+ * - Hot entries are refreshed in the background shortly before they expire
+ * (refresh-ahead).
+ * - Expired entries are still served for a grace period while a background
+ * reload runs (stale-while-revalidate).
  */
 @Singleton
 @Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class PriceCacheService {
 
+    /** A price is fresh for 5 minutes. */
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    /** Hot entries are reloaded during the last minute of their TTL. */
+    private static final long REFRESH_AHEAD_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Expired prices may still be served for 30 minutes while reloading. */
+    private static final long MAX_STALE_MS = TimeUnit.MINUTES.toMillis(30);
+
+    /** Number of hits since the last load for an entry to count as hot. */
+    private static final int HOT_THRESHOLD = 3;
+
     @Inject
     private MarketDataService marketData;
 
+    @Resource
+    private ManagedExecutorService executor;
+
     /**
      * Cache structure: Map of "type:symbol" to CachedPrice
      * Example: "crypto:bitcoin" maps to CachedPrice with price and timestamp
      */
-    private final Map<String, CachedPrice> priceCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedPrice> priceCache = new ConcurrentHashMap<>();
+
+    /** Upstream loads currently running, one per key. */
+    private final ConcurrentHashMap<String, CompletableFuture<Double>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
 
     @PostConstruct
     public void init() {
@@ -39,37 +87,202 @@ public class PriceCacheService {
      * caches it.
      */
     public double getCachedPrice(String symbol, String type) {
-        String key = type + ":" + symbol.toLowerCase();
+        Double cached = getIfPresent(symbol, type);
+        if (cached != null) {
+            return cached;
+        }
 
-        CachedPrice cached = priceCache.get(key);
-        if (cached != null && !cached.isExpired()) {
-            return cached.price;
+        // Not in cache or too old to serve, load (or join the running load)
+        String key = key(symbol, type);
+        CompletableFuture<Double> load = loadOnce(key, symbol, type, false);
+        try {
+            return load.join();
+        } catch (RuntimeException e) {
+            CachedPrice old = priceCache.get(key);
+            return old != null ? old.price : 0.0;
         }
+    }
 
-        // Not in cache or expired, fetch fresh price
-        double freshPrice = marketData.getPriceForAsset(symbol, type);
-        if (freshPrice > 0.0) {
-            priceCache.put(key, new CachedPrice(freshPrice, LocalDateTime.now()));
+    /**
+     * Bulk variant of {@link #getCachedPrice}. Servable entries are returned
+     * directly; misses already loading are joined; the remaining misses are
+     * registered as in flight and loaded with a single call to the bulk
+     * loader, so concurrent callers share one upstream request per key.
+     *
+     * @param bulkLoader loads the given refs upstream (missing refs count as 0.0)
+     * @return price per ref (0.0 when unavailable)
+     */
+    public Map<AssetRef, Double> getCachedPrices(Collection<AssetRef> refs,
+            Function<List<AssetRef>, Map<AssetRef, Double>> bulkLoader) {
+        Map<AssetRef, Double> prices = new HashMap<>();
+        Map<AssetRef, CompletableFuture<Double>> owned = new LinkedHashMap<>();
+        Map<AssetRef, CompletableFuture<Double>> joined = new HashMap<>();
+
+        for (AssetRef ref : new LinkedHashSet<>(refs)) {
+            if (ref.getIdOrSymbol() == null) {
+                continue;
+            }
+            Double cached = getIfPresent(ref.getIdOrSymbol(), ref.getType());
+            if (cached != null) {
+                prices.put(ref, cached);
+                continue;
+            }
+            CompletableFuture<Double> created = new CompletableFuture<>();
+            CompletableFuture<Double> running = inFlight.putIfAbsent(key(ref.getIdOrSymbol(), ref.getType()),
+                    created);
+            if (running != null) {
+                joined.put(ref, running);
+            } else {
+                owned.put(ref, created);
+            }
         }
 
-        return freshPrice;
+        if (!owned.isEmpty()) {
+            Map<AssetRef, Double> loaded = Map.of();
+            long start = System.nanoTime();
+            try {
+                loaded = bulkLoader.apply(List.copyOf(owned.keySet()));
+            } catch (RuntimeException e) {
+                loadFailures.increment();
+            } finally {
+                totalLoadNanos.add(System.nanoTime() - start);
+                loads.increment();
+                // Always complete and release the keys, or later callers would wait forever
+                for (Map.Entry<AssetRef, CompletableFuture<Double>> entry : owned.entrySet()) {
+                    AssetRef ref = entry.getKey();
+                    String key = key(ref.getIdOrSymbol(), ref.getType());
+                    double price = loaded.getOrDefault(ref, 0.0);
+                    if (price > 0.0) {
+                        priceCache.put(key, new CachedPrice(price, System.currentTimeMillis()));
+                    }
+                    entry.getValue().complete(price);
+                    inFlight.remove(key, entry.getValue());
+                    prices.put(ref, price);
+                }
+            }
+        }
+
+        for (Map.Entry<AssetRef, CompletableFuture<Double>> entry : joined.entrySet()) {
+            AssetRef ref = entry.getKey();
+            try {
+                prices.put(ref, entry.getValue().join());
+            } catch (RuntimeException e) {
+                CachedPrice old = priceCache.get(key(ref.getIdOrSymbol(), ref.getType()));
+                prices.put(ref, old != null ? old.price : 0.0);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Returns the cached price if it can be served (fresh or stale), without
+     * blocking on an upstream call, or null on a miss. Stale and hot entries
+     * are scheduled for a background reload.
+     */
+    public Double getIfPresent(String symbol, String type) {
+        String key = key(symbol, type);
+        CachedPrice cached = priceCache.get(key);
+
+        if (cached != null) {
+            long age = System.currentTimeMillis() - cached.loadedAt;
+
+            if (age < TTL_MS) {
+                hits.increment();
+                int entryHits = cached.hits.incrementAndGet();
+                if (age >= TTL_MS - REFRESH_AHEAD_MS && entryHits >= HOT_THRESHOLD) {
+                    refreshAsync(key, symbol, type);
+                }
+                return cached.price;
+            }
+
+            if (age < TTL_MS + MAX_STALE_MS) {
+                staleHits.increment();
+                refreshAsync(key, symbol, type);
+                return cached.price;
+            }
+        }
+
+        misses.increment();
+        return null;
     }
 
     /**
      * Manually adds a price to the cache.
      */
     public void setCachedPrice(String symbol, String type, double price) {
-        String key = type + ":" + symbol.toLowerCase();
-        priceCache.put(key, new CachedPrice(price, LocalDateTime.now()));
+        priceCache.put(key(symbol, type), new CachedPrice(price, System.currentTimeMillis()));
     }
 
     /**
      * Gets cache statistics for monitoring.
      */
-    public String getCacheStats() {
-        return String.format("Cache Size: %d | Sample: %s",
-                priceCache.size(),
-                priceCache.keySet().stream().limit(5).toList());
+    public CacheStats getCacheStats() {
+        return new CacheStats(priceCache.size(), inFlight.size(), hits.sum(), staleHits.sum(), misses.sum(),
+                loads.sum(), loadFailures.sum(), refreshes.sum(), totalLoadNanos.sum());
+    }
+
+    // ============================================================
+    // LOADING
+    // ============================================================
+
+    private static String key(String symbol, String type) {
+        return type + ":" + symbol.toLowerCase();
+    }
+
+    private void refreshAsync(String key, String symbol, String type) {
+        if (!inFlight.containsKey(key)) {
+            refreshes.increment();
+            loadOnce(key, symbol, type, true);
+        }
+    }
+
+    /**
+     * Starts a load for the key unless one is already running, in which case
+     * the running load is returned. Synchronous loads run on the caller thread.
+     */
+    private CompletableFuture<Double> loadOnce(String key, String symbol, String type, boolean async) {
+        CompletableFuture<Double> created = new CompletableFuture<>();
+        CompletableFuture<Double> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        Runnable task = () -> {
+            try {
+                created.complete(fetch(key, symbol, type));
+            } catch (Throwable t) {
+                loadFailures.increment();
+                created.completeExceptionally(t);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+
+        if (async) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    private double fetch(String key, String symbol, String type) {
+        long start = System.nanoTime();
+        double freshPrice = marketData.getPriceForAsset(symbol, type);
+        totalLoadNanos.add(System.nanoTime() - start);
+        loads.increment();
+
+        if (freshPrice > 0.0) {
+            priceCache.put(key, new CachedPrice(freshPrice, System.currentTimeMillis()));
+        } else {
+            loadFailures.increment();
+        }
+        return freshPrice;
     }
 
     /**
@@ -77,18 +290,93 @@ public class PriceCacheService {
      */
     private static class CachedPrice {
         final double price;
-        final LocalDateTime lastUpdate;
+        final long loadedAt;
+        final AtomicInteger hits = new AtomicInteger();
 
-        CachedPrice(double price, LocalDateTime lastUpdate) {
+        CachedPrice(double price, long loadedAt) {
             this.price = price;
-            this.lastUpdate = lastUpdate;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the cache counters.
+     */
+    public static class CacheStats {
+        private final int size;
+        private final int loadsInFlight;
+        private final long hits;
+        private final long staleHits;
+        private final long misses;
+        private final long loads;
+        private final long loadFailures;
+        private final long refreshes;
+        private final long totalLoadNanos;
+
+        CacheStats(int size, int loadsInFlight, long hits, long staleHits, long misses, long loads,
+                long loadFailures, long refreshes, long totalLoadNanos) {
+            this.size = size;
+            this.loadsInFlight = loadsInFlight;
+            this.hits = hits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.loads = loads;
+            this.loadFailures = loadFailures;
+            this.refreshes = refreshes;
+            this.totalLoadNanos = totalLoadNanos;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getLoadsInFlight() {
+            return loadsInFlight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getStaleHits() {
+            return staleHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures;
+        }
+
+        public long getRefreshes() {
+            return refreshes;
         }
 
         /**
-         * Considers price expired after 5 minutes.
+         * Share of lookups served from the cache (fresh or stale).
          */
-        boolean isExpired() {
-            return lastUpdate.plusMinutes(5).isBefore(LocalDateTime.now());
+        public double getHitRatio() {
+            long total = hits + staleHits + misses;
+            return total == 0 ? 0.0 : (double) (hits + staleHits) / total;
+        }
+
+        public double getAverageLoadTimeMs() {
+            return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US,
+                    "Cache Size: %d | Hits: %d | Stale: %d | Misses: %d | Hit ratio: %.2f | Loads: %d"
+                            + " (failed %d, refresh %d, in flight %d) | Avg load: %.1f ms",
+                    size, hits, staleHits, misses, getHitRatio(), loads, loadFailures, refreshes, loadsInFlight,
+                    getAverageLoadTimeMs());
         }
     }
 }
@@ -86,6 +86,21 @@ public class WealthCalculatorService {
      * Calculates the historical evolution of the user's total cash balance.
      */
     public Map<LocalDate, Double> calculateCashHistory(String userId, int days) {
+        // Daily balances are materialized by the backend: no transaction replay
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Double> materialized = backendApi.getBalanceHistoryForUser(userId, today.minusDays(days),
+                today);
+        if (materialized != null) {
+            return materialized;
+        }
+        return replayCashHistory(userId, days);
+    }
+
+    /**
+     * Fallback: rebuilds the cash history by replaying transactions backwards
+     * from the current balances.
+     */
+    private Map<LocalDate, Double> replayCashHistory(String userId, int days) {
         // 1. Anchor
         List<LocalAccount> accounts = backendApi.getAccountsForUser(userId);
         double currentTotalCash = accounts.stream().mapToDouble(LocalAccount::getBalance).sum();
@@ -3,11 +3,13 @@ package org.groupm.ewallet.webapp.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.json.JsonObject;
+import org.groupm.ewallet.webapp.connector.AssetRef;
 import org.groupm.ewallet.webapp.connector.ExternalAsset;
 import org.groupm.ewallet.webapp.model.LocalAccount;
 import org.groupm.ewallet.webapp.model.LocalTransaction;
 import org.groupm.ewallet.webapp.model.PortfolioTrade;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.time.LocalDate;
@@ -132,6 +134,10 @@ public class WebAppService {
         return marketData.getPriceForAsset(idOrSymbol, type);
     }
 
+    public Map<AssetRef, Double> getPrices(Collection<AssetRef> refs) {
+        return marketData.getPrices(refs);
+    }
+
     public List<Double> getHistoricalPrices(String idOrSymbol, String type, int days) {
         return marketData.getHistoricalPrices(idOrSymbol, type, days);
     }
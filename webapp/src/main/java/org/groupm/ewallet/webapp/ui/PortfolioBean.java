@@ -6,6 +6,7 @@ import jakarta.faces.context.FacesContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.servlet.http.HttpSession;
+import org.groupm.ewallet.webapp.connector.AssetRef;
 import org.groupm.ewallet.webapp.connector.ExternalAsset;
 import org.groupm.ewallet.webapp.model.PortfolioTrade;
 import org.groupm.ewallet.webapp.model.PortfolioAsset;
@@ -636,6 +637,7 @@ public class PortfolioBean implements Serializable {
         // This fixes the bug where crypto assets (like ETH) were being priced as stocks
         String typeToUse = detectAssetType(selectedHeldSymbol);
 
+        // Live quote, never the cache: this is the price the sale executes at
         double price = webAppService.getPriceForAsset(selectedHeldSymbol, typeToUse);
         if (price > 0.0) {
             sellMarketPrice = price;
@@ -953,7 +955,11 @@ public class PortfolioBean implements Serializable {
         // 2. Calculate Avg Buy Price and PnL for current assets
         // We use the 'unitValue' from backend as the 'Average Buy Price'
         // We fetch the 'real current price' from MarketDataService for the 'Current
-        // Price'
+        // Price', with one bulk lookup for the whole portfolio
+        Map<AssetRef, Double> marketPrices = webAppService.getPrices(currentAssets.stream()
+                .map(a -> new AssetRef(a.getSymbol(), a.getType()))
+                .collect(Collectors.toList()));
+
         for (PortfolioAsset asset : currentAssets) {
             double avgBuyPrice = asset.getUnitPrice(); // From DB
 
@@ -961,7 +967,8 @@ public class PortfolioBean implements Serializable {
             asset.setAverageBuyPrice(avgBuyPrice);
 
             // Fetch Real Market Price
-            double currentMarketPrice = webAppService.getPriceForAsset(asset.getSymbol(), asset.getType());
+            double currentMarketPrice = marketPrices.getOrDefault(new AssetRef(asset.getSymbol(), asset.getType()),
+                    0.0);
             if (currentMarketPrice <= 0) {
                 currentMarketPrice = avgBuyPrice; // Fallback so PnL is 0 rather than -Total
             }
@@ -6,6 +6,7 @@ import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.servlet.http.HttpSession;
 
+import org.groupm.ewallet.webapp.connector.AssetRef;
 import org.groupm.ewallet.webapp.service.WebAppService;
 
 import java.io.Serializable;
@@ -14,6 +15,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.groupm.ewallet.webapp.model.LocalAccount;
 
 @Named
@@ -144,9 +146,16 @@ public class TotalWealthBean implements Serializable {
         this.totalCrypto = 0;
         this.totalEtf = 0;
 
+        // Market prices for all held assets in one bulk lookup
+        Map<AssetRef, Double> marketPrices = webAppService.getPrices(assets.stream()
+                .map(a -> new AssetRef(a.getSymbol(), a.getType()))
+                .collect(Collectors.toList()));
+
         for (org.groupm.ewallet.webapp.model.PortfolioAsset asset : assets) {
             String type = asset.getType() != null ? asset.getType().toLowerCase() : "";
-            double val = asset.getTotalValue();
+            double price = marketPrices.getOrDefault(new AssetRef(asset.getSymbol(), asset.getType()), 0.0);
+            // Fallback to the stored unit price when no market price is available
+            double val = price > 0.0 ? price * asset.getQuantity() : asset.getTotalValue();
 
             if (type.equals("crypto")) {
                 this.totalCrypto += val;
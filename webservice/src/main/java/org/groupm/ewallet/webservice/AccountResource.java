@@ -3,13 +3,21 @@ package org.groupm.ewallet.webservice;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.Account;
 import org.groupm.ewallet.model.User;
+import org.groupm.ewallet.repository.projection.AccountSummary;
+import org.groupm.ewallet.repository.projection.BalancePoint;
 import org.groupm.ewallet.service.business.AccountManager;
+import org.groupm.ewallet.service.business.BalanceHistoryManager;
 import org.groupm.ewallet.service.business.UserManager;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -29,14 +37,52 @@ public class AccountResource {
     @Inject
     private UserManager userManager;
 
+    @Inject
+    private BalanceHistoryManager balanceHistory;
+
+    /** Période maximale d'une série de soldes (jours). */
+    private static final int MAX_HISTORY_DAYS = 3660;
+
     /**
      * Récupère la liste de tous les comptes.
      * Endpoint : GET /api/accounts
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
+     */
+    @GET
+    @ReadOnly
+    public Response getAllAccounts(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        String afterAccountId;
+        try {
+            afterAccountId = Pagination.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Pagination.badCursor();
+        }
+        List<Account> accounts = accountManager.getAccountsPage(afterAccountId, size + 1);
+        return Pagination.page(accounts, size, Account::getAccountID, uriInfo);
+    }
+
+    /**
+     * Liste des comptes en projection résumée (id, propriétaire, type, nom,
+     * solde), sans entité gérée.
+     * Endpoint : GET /api/accounts/summaries
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
      */
     @GET
-    public Response getAllAccounts() {
-        List<Account> accounts = accountManager.getAllAccounts();
-        return Response.ok(accounts).build();
+    @ReadOnly
+    @Path("/summaries")
+    public Response getAccountSummaries(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        String afterAccountId;
+        try {
+            afterAccountId = Pagination.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Pagination.badCursor();
+        }
+        List<AccountSummary> summaries = accountManager.getAccountSummariesPage(afterAccountId, size + 1);
+        return Pagination.page(summaries, size, AccountSummary::getAccountID, uriInfo);
     }
 
     /**
@@ -113,6 +159,7 @@ public class AccountResource {
      * Endpoint : GET /api/accounts/{id}
      */
     @GET
+    @ReadOnly
     @Path("/{id}")
     public Response getAccountById(@PathParam("id") String id) {
         Account account = accountManager.getAccountById(id);
@@ -155,4 +202,60 @@ public class AccountResource {
                     .entity("Compte non trouvé").build();
         }
     }
+
+    /**
+     * Série journalière du solde d'un compte.
+     * Endpoint : GET /api/accounts/{id}/balance-history?from=2025-01-01&to=2025-01-31
+     * Par défaut : 30 derniers jours.
+     */
+    @GET
+    @ReadOnly
+    @Path("/{id}/balance-history")
+    public Response getBalanceHistory(@PathParam("id") String id,
+            @QueryParam("from") String from, @QueryParam("to") String to) {
+        LocalDate[] range = parseRange(from, to);
+        if (range == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Paramètres 'from'/'to' invalides (format AAAA-MM-JJ, from <= to).").build();
+        }
+        List<BalancePoint> history = balanceHistory.getAccountHistory(id, range[0], range[1]);
+        if (history == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Compte non trouvé").build();
+        }
+        return Response.ok(history).build();
+    }
+
+    /**
+     * Série journalière du cash total (tous comptes) d'un utilisateur.
+     * Endpoint : GET /api/accounts/user/{userId}/balance-history?from=&to=
+     */
+    @GET
+    @ReadOnly
+    @Path("/user/{userId}/balance-history")
+    public Response getUserBalanceHistory(@PathParam("userId") String userId,
+            @QueryParam("from") String from, @QueryParam("to") String to) {
+        LocalDate[] range = parseRange(from, to);
+        if (range == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Paramètres 'from'/'to' invalides (format AAAA-MM-JJ, from <= to).").build();
+        }
+        return Response.ok(balanceHistory.getUserHistory(userId, range[0], range[1])).build();
+    }
+
+    /**
+     * @return [from, to], ou null si les paramètres sont invalides
+     */
+    private static LocalDate[] parseRange(String from, String to) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(30);
+            if (start.isAfter(end) || start.isBefore(end.minusDays(MAX_HISTORY_DAYS))) {
+                return null;
+            }
+            return new LocalDate[] { start, end };
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
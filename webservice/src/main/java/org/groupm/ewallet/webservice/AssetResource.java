@@ -3,9 +3,12 @@ package org.groupm.ewallet.webservice;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.Asset;
 import org.groupm.ewallet.model.Portfolio;
 import org.groupm.ewallet.model.User;
@@ -35,10 +38,24 @@ public class AssetResource {
     // GET ALL ASSETS
     // ============================================================
 
+    /**
+     * Endpoint : GET /api/assets
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
+     */
     @GET
-    public Response getAllAssets() {
-        List<Asset> assets = assetRepository.findAll();
-        return Response.ok(assets).build();
+    @ReadOnly
+    public Response getAllAssets(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        Integer afterId;
+        try {
+            String key = Pagination.decode(after);
+            afterId = key != null ? Integer.valueOf(key) : null;
+        } catch (IllegalArgumentException e) {
+            return Pagination.badCursor();
+        }
+        List<Asset> assets = assetRepository.findPage(afterId, size + 1);
+        return Pagination.page(assets, size, a -> String.valueOf(a.getId()), uriInfo);
     }
 
     // ============================================================
@@ -46,6 +63,7 @@ public class AssetResource {
     // ============================================================
 
     @GET
+    @ReadOnly
     @Path("/{symbol}")
     public Response getAssetBySymbol(@PathParam("symbol") String symbol) {
         Asset asset = assetRepository.findBySymbol(symbol);
@@ -86,6 +104,7 @@ public class AssetResource {
     // ============================================================
 
     @GET
+    @ReadOnly
     @Path("/portfolio/{portfolioId}")
     public Response getAssetsByPortfolio(@PathParam("portfolioId") int portfolioId) {
         Portfolio portfolio = portfolioRepository.findById(portfolioId);
@@ -149,6 +168,6 @@ public class AssetResource {
         // update user without replacing entire portfolio list
         User user = userRepository.findById(portfolio.getUserID());
         if (user != null)
-            userRepository.save(user);
+            userRepository.update(user);
     }
 }
\ No newline at end of file
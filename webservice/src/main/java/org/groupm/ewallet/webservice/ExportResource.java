@@ -0,0 +1,58 @@
+package org.groupm.ewallet.webservice;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.groupm.ewallet.service.business.ExportManager;
+
+/**
+ * Ressource REST d'export complet (back-office).
+ * Les réponses sont en NDJSON et écrites en flux : aucune liste n'est
+ * construite en mémoire.
+ *
+ * Pas de @ReadOnly ici : le corps est écrit par Jersey après le retour de la
+ * méthode, une fois la session rétablie. Les requêtes d'export portent
+ * elles-mêmes l'indication de lecture seule.
+ */
+@Path("/export")
+@Produces(ExportResource.NDJSON)
+@RequestScoped
+public class ExportResource {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    private ExportManager exportManager;
+
+    /**
+     * Exporte toutes les transactions bancaires.
+     * Endpoint : GET /api/export/transactions
+     */
+    @GET
+    @Path("/transactions")
+    public Response exportTransactions() {
+        StreamingOutput body = exportManager::exportTransactions;
+        return attachment(body, "transactions.ndjson");
+    }
+
+    /**
+     * Exporte toutes les transactions de portefeuille.
+     * Endpoint : GET /api/export/portfolio-transactions
+     */
+    @GET
+    @Path("/portfolio-transactions")
+    public Response exportPortfolioTransactions() {
+        StreamingOutput body = exportManager::exportPortfolioTransactions;
+        return attachment(body, "portfolio_transactions.ndjson");
+    }
+
+    private static Response attachment(StreamingOutput body, String filename) {
+        return Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package org.groupm.ewallet.webservice;
+
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import org.groupm.ewallet.service.business.IdempotencyManager;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tâche planifiée de purge des clés d'idempotence : supprime les réponses
+ * enregistrées depuis plus de {@link IdempotencyManager#RETENTION}.
+ */
+@Singleton
+public class IdempotencyKeyPurgeJob {
+
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyKeyPurgeJob.class.getName());
+
+    @Inject
+    private IdempotencyManager idempotency;
+
+    @Schedule(hour = "*", minute = "47", persistent = false)
+    public void purgeExpiredKeys() {
+        try {
+            int purged = idempotency.purgeExpired();
+            LOGGER.info("Idempotency keys purged: " + purged);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Idempotency key purge failed", e);
+        }
+    }
+}
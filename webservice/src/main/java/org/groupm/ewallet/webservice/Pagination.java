@@ -0,0 +1,81 @@
+package org.groupm.ewallet.webservice;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagination par clé (keyset) des endpoints de liste.
+ *
+ * Le corps reste un tableau JSON, compatible avec les clients existants. Le
+ * curseur opaque de la page suivante est renvoyé dans l'en-tête
+ * X-Next-Cursor (et un en-tête Link rel="next") ; il est absent sur la
+ * dernière page.
+ */
+final class Pagination {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private Pagination() {
+    }
+
+    /**
+     * Taille de page effective : défaut si absente, plafonnée à MAX_LIMIT.
+     */
+    static int limit(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    /**
+     * Décode un curseur reçu en paramètre "after".
+     *
+     * @return la clé de la dernière ligne vue, ou null si absent
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Construit la réponse d'une page.
+     *
+     * @param rows  lignes lues avec limit + 1 pour savoir s'il reste une page
+     * @param keyOf clé de pagination d'une ligne
+     */
+    static <T> Response page(List<T> rows, int limit, Function<T, String> keyOf, UriInfo uriInfo) {
+        if (rows.size() <= limit) {
+            return Response.ok(rows).build();
+        }
+        List<T> page = rows.subList(0, limit);
+        String next = encode(keyOf.apply(page.get(limit - 1)));
+        return Response.ok(page)
+                .header(NEXT_CURSOR_HEADER, next)
+                .link(uriInfo.getRequestUriBuilder()
+                        .replaceQueryParam("limit", limit)
+                        .replaceQueryParam("after", next)
+                        .build(), "next")
+                .build();
+    }
+
+    static Response badCursor() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("Paramètre 'after' invalide.")
+                .build();
+    }
+}
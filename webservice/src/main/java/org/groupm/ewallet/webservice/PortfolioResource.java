@@ -3,10 +3,14 @@ package org.groupm.ewallet.webservice;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.Portfolio;
 import org.groupm.ewallet.model.Asset;
+import org.groupm.ewallet.repository.projection.AssetPosition;
 import org.groupm.ewallet.service.business.UserManager;
 
 import java.util.List;
@@ -28,11 +32,22 @@ public class PortfolioResource {
     /**
      * Récupère la liste de tous les portefeuilles existants.
      * Endpoint : GET /api/portfolios
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
      */
     @GET
-    public Response getAllPortfolios() {
-        List<Portfolio> portfolios = userManager.getAllPortfolios();
-        return Response.ok(portfolios).build();
+    @ReadOnly
+    public Response getAllPortfolios(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        Integer afterId;
+        try {
+            String key = Pagination.decode(after);
+            afterId = key != null ? Integer.valueOf(key) : null;
+        } catch (IllegalArgumentException e) {
+            return Pagination.badCursor();
+        }
+        List<Portfolio> portfolios = userManager.getPortfoliosPage(afterId, size + 1);
+        return Pagination.page(portfolios, size, p -> String.valueOf(p.getId()), uriInfo);
     }
 
     /**
@@ -52,6 +67,7 @@ public class PortfolioResource {
      * Endpoint : GET /api/portfolios/{id}
      */
     @GET
+    @ReadOnly
     @Path("/{id}")
     public Response getPortfolioById(@PathParam("id") int id) {
         Portfolio portfolio = userManager.getPortfolioById(id);
@@ -115,6 +131,7 @@ public class PortfolioResource {
      * Endpoint : GET /api/portfolios/{id}/assets
      */
     @GET
+    @ReadOnly
     @Path("/{id}/assets")
     public Response getPortfolioAssets(@PathParam("id") int portfolioId) {
         Portfolio portfolio = userManager.getPortfolioById(portfolioId);
@@ -125,4 +142,21 @@ public class PortfolioResource {
 
         return Response.ok(portfolio.getAssets()).build();
     }
+
+    /**
+     * Positions d'un portefeuille en projection (symbole, quantité, valeur
+     * unitaire et totale), sans entité gérée.
+     * Endpoint : GET /api/portfolios/{id}/positions
+     */
+    @GET
+    @ReadOnly
+    @Path("/{id}/positions")
+    public Response getPortfolioPositions(@PathParam("id") int portfolioId) {
+        List<AssetPosition> positions = userManager.getAssetPositions(portfolioId);
+        if (positions == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\":\"Portfolio not found\"}").build();
+        }
+        return Response.ok(positions).build();
+    }
 }
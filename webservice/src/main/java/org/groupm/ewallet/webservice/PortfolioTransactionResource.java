@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.PortfolioTransaction;
 import org.groupm.ewallet.service.business.PortfolioTransactionManager;
 
@@ -28,6 +29,7 @@ public class PortfolioTransactionResource {
      * Endpoint: GET /api/portfolio-transactions
      */
     @GET
+    @ReadOnly
     public Response getAllTransactions() {
         List<PortfolioTransaction> transactions = transactionManager.getAllTransactions();
         return Response.ok(transactions).build();
@@ -38,6 +40,7 @@ public class PortfolioTransactionResource {
      * Endpoint: GET /api/portfolio-transactions/portfolio/{portfolioId}
      */
     @GET
+    @ReadOnly
     @Path("/portfolio/{portfolioId}")
     public Response getTransactionsByPortfolio(@PathParam("portfolioId") int portfolioId) {
         List<PortfolioTransaction> transactions = transactionManager.getTransactionsByPortfolioId(portfolioId);
@@ -49,6 +52,7 @@ public class PortfolioTransactionResource {
      * Endpoint: GET /api/portfolio-transactions/{id}
      */
     @GET
+    @ReadOnly
     @Path("/{id}")
     public Response getTransactionById(@PathParam("id") long id) {
         PortfolioTransaction transaction = transactionManager.getTransactionById(id);
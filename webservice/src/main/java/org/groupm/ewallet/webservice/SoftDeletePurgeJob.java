@@ -0,0 +1,36 @@
+package org.groupm.ewallet.webservice;
+
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import org.groupm.ewallet.service.business.SoftDeletePurger;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tâche planifiée de purge des utilisateurs, comptes et portefeuilles
+ * supprimés logiquement. Chaque passage est borné (voir
+ * {@link SoftDeletePurger#ROWS_PER_RUN}) ; l'arriéré est visible sur
+ * /api/admin/purge.
+ */
+@Singleton
+public class SoftDeletePurgeJob {
+
+    private static final Logger LOGGER = Logger.getLogger(SoftDeletePurgeJob.class.getName());
+
+    @Inject
+    private SoftDeletePurger purger;
+
+    @Schedule(hour = "*", minute = "*", persistent = false)
+    public void purgeDeleted() {
+        try {
+            long purged = purger.purge();
+            if (purged > 0) {
+                LOGGER.info("Soft delete purge: " + purged + " rows");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Soft delete purge failed", e);
+        }
+    }
+}
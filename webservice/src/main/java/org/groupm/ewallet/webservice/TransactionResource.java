@@ -2,15 +2,33 @@ package org.groupm.ewallet.webservice;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.Transaction;
 import org.groupm.ewallet.model.Account;
+import org.groupm.ewallet.model.TimeOrderedId;
+import org.groupm.ewallet.repository.projection.TransactionRow;
 import org.groupm.ewallet.service.business.AccountManager;
+import org.groupm.ewallet.service.business.IdempotencyConflictException;
+import org.groupm.ewallet.service.business.IdempotencyKeyException;
+import org.groupm.ewallet.service.business.IdempotencyManager;
+import org.groupm.ewallet.service.business.IdempotentResponse;
+import org.groupm.ewallet.service.business.TransferBatchResult;
+import org.groupm.ewallet.service.business.TransferOrder;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Ressource REST responsable de la gestion des transactions.
@@ -23,17 +41,38 @@ import java.util.ArrayList;
 @RequestScoped
 public class TransactionResource {
 
+    /** En-tête rendant un POST rejouable sans double exécution. */
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /** Présent sur une réponse rejouée (première exécution déjà enregistrée). */
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    /** Instance partagée : Jsonb est thread-safe et coûteux à créer. */
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
     @Inject
     private AccountManager accountManager;
 
+    @Inject
+    private IdempotencyManager idempotency;
+
     /**
      * Récupère la liste complète des transactions enregistrées.
      * Endpoint : GET /api/transactions
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor), de la
+     * plus récente à la plus ancienne.
      */
     @GET
-    public Response getAllTransactions() {
-        List<Transaction> transactions = accountManager.getAllTransactions();
-        return Response.ok(transactions).build();
+    @ReadOnly
+    public Response getAllTransactions(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        TransactionCursor cursor = TransactionCursor.parse(after);
+        if (cursor == null) {
+            return Pagination.badCursor();
+        }
+        List<Transaction> transactions = accountManager.getTransactionsPage(cursor.timestamp, cursor.id, size + 1);
+        return Pagination.page(transactions, size, TransactionCursor::keyOf, uriInfo);
     }
 
     /**
@@ -41,9 +80,24 @@ public class TransactionResource {
      * Endpoint : POST /api/transactions
      * 
      * Délègue toute la validation et logique métier à AccountManager.
+     * Avec un en-tête Idempotency-Key, une nouvelle tentative renvoie la
+     * réponse de la première exécution au lieu de créer un second mouvement.
      */
     @POST
-    public Response createTransaction(Transaction transaction) {
+    public Response createTransaction(Transaction transaction,
+            @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(transaction);
+        }
+        String requestHash = transaction == null ? IdempotencyManager.fingerprint("POST /transactions")
+                : IdempotencyManager.fingerprint("POST /transactions", transaction.getTransactionID(),
+                        transaction.getAccountID(), transaction.getType(), transaction.getAmountAsBigDecimal(),
+                        transaction.getDescription());
+        return idempotent(idempotencyKey, requestHash, () -> create(transaction),
+                "Erreur interne lors du traitement de la transaction.");
+    }
+
+    private Response create(Transaction transaction) {
         try {
             Transaction created = accountManager.addTransaction(transaction);
             return Response.status(Response.Status.CREATED)
@@ -67,6 +121,7 @@ public class TransactionResource {
      * Endpoint : GET /api/transactions/{id}
      */
     @GET
+    @ReadOnly
     @Path("/{id}")
     public Response getTransactionById(@PathParam("id") String id) {
         Transaction transaction = accountManager.getTransactionById(id);
@@ -81,10 +136,13 @@ public class TransactionResource {
     /**
      * Récupère toutes les transactions d'un compte donné.
      * Endpoint : GET /api/transactions/account/{accountId}
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
      */
     @GET
+    @ReadOnly
     @Path("/account/{accountId}")
-    public Response getTransactionsByAccount(@PathParam("accountId") String accountId) {
+    public Response getTransactionsByAccount(@PathParam("accountId") String accountId,
+            @QueryParam("limit") Integer limit, @QueryParam("after") String after, @Context UriInfo uriInfo) {
         if (accountId == null || accountId.isEmpty()) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("L'identifiant de compte est obligatoire.")
@@ -99,8 +157,40 @@ public class TransactionResource {
                     .build();
         }
 
-        List<Transaction> transactions = accountManager.getTransactionsByAccountId(accountId);
-        return Response.ok(transactions).build();
+        int size = Pagination.limit(limit);
+        TransactionCursor cursor = TransactionCursor.parse(after);
+        if (cursor == null) {
+            return Pagination.badCursor();
+        }
+        List<Transaction> transactions = accountManager.getTransactionsPageByAccountId(accountId,
+                cursor.timestamp, cursor.id, size + 1);
+        return Pagination.page(transactions, size, TransactionCursor::keyOf, uriInfo);
+    }
+
+    /**
+     * Transactions d'un compte en projection (colonnes utiles uniquement),
+     * sans entité gérée.
+     * Endpoint : GET /api/transactions/account/{accountId}/rows
+     * Pagination : ?limit=&after= (mêmes curseurs que /account/{accountId}).
+     */
+    @GET
+    @ReadOnly
+    @Path("/account/{accountId}/rows")
+    public Response getTransactionRowsByAccount(@PathParam("accountId") String accountId,
+            @QueryParam("limit") Integer limit, @QueryParam("after") String after, @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        TransactionCursor cursor = TransactionCursor.parse(after);
+        if (cursor == null) {
+            return Pagination.badCursor();
+        }
+        List<TransactionRow> rows = accountManager.getTransactionRowsPageByAccountId(accountId,
+                cursor.timestamp, cursor.id, size + 1);
+        if (rows.isEmpty() && cursor == TransactionCursor.FIRST_PAGE && !accountManager.accountExists(accountId)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Aucun compte trouvé pour l'identifiant : " + accountId)
+                    .build();
+        }
+        return Pagination.page(rows, size, TransactionCursor::keyOf, uriInfo);
     }
 
     /**
@@ -108,6 +198,7 @@ public class TransactionResource {
      * Endpoint : GET /api/transactions/user/{userId}
      */
     @GET
+    @ReadOnly
     @Path("/user/{userId}")
     public Response getTransactionsByUser(@PathParam("userId") String userId) {
         if (userId == null || userId.isEmpty()) {
@@ -116,26 +207,16 @@ public class TransactionResource {
                     .build();
         }
 
-        // Récupère tous les comptes de l'utilisateur via AccountManager
-        List<Account> userAccounts = accountManager.getAllAccounts().stream()
-                .filter(a -> userId.equals(a.getUserID()))
-                .toList();
+        // Une seule requête : jointure transactions -> accounts sur user_id
+        List<Transaction> allTransactions = accountManager.getTransactionsByUserId(userId);
 
-        if (userAccounts.isEmpty()) {
+        // Liste vide : on distingue "aucun compte" (404) de "aucune transaction"
+        if (allTransactions.isEmpty() && accountManager.getAccountsByUserId(userId).isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Aucun compte trouvé pour l'utilisateur : " + userId)
                     .build();
         }
 
-        // Agrège toutes les transactions
-        List<Transaction> allTransactions = new ArrayList<>();
-        for (Account acc : userAccounts) {
-            List<Transaction> txList = accountManager.getTransactionsByAccountId(acc.getAccountID());
-            if (txList != null && !txList.isEmpty()) {
-                allTransactions.addAll(txList);
-            }
-        }
-
         return Response.ok(allTransactions).build();
     }
 
@@ -155,6 +236,52 @@ public class TransactionResource {
         return Response.noContent().build();
     }
 
+    /**
+     * Clé de pagination d'une transaction : (timestamp, id).
+     */
+    private static class TransactionCursor {
+        private static final TransactionCursor FIRST_PAGE = new TransactionCursor(null, null);
+
+        final LocalDateTime timestamp;
+        final String id;
+
+        private TransactionCursor(LocalDateTime timestamp, String id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        static String keyOf(Transaction t) {
+            return keyOf(t.getTimestamp(), t.getTransactionID());
+        }
+
+        static String keyOf(TransactionRow row) {
+            return keyOf(row.getTimestamp(), row.getTransactionID());
+        }
+
+        private static String keyOf(LocalDateTime timestamp, String id) {
+            return timestamp + "|" + id;
+        }
+
+        /**
+         * @return le curseur décodé, FIRST_PAGE si absent, null si invalide
+         */
+        static TransactionCursor parse(String after) {
+            try {
+                String key = Pagination.decode(after);
+                if (key == null) {
+                    return FIRST_PAGE;
+                }
+                int sep = key.indexOf('|');
+                if (sep < 0 || !TimeOrderedId.isValid(key.substring(sep + 1))) {
+                    return null;
+                }
+                return new TransactionCursor(LocalDateTime.parse(key.substring(0, sep)), key.substring(sep + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
     /**
      * DTO pour la requête de virement.
      */
@@ -169,29 +296,140 @@ public class TransactionResource {
     /**
      * Effectue un virement entre deux comptes.
      * Endpoint : POST /api/transactions/transfer
+     * Avec un en-tête Idempotency-Key, une nouvelle tentative renvoie la
+     * réponse du premier virement au lieu de l'exécuter une seconde fois.
      */
     @POST
     @Path("/transfer")
-    public Response transfer(TransferRequest request) {
+    public Response transfer(TransferRequest request, @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return executeTransfer(request);
+        }
+        String requestHash = request == null ? IdempotencyManager.fingerprint("POST /transactions/transfer")
+                : IdempotencyManager.fingerprint("POST /transactions/transfer", request.fromAccount,
+                        request.toAccount, request.amount, request.category, request.description);
+        return idempotent(idempotencyKey, requestHash, () -> executeTransfer(request),
+                "Erreur interne lors du virement.");
+    }
+
+    private Response executeTransfer(TransferRequest request) {
         if (request == null) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Requête invalide.")
                     .build();
         }
 
-        boolean success = accountManager.transfer(
-                request.fromAccount,
-                request.toAccount,
-                request.amount,
-                request.category,
-                request.description);
+        try {
+            boolean success = accountManager.transfer(
+                    request.fromAccount,
+                    request.toAccount,
+                    request.amount,
+                    request.category,
+                    request.description);
+
+            if (success) {
+                return Response.ok("Virement effectué avec succès.").build();
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Échec du virement (solde insuffisant ou compte introuvable).")
+                        .build();
+            }
+        } catch (IllegalArgumentException e) {
+            // Conversion exception métier → HTTP 400
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur : " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            // Erreur interne
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Erreur interne lors du virement.")
+                    .build();
+        }
+    }
+
+    /**
+     * Exécute une requête POST au plus une fois par clé d'idempotence (voir
+     * IdempotencyManager) : la réponse est enregistrée telle qu'envoyée, puis
+     * renvoyée à l'identique aux tentatives suivantes.
+     * 400 si la clé est invalide ou déjà utilisée pour une autre requête, 409
+     * si la première exécution est toujours en cours. Les erreurs métier sont
+     * converties en réponse par {@code work} lui-même ; un échec à l'écriture
+     * ou à la validation (identifiant en double, verrou optimiste) donne 500
+     * avec {@code internalError}, comme sans clé.
+     */
+    private Response idempotent(String key, String requestHash, Supplier<Response> work, String internalError) {
+        try {
+            IdempotentResponse response = idempotency.execute(key, requestHash, () -> serialize(work.get()));
+            Response.ResponseBuilder builder = Response.status(response.getStatus()).entity(response.getBody());
+            if (response.isReplayed()) {
+                builder.header(IDEMPOTENT_REPLAYED, "true");
+            }
+            return builder.build();
+        } catch (IdempotencyKeyException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur : " + e.getMessage())
+                    .build();
+        } catch (IdempotencyConflictException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Erreur : " + e.getMessage())
+                    .build();
+        } catch (PersistenceException e) {
+            // RollbackException comprise : flush ou commit de la transaction de la clé
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(internalError)
+                    .build();
+        }
+    }
+
+    private static IdempotentResponse serialize(Response response) {
+        Object entity = response.getEntity();
+        String body = entity == null || entity instanceof String ? (String) entity : JSONB.toJson(entity);
+        return new IdempotentResponse(response.getStatus(), body);
+    }
+
+    /**
+     * DTO pour la requête de virements groupés.
+     */
+    public static class TransferBatchRequest {
+        /** true (défaut) : tout-ou-rien ; false : les virements valides passent. */
+        public boolean atomic = true;
+        public List<TransferRequest> transfers;
+    }
+
+    /**
+     * Effectue plusieurs virements dans une seule transaction.
+     * Endpoint : POST /api/transactions/transfers/batch
+     *
+     * Répond 200 avec un résultat par virement (COMPLETED, REJECTED ou
+     * SKIPPED), ou 400 si un lot tout-ou-rien contient un virement refusé
+     * (rien n'est enregistré ; le corps indique lesquels).
+     */
+    @POST
+    @Path("/transfers/batch")
+    public Response transferBatch(TransferBatchRequest request) {
+        if (request == null || request.transfers == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Requête invalide.")
+                    .build();
+        }
+
+        List<TransferOrder> orders = new ArrayList<>(request.transfers.size());
+        for (TransferRequest transfer : request.transfers) {
+            orders.add(transfer == null ? null
+                    : new TransferOrder(transfer.fromAccount, transfer.toAccount,
+                            BigDecimal.valueOf(transfer.amount), transfer.description));
+        }
 
-        if (success) {
-            return Response.ok("Virement effectué avec succès.").build();
-        } else {
+        try {
+            TransferBatchResult result = accountManager.transferBatch(orders, request.atomic);
+            if (result.isAtomic() && result.getRejected() > 0) {
+                return Response.status(Response.Status.BAD_REQUEST).entity(result).build();
+            }
+            return Response.ok(result).build();
+        } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("Échec du virement (solde insuffisant ou compte introuvable).")
+                    .entity("Erreur : " + e.getMessage())
                     .build();
         }
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,11 @@ package org.groupm.ewallet.webservice;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.groupm.ewallet.config.ReadOnly;
 import org.groupm.ewallet.model.User;
 import org.groupm.ewallet.service.business.UserManager;
 
@@ -27,11 +30,21 @@ public class UserResource {
     /**
      * Récupère la liste de tous les utilisateurs.
      * Endpoint : GET /api/users
+     * Pagination : ?limit=&after= (curseur de l'en-tête X-Next-Cursor).
      */
     @GET
-    public Response getAllUsers() {
-        List<User> users = userManager.getAllUsers();
-        return Response.ok(users).build();
+    @ReadOnly
+    public Response getAllUsers(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
+        int size = Pagination.limit(limit);
+        String afterUserId;
+        try {
+            afterUserId = Pagination.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Pagination.badCursor();
+        }
+        List<User> users = userManager.getUsersPage(afterUserId, size + 1);
+        return Pagination.page(users, size, User::getUserID, uriInfo);
     }
 
     /**
@@ -72,9 +85,10 @@ public class UserResource {
      * Endpoint : GET /api/users/{id}
      */
     @GET
+    @ReadOnly
     @Path("/{id}")
     public Response getUserById(@PathParam("id") String id) {
-        User user = userManager.getUserById(id);
+        User user = userManager.getUserWithDetails(id);
         if (user == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Utilisateur non trouvé")
@@ -0,0 +1,33 @@
+package org.groupm.ewallet.webservice;
+
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import org.groupm.ewallet.service.business.WealthHistoryManager;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tâche planifiée de purge de la série temporelle de richesse : supprime les
+ * points RAW, horaires et journaliers au-delà de leur fenêtre de rétention.
+ */
+@Singleton
+public class WealthHistoryRetentionJob {
+
+    private static final Logger LOGGER = Logger.getLogger(WealthHistoryRetentionJob.class.getName());
+
+    @Inject
+    private WealthHistoryManager wealthHistory;
+
+    @Schedule(hour = "*", minute = "17", persistent = false)
+    public void purgeExpiredPoints() {
+        try {
+            Map<String, Integer> purged = wealthHistory.purgeExpired();
+            LOGGER.info("Wealth history retention: " + purged);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Wealth history retention failed", e);
+        }
+    }
+}
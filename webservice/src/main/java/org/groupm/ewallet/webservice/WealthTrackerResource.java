@@ -5,8 +5,18 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.groupm.ewallet.config.ReadOnly;
+import org.groupm.ewallet.model.WealthPoint;
 import org.groupm.ewallet.model.WealthTracker;
 import org.groupm.ewallet.service.business.UserManager;
+import org.groupm.ewallet.service.business.WealthHistoryManager;
+import org.groupm.ewallet.service.business.WealthSnapshotManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -23,6 +33,12 @@ public class WealthTrackerResource {
     @Inject
     private UserManager userManager;
 
+    @Inject
+    private WealthSnapshotManager wealthSnapshots;
+
+    @Inject
+    private WealthHistoryManager wealthHistory;
+
     private static final Logger LOGGER = Logger.getLogger(WealthTrackerResource.class.getName());
 
     /**
@@ -37,14 +53,43 @@ public class WealthTrackerResource {
     }
 
     /**
-     * Récupère les informations de richesse pour un utilisateur donné.
+     * Compare les snapshots de richesse à un recalcul complet.
+     * Endpoint : POST /api/wealth/consistency?repair=false
+     */
+    @POST
+    @Path("/consistency")
+    public Response checkConsistency(@QueryParam("repair") @DefaultValue("false") boolean repair) {
+        List<WealthSnapshotManager.Mismatch> mismatches = wealthSnapshots.checkConsistency(repair);
+        return Response.ok(mismatches).build();
+    }
+
+    /**
+     * Recalcule la richesse d'un utilisateur à partir des comptes et actifs.
+     * Endpoint : POST /api/wealth/{userId}/recompute
+     */
+    @POST
+    @Path("/{userId}/recompute")
+    public Response recomputeWealth(@PathParam("userId") String userId) {
+        WealthTracker wealth = userManager.calculateWealthForUser(userId);
+        if (wealth == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("User not found")
+                    .build();
+        }
+        return Response.ok(wealth).build();
+    }
+
+    /**
+     * Récupère les informations de richesse pour un utilisateur donné
+     * (lecture du snapshot maintenu incrémentalement).
      * Endpoint : GET /api/wealth/{userId}
      */
     @GET
+    @ReadOnly
     @Path("/{userId}")
     public Response getWealthByUser(@PathParam("userId") String userId) {
         LOGGER.info("Calling GET /wealth/" + userId);
-        WealthTracker wealth = userManager.calculateWealthForUser(userId);
+        WealthTracker wealth = wealthSnapshots.getSnapshot(userId);
         if (wealth == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("User not found or no associated portfolio")
@@ -52,4 +97,82 @@ public class WealthTrackerResource {
         }
         return Response.ok(wealth).build();
     }
+
+    /**
+     * Série temporelle de la richesse d'un utilisateur.
+     * Endpoint : GET /api/wealth/{userId}/history?from=&to=&resolution=
+     * Dates ISO (2025-01-31 ou 2025-01-31T10:00:00). Par défaut : 30 derniers
+     * jours, à la résolution la plus fine encore conservée
+     * (RAW / HOURLY / DAILY / MONTHLY).
+     */
+    @GET
+    @ReadOnly
+    @Path("/{userId}/history")
+    public Response getWealthHistory(@PathParam("userId") String userId,
+            @QueryParam("from") String fromParam,
+            @QueryParam("to") String toParam,
+            @QueryParam("resolution") String resolutionParam) {
+        try {
+            LocalDateTime to = toParam != null ? parseDate(toParam, true) : LocalDateTime.now();
+            LocalDateTime from = fromParam != null ? parseDate(fromParam, false) : to.minusDays(30);
+            WealthPoint.Resolution resolution = resolutionParam != null
+                    ? WealthPoint.Resolution.valueOf(resolutionParam.toUpperCase())
+                    : null;
+
+            if (from.isAfter(to)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\":\"'from' must be before 'to'\"}").build();
+            }
+            List<WealthPoint> points = wealthHistory.getHistory(userId, from, to, resolution);
+            return Response.ok(points).build();
+
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Invalid parameter: " + e.getMessage() + "\"}").build();
+        }
+    }
+
+    /**
+     * Taux de croissance de la richesse depuis une date.
+     * Endpoint : GET /api/wealth/{userId}/growth?since=2025-01-01
+     */
+    @GET
+    @ReadOnly
+    @Path("/{userId}/growth")
+    public Response getGrowth(@PathParam("userId") String userId, @QueryParam("since") String sinceParam) {
+        WealthTracker wealth = wealthSnapshots.getSnapshot(userId);
+        if (wealth == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("User not found")
+                    .build();
+        }
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("userID", userId);
+            result.put("totalWealthUsd", wealth.getTotalWealthUsdAsBigDecimal());
+            if (sinceParam != null) {
+                result.put("since", sinceParam);
+                result.put("growthRate", wealthHistory.growthRateSince(userId, parseDate(sinceParam, false),
+                        wealth.getTotalWealthUsdAsBigDecimal()));
+            } else {
+                result.put("growthRate", wealth.getGrowthRateAsBigDecimal());
+            }
+            return Response.ok(result).build();
+
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Invalid parameter: " + e.getMessage() + "\"}").build();
+        }
+    }
+
+    /**
+     * Accepte une date (début ou fin de journée) ou une date-heure ISO.
+     */
+    private static LocalDateTime parseDate(String value, boolean endOfDay) {
+        if (value.contains("T")) {
+            return LocalDateTime.parse(value);
+        }
+        LocalDate date = LocalDate.parse(value);
+        return endOfDay ? date.atTime(23, 59, 59) : date.atStartOfDay();
+    }
 }